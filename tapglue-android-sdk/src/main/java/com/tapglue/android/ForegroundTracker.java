@@ -0,0 +1,120 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package com.tapglue.android;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+
+import com.tapglue.android.http.UnreadCountWatcher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Tells the unread count watchers whether an activity of the app is started. A single tracker is
+ * registered per process, the watchers are held weakly so they go away with their instance.
+ */
+class ForegroundTracker implements Application.ActivityLifecycleCallbacks {
+
+    private static ForegroundTracker tracker;
+
+    private final Set<UnreadCountWatcher> watchers =
+        Collections.newSetFromMap(new WeakHashMap<UnreadCountWatcher, Boolean>());
+    private int startedActivities = 0;
+    private boolean observed = false;
+
+    ForegroundTracker() {}
+
+    /**
+     * Registers the tracker of the process on first use and adds the watcher to it.
+     */
+    static synchronized void track(Application application, UnreadCountWatcher watcher) {
+        if(tracker == null) {
+            tracker = new ForegroundTracker();
+            application.registerActivityLifecycleCallbacks(tracker);
+        }
+        tracker.add(watcher);
+    }
+
+    /**
+     * Watchers added after the first activity callback start with the current state.
+     */
+    void add(UnreadCountWatcher watcher) {
+        boolean inForeground;
+        synchronized(this) {
+            watchers.add(watcher);
+            if(!observed) {
+                return;
+            }
+            inForeground = startedActivities > 0;
+        }
+        watcher.setForeground(inForeground);
+    }
+
+    @Override
+    public void onActivityStarted(Activity activity) {
+        List<UnreadCountWatcher> changed = null;
+        synchronized(this) {
+            observed = true;
+            if(startedActivities++ == 0) {
+                changed = new ArrayList<>(watchers);
+            }
+        }
+        setForeground(changed, true);
+    }
+
+    @Override
+    public void onActivityStopped(Activity activity) {
+        List<UnreadCountWatcher> changed = null;
+        synchronized(this) {
+            observed = true;
+            if(startedActivities > 0 && --startedActivities == 0) {
+                changed = new ArrayList<>(watchers);
+            }
+        }
+        setForeground(changed, false);
+    }
+
+    private static void setForeground(List<UnreadCountWatcher> watchers, boolean inForeground) {
+        if(watchers == null) {
+            return;
+        }
+        for(UnreadCountWatcher watcher: watchers) {
+            watcher.setForeground(inForeground);
+        }
+    }
+
+    @Override
+    public void onActivityCreated(Activity activity, Bundle savedInstanceState) {}
+
+    @Override
+    public void onActivityResumed(Activity activity) {}
+
+    @Override
+    public void onActivityPaused(Activity activity) {}
+
+    @Override
+    public void onActivitySaveInstanceState(Activity activity, Bundle outState) {}
+
+    @Override
+    public void onActivityDestroyed(Activity activity) {}
+}
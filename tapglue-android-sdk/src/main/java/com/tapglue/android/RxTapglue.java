@@ -16,24 +16,40 @@
  */
 package com.tapglue.android;
 
+import android.app.Application;
 import android.content.Context;
 
 import java.util.List;
+import java.util.Map;
 
+import com.tapglue.android.entities.AnalyticsEvent;
 import com.tapglue.android.entities.Comment;
 import com.tapglue.android.entities.Connection;
 import com.tapglue.android.entities.Connection.Type;
 import com.tapglue.android.entities.ConnectionList;
 import com.tapglue.android.entities.Event;
+import com.tapglue.android.entities.FeedUpdate;
 import com.tapglue.android.entities.Like;
 import com.tapglue.android.entities.NewsFeed;
 import com.tapglue.android.entities.Post;
 import com.tapglue.android.entities.Reaction;
 import com.tapglue.android.entities.User;
+import com.tapglue.android.http.AnalyticsQueue;
+import com.tapglue.android.http.FeedUpdates;
+import com.tapglue.android.http.HttpMetrics;
 import com.tapglue.android.http.Network;
 import com.tapglue.android.http.ServiceFactory;
+import com.tapglue.android.http.Transport;
+import com.tapglue.android.http.UnreadCountWatcher;
 import com.tapglue.android.http.payloads.SocialConnections;
+import com.tapglue.android.internal.AnalyticsBuffer;
+import com.tapglue.android.internal.SessionRecord;
+import com.tapglue.android.internal.SocialGraph;
+import com.tapglue.android.internal.UserCache;
 import com.tapglue.android.internal.UserStore;
+import com.tapglue.android.platform.AndroidDeviceInfo;
+import com.tapglue.android.platform.AndroidStorage;
+import com.tapglue.android.platform.Storage;
 import com.tapglue.android.sims.TapglueSims;
 
 import java.util.concurrent.Callable;
@@ -44,19 +60,43 @@ import rx.functions.Action0;
 
 public class RxTapglue {
 
+    static final String SDK_STARTED = "sdk.started";
+
     private static TapglueSims sims;
     private static AtomicBoolean firstInstance = new AtomicBoolean(true);
     private Network network;
     private UserStore currentUser;
+    private AnalyticsQueue analytics;
+    private UnreadCountWatcher unreadCount;
+    private FeedUpdates feedUpdates;
 
     /**
      * @param configuration configuration of the tapglue instance
      * @param context the context will be used for persisting session token and current user
      */
     public RxTapglue(Configuration configuration, Context context) {
-        this.network = new Network(new ServiceFactory(configuration), context);
-        this.currentUser = new UserStore(context);
-        initializeSims(configuration, context);
+        Storage storage = new AndroidStorage(context);
+        Transport transport = new Transport(configuration, new AndroidDeviceInfo());
+        SessionRecord session = new SessionRecord(storage);
+        this.network = new Network(new ServiceFactory(configuration, transport), storage, session);
+        this.currentUser = new UserStore(session);
+        initializeSims(configuration, context, network.getTransport());
+        if(configuration.isWarmUp()) {
+            network.warmUp();
+        }
+        analytics = new AnalyticsQueue(network,
+            new AnalyticsBuffer(storage, configuration.getAnalyticsBufferSize()),
+            network.getHttpMetrics(), configuration.getAnalyticsBatchSize(),
+            configuration.getAnalyticsFlushInterval(), TapglueSchedulers.analytics());
+        analytics.record(new AnalyticsEvent(SDK_STARTED));
+        unreadCount = new UnreadCountWatcher(network, configuration.getUnreadCountMinInterval(),
+            configuration.getUnreadCountMaxInterval(), TapglueSchedulers.polling());
+        feedUpdates = new FeedUpdates(network, configuration.getFeedUpdatesUrl(),
+            configuration.getFeedUpdatesPollInterval(), configuration.getFeedUpdatesReconnectDelay(),
+            TapglueSchedulers.polling());
+        if(context.getApplicationContext() instanceof Application) {
+            ForegroundTracker.track((Application) context.getApplicationContext(), unreadCount);
+        }
     }
 
     /**
@@ -166,6 +206,39 @@ public class RxTapglue {
         return network.retrieveUser(id);
     }
 
+    /**
+     * The user cache serves {@link #retrieveUser(String) retrieveUser} while entries are fresh
+     * and is filled with the users contained in feeds.
+     * @return the {@link com.tapglue.android.internal.UserCache user cache} with its hit and miss
+     * counters.
+     */
+    public UserCache getUserCache() {
+        return network.getUserCache();
+    }
+
+    /**
+     * @return counters of the HTTP stack, e.g. {@link HttpMetrics#RETRY_ATTEMPTS retry attempts}.
+     */
+    public HttpMetrics getHttpMetrics() {
+        return network.getHttpMetrics();
+    }
+
+    /**
+     * Records an analytics event. Events are buffered and sent in batches.
+     * @param type name of the event
+     * @param properties additional values describing the event
+     */
+    public void recordEvent(String type, Map<String, String> properties) {
+        analytics.record(new AnalyticsEvent(type, properties));
+    }
+
+    /**
+     * Sends the buffered analytics events without waiting for a full batch.
+     */
+    public void flushAnalytics() {
+        analytics.flush();
+    }
+
     /**
      * retrieve the users followed by the current user
      * @return List of followed {@link com.tapglue.android.entities.User users}.
@@ -217,6 +290,25 @@ public class RxTapglue {
         return network.retrieveUserFriends(userId);
     }
 
+    /**
+     * The social graph holds the ids of the current users followings, followers and friends for
+     * quick membership checks. It is filled by {@link #retrieveFollowings() retrieveFollowings},
+     * {@link #retrieveFollowers() retrieveFollowers}, {@link #retrieveFriends() retrieveFriends}
+     * and kept up to date when connections are created or deleted.
+     * @return the {@link com.tapglue.android.internal.SocialGraph social graph} of the current user
+     */
+    public SocialGraph getSocialGraph() {
+        return network.getSocialGraph();
+    }
+
+    /**
+     * Loads all pages of followings, followers and friends into the social graph.
+     * @return the fully loaded {@link com.tapglue.android.internal.SocialGraph social graph}
+     */
+    public Observable<SocialGraph> syncSocialGraph() {
+        return network.syncSocialGraph();
+    }
+
     /**
      * @return list of {@link com.tapglue.android.entities.Connection connections} in a pending state.
      */
@@ -239,6 +331,18 @@ public class RxTapglue {
         return network.createConnection(connection);
     }
 
+    /**
+     * Optimistic version of {@link #createConnection(Connection) createConnection}. A confirmed
+     * connection is added to the {@link #getSocialGraph() social graph} right away, the request
+     * is sent in the background and retried while there is no connection.
+     * @param connection {@link com.tapglue.android.entities.Connection connection} to be created
+     * @return emits the connection right away, fails if the API rejected it and the change was
+     * rolled back
+     */
+    public Observable<Connection> createConnectionOptimistic(Connection connection) {
+        return network.createConnectionOptimistic(connection);
+    }
+
     /**
      * create connections with users retrieved from other social networks
      * @param connections the {@link com.tapglue.android.http.payloads.SocialConnections connections}
@@ -261,6 +365,18 @@ public class RxTapglue {
         return network.searchUsers(searchTerm);
     }
 
+    /**
+     * Type-ahead search. Every term is answered right away from the users the SDK has already seen
+     * in follows, friends and feeds. The server is only asked after the user stopped typing for
+     * {@link com.tapglue.android.Configuration#setTypeAheadDebounce(long) the debounce} and its
+     * results are merged into the local results.
+     * @param searchTerms the terms as typed by the user
+     * @return search result for the latest term as a list of {@link com.tapglue.android.entities.User users}.
+     */
+    public Observable<List<User>> searchUsersTypeAhead(Observable<String> searchTerms) {
+        return network.searchUsersTypeAhead(searchTerms);
+    }
+
     /**
      * Search for users on tapglue by email.
      * @param emails emails to search for.
@@ -281,6 +397,26 @@ public class RxTapglue {
         return network.searchUsersBySocialIds(platform, socialIds);
     }
 
+    /**
+     * Matches a large contact book against tapglue users. The emails are split into chunks that
+     * are searched in parallel, see {@link com.tapglue.android.Configuration#setContactMatchChunkSize(int)}.
+     * @param emails emails to search for.
+     * @return matched {@link com.tapglue.android.entities.User users} as they arrive.
+     */
+    public Observable<User> matchUsersByEmail(List<String> emails) {
+        return network.matchUsersByEmail(emails);
+    }
+
+    /**
+     * Matches a large list of ids from another social platform against tapglue users.
+     * @param platform the platform the ids belong to.
+     * @param socialIds the userIds to search for.
+     * @return matched {@link com.tapglue.android.entities.User users} as they arrive.
+     */
+    public Observable<User> matchUsersBySocialIds(String platform, List<String> socialIds) {
+        return network.matchUsersBySocialIds(platform, socialIds);
+    }
+
     /**
      * @param post {@link com.tapglue.android.entities.Post post} to be created.
      * @return created post.
@@ -338,6 +474,27 @@ public class RxTapglue {
         return network.createLike(postId);
     }
 
+    /**
+     * Optimistic version of {@link #createLike(String) createLike}. The post is marked as liked
+     * and its like count increased right away, the like is sent in the background and retried
+     * while there is no connection.
+     * @param post the post to be liked, updated in place.
+     * @return emits the updated post right away, fails if the API rejected the like and the
+     * change was rolled back
+     */
+    public Observable<Post> createLikeOptimistic(Post post) {
+        return network.createLikeOptimistic(post);
+    }
+
+    /**
+     * Sends the optimistic likes, reactions, comments and connections that stayed undelivered
+     * after their retries ran out, e.g. once the device is online again. They are also sent on
+     * the next start.
+     */
+    public void retryPendingMutations() {
+        network.retryPendingMutations();
+    }
+
     /**
      * Deletes like.
      * @param postId id of the post that was liked.
@@ -373,6 +530,17 @@ public class RxTapglue {
         return network.createReaction(postId, reaction);
     }
 
+    /**
+     * Optimistic version of {@link #createReaction(String, Reaction) createReaction}.
+     * @param post the post on which the reaction is created, updated in place.
+     * @param reaction {@link com.tapglue.android.entities.Reaction reaction}
+     * @return emits the updated post right away, fails if the API rejected the reaction and the
+     * change was rolled back
+     */
+    public Observable<Post> createReactionOptimistic(Post post, Reaction reaction) {
+        return network.createReactionOptimistic(post, reaction);
+    }
+
     public Observable<Void> deleteReaction(String postId, Reaction reaction) {
         return network.deleteReaction(postId, reaction);
     }
@@ -386,6 +554,18 @@ public class RxTapglue {
         return network.createComment(postId, comment);
     }
 
+    /**
+     * Optimistic version of {@link #createComment(String, Comment) createComment}. The comment
+     * count of the post is increased right away.
+     * @param post the post to be commented, updated in place.
+     * @param comment {@link com.tapglue.android.entities.Comment comment}
+     * @return emits the updated post right away, fails if the API rejected the comment and the
+     * change was rolled back
+     */
+    public Observable<Post> createCommentOptimistic(Post post, Comment comment) {
+        return network.createCommentOptimistic(post, comment);
+    }
+
     /**
      * delete comment.
      * @param postId id of the post that was commented.
@@ -423,6 +603,18 @@ public class RxTapglue {
         return network.retrievePostFeed();
     }
 
+    /**
+     * Retrieve current users post feed within a time budget. Requests still running when the
+     * budget runs out are cancelled, including requests for previous pages of the feed.
+     * @param deadline budget in milliseconds for the feed and all its previous pages.
+     * @return list of {@link com.tapglue.android.entities.Post posts}, the last retrieved post
+     * feed when the budget ran out, or {@link com.tapglue.android.http.TapglueError#DEADLINE_EXCEEDED}
+     * if there is none.
+     */
+    public Observable<RxPage<List<Post>>> retrievePostFeed(long deadline) {
+        return network.retrievePostFeed(deadline);
+    }
+
     /**
      * Retrieve current users event feed.
      * @return list of {@link com.tapglue.android.entities.Event events}.
@@ -439,25 +631,72 @@ public class RxTapglue {
         return network.retrieveNewsFeed();
     }
 
+    /**
+     * Retrieve current users news feed within a time budget, see {@link #retrievePostFeed(long)}.
+     * @param deadline budget in milliseconds for the feed and all its previous pages.
+     * @return {@link com.tapglue.android.entities.NewsFeed news feed}, or the last retrieved news
+     * feed when the budget ran out.
+     */
+    public Observable<RxPage<NewsFeed>> retrieveNewsFeed(long deadline) {
+        return network.retrieveNewsFeed(deadline);
+    }
+
     /**
      * Retrieve event feed of content centered around the current user and the current users 
      * content.
      * @return list of {@link com.tapglue.android.entities.Event events}.
      */
     public Observable<RxPage<List<Event>>> retrieveMeFeed() {
-        return network.retrieveMeFeed();
+        return network.retrieveMeFeed().doOnCompleted(new UnreadCountRefresh());
+    }
+
+    /**
+     * Retrieve the me feed within a time budget, see {@link #retrievePostFeed(long)}.
+     * @param deadline budget in milliseconds for the feed and all its previous pages.
+     * @return list of {@link com.tapglue.android.entities.Event events}, or the last retrieved
+     * me feed when the budget ran out.
+     */
+    public Observable<RxPage<List<Event>>> retrieveMeFeed(long deadline) {
+        return network.retrieveMeFeed(deadline).doOnCompleted(new UnreadCountRefresh());
+    }
+
+    /**
+     * Watches the unread count of the me feed, e.g. for a badge. All subscribers share one
+     * poller, which backs off while the count does not change and pauses while the app is in the
+     * background.
+     * @return the unread count, emitted whenever it changed.
+     */
+    public Observable<Long> watchUnreadCount() {
+        return unreadCount.watch();
+    }
+
+    /**
+     * Watches new events and posts of the feeds. Updates arrive over the stream set with
+     * {@link Configuration#setFeedUpdatesUrl(String)} and are polled while it is unavailable.
+     * They are merged into the last retrieved first page of the post, news and me feed.
+     * @return {@link com.tapglue.android.entities.FeedUpdate updates} as they arrive.
+     */
+    public Observable<FeedUpdate> watchFeedUpdates() {
+        return feedUpdates.updates();
     }
 
-    private void initializeSims(Configuration configuration, Context context) {
+    private void initializeSims(Configuration configuration, Context context, Transport transport) {
         if(sims == null) {
             synchronized(RxTapglue.class) {
                 if(sims == null) {
-                    sims = new TapglueSims(configuration, context);
+                    sims = new TapglueSims(configuration, context, transport);
                 }
             }
         }
     }
 
+    private class UnreadCountRefresh implements Action0 {
+        @Override
+        public void call() {
+            unreadCount.activityDetected();
+        }
+    }
+
     private static class SimsSessionTokenNotifier implements Action0 {
         @Override
         public void call() {
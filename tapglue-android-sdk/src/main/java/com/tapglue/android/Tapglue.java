@@ -27,10 +27,13 @@ import com.tapglue.android.entities.Like;
 import com.tapglue.android.entities.NewsFeed;
 import com.tapglue.android.entities.Post;
 import com.tapglue.android.entities.User;
+import com.tapglue.android.http.HttpMetrics;
 import com.tapglue.android.http.payloads.SocialConnections;
+import com.tapglue.android.internal.UserCache;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Depending on the paradigm used all interactions with Tapglue will happen through this class or
@@ -157,6 +160,37 @@ public class Tapglue {
         return new RxWrapper<User>().unwrap(rxTapglue.retrieveUser(id));
     }
 
+    /**
+     * @return the {@link com.tapglue.android.internal.UserCache user cache} with its hit and miss
+     * counters.
+     */
+    public UserCache getUserCache() {
+        return rxTapglue.getUserCache();
+    }
+
+    /**
+     * @return counters of the HTTP stack, e.g. {@link HttpMetrics#RETRY_ATTEMPTS retry attempts}.
+     */
+    public HttpMetrics getHttpMetrics() {
+        return rxTapglue.getHttpMetrics();
+    }
+
+    /**
+     * Records an analytics event. Events are buffered and sent in batches.
+     * @param type name of the event
+     * @param properties additional values describing the event
+     */
+    public void recordEvent(String type, Map<String, String> properties) {
+        rxTapglue.recordEvent(type, properties);
+    }
+
+    /**
+     * Sends the buffered analytics events without waiting for a full batch.
+     */
+    public void flushAnalytics() {
+        rxTapglue.flushAnalytics();
+    }
+
     /**
      * @param connection {@link com.tapglue.android.entities.Connection connection} to be created
      * @return the created connection
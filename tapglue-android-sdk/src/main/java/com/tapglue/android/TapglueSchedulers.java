@@ -26,4 +26,8 @@ class TapglueSchedulers {
     public static Scheduler analytics() {
         return Schedulers.io();
     }
+
+    public static Scheduler polling() {
+        return Schedulers.io();
+    }
 }
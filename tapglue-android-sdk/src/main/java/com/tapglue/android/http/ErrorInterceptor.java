@@ -1,45 +0,0 @@
-/*
- *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
- *
- *  Licensed under the Apache License, Version 2.0 (the "License");
- *  you may not use this file except in compliance with the License.
- *  You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- *  Unless required by applicable law or agreed to in writing, software
- *  distributed under the License is distributed on an "AS IS" BASIS,
- *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- *  See the License for the specific language governing permissions and
- *  limitations under the License.
- */
-
-package com.tapglue.android.http;
-
-import com.google.gson.Gson;
-
-import java.io.IOException;
-
-import okhttp3.Interceptor;
-import okhttp3.Request;
-import okhttp3.Response;
-
-class ErrorInterceptor implements Interceptor {
-    @Override
-    public Response intercept(Chain chain) throws IOException {
-        Request request = chain.request();
-        Response response = chain.proceed(request);
-
-        if (response.code() >= 200 && response.code() <= 299) {
-            return response;
-        }
-        ErrorFeed errorFeed = new Gson().fromJson(response.body().charStream(), ErrorFeed.class);
-
-        if (errorFeed != null && errorFeed.errors != null && !errorFeed.errors.isEmpty()) {
-            response.body().close();
-            throw errorFeed.errors.get(0);
-        }
-
-        return response;
-    }
-}
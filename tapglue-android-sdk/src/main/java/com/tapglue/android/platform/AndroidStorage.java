@@ -0,0 +1,60 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.platform;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+/**
+ * Keeps every store in its own private shared preferences file.
+ */
+public class AndroidStorage implements Storage {
+
+    private final Context context;
+
+    public AndroidStorage(Context context) {
+        this.context = context;
+    }
+
+    @Override
+    public KeyValueStore open(String name) {
+        return new SharedPreferencesStore(context.getSharedPreferences(name, Context.MODE_PRIVATE));
+    }
+
+    static class SharedPreferencesStore implements KeyValueStore {
+        private final SharedPreferences prefs;
+
+        SharedPreferencesStore(SharedPreferences prefs) {
+            this.prefs = prefs;
+        }
+
+        @Override
+        public String getString(String key) {
+            return prefs.getString(key, null);
+        }
+
+        @Override
+        public void putString(String key, String value) {
+            prefs.edit().putString(key, value).apply();
+        }
+
+        @Override
+        public void clear() {
+            prefs.edit().clear().apply();
+        }
+    }
+}
@@ -18,6 +18,8 @@ package com.tapglue.android.sims;
 
 import com.tapglue.android.Configuration;
 import com.tapglue.android.http.ClientFactory;
+import com.tapglue.android.http.Transport;
+import com.tapglue.android.platform.AndroidDeviceInfo;
 
 import okhttp3.OkHttpClient;
 import retrofit2.Retrofit;
@@ -28,13 +30,22 @@ public class SimsServiceFactory {
     String sessionToken = "";
     Configuration configuration;
     String userUUID = "";
+    Transport transport;
 
     public SimsServiceFactory(Configuration configuration) {
+        this(configuration, new Transport(configuration, new AndroidDeviceInfo()));
+    }
+
+    /**
+     * @param transport shared with the other clients of the SDK
+     */
+    public SimsServiceFactory(Configuration configuration, Transport transport) {
         this.configuration = configuration;
+        this.transport = transport;
     }
 
     public SimsService createService() {
-        OkHttpClient client = ClientFactory.createClient(configuration, sessionToken, userUUID);
+        OkHttpClient client = ClientFactory.createClient(configuration, sessionToken, userUUID, transport);
 
         Retrofit retrofit = new Retrofit.Builder().client(client)
                 .addCallAdapterFactory(RxJavaCallAdapterFactory.create())
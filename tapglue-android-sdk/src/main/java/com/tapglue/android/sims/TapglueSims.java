@@ -4,35 +4,87 @@ import android.content.Context;
 
 import com.tapglue.android.Configuration;
 import com.tapglue.android.entities.User;
+import com.tapglue.android.http.IsTransientError;
+import com.tapglue.android.http.Transport;
+import com.tapglue.android.internal.DeviceRegistration;
+import com.tapglue.android.internal.DeviceRegistrationStore;
 import com.tapglue.android.internal.NotificationServiceIdStore;
+import com.tapglue.android.internal.RetryWithBackoff;
 import com.tapglue.android.internal.SessionStore;
 import com.tapglue.android.internal.UUIDStore;
+import com.tapglue.android.platform.AndroidDeviceInfo;
+import com.tapglue.android.platform.AndroidStorage;
+import com.tapglue.android.platform.Storage;
 
-import java.util.Locale;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import rx.Observable;
-import rx.Observer;
+import rx.Scheduler;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.functions.Func0;
 import rx.functions.Func1;
 import rx.functions.Func3;
 import rx.schedulers.Schedulers;
-
+import rx.subjects.PublishSubject;
+import rx.subjects.Subject;
+
+/**
+ * Registers the device for push notifications. Registrations and unregistrations are processed
+ * one after another, and a registration is only sent when the notification token, session or
+ * language changed since the last registration the API accepted.
+ */
 public class TapglueSims implements NotificationServiceIdListener {
 
-    private static AtomicBoolean isRegistered = new AtomicBoolean(false);
+    private static final long MAX_RETRY_DELAY = 60000;
+
+    public enum State {
+        UNREGISTERED, REGISTERING, REGISTERED, FAILED
+    }
 
     NotificationServiceIdStore notificationIdStore;
-    SessionStore sessionStore;
+    DeviceRegistrationStore registrationStore;
     UUIDStore uuidStore;
     final Configuration configuration;
-    final Locale locale;
+    final Context context;
+    final Storage storage;
+    final Transport transport;
+    final Scheduler scheduler;
+    private final AtomicReference<State> state = new AtomicReference<>(State.UNREGISTERED);
+    private volatile String sessionToken;
+    private SimsService service;
+    private String serviceSessionToken;
+    private String serviceUuid;
+    private final Subject<Observable<Void>, Observable<Void>> jobs =
+        PublishSubject.<Observable<Void>>create().toSerialized();
 
     public TapglueSims(Configuration configuration, Context context) {
+        this(configuration, context, new Transport(configuration, new AndroidDeviceInfo()));
+    }
+
+    /**
+     * @param transport shared with the other clients of the SDK
+     */
+    public TapglueSims(Configuration configuration, Context context, Transport transport) {
+        this(configuration, context, transport, Schedulers.io());
+    }
+
+    TapglueSims(Configuration configuration, Context context, Transport transport, Scheduler scheduler) {
         this.configuration = configuration;
-        notificationIdStore = new NotificationServiceIdStore(context);
-        sessionStore = new SessionStore(context);
-        uuidStore = new UUIDStore(context);
-        locale = context.getResources().getConfiguration().locale;
+        this.context = context;
+        this.storage = new AndroidStorage(context);
+        this.transport = transport;
+        this.scheduler = scheduler;
+        notificationIdStore = new NotificationServiceIdStore(storage);
+        registrationStore = new DeviceRegistrationStore(storage);
+        uuidStore = new UUIDStore(storage);
+        jobs.onBackpressureBuffer().concatMap(new Func1<Observable<Void>, Observable<Void>>() {
+            @Override
+            public Observable<Void> call(Observable<Void> job) {
+                return job.subscribeOn(TapglueSims.this.scheduler)
+                    .onErrorResumeNext(Observable.<Void>empty());
+            }
+        }).subscribe();
         SimsIdListenerService.setListener(this);
     }
 
@@ -46,96 +98,125 @@ public class TapglueSims implements NotificationServiceIdListener {
        registerDeviceForSims();
     }
 
-    public void unregisterDevice() {
-        if(!isRegistered.get()) {
-            return;
-        }
-        Observable<DeviceRegistrationParams> parameterGathering = Observable.combineLatest(notificationIdStore.get(), sessionStore.get(), uuidStore.get(), new Func3<String, User, String, DeviceRegistrationParams>() {
-            @Override
-            public DeviceRegistrationParams call(String notificationId, User session, String uuid) {
-                DeviceRegistrationParams params = new DeviceRegistrationParams();
-                params.uuid = uuid;
-                params.session = session;
-                return params;
-            }
-        });
-
-        parameterGathering.flatMap(new Func1<DeviceRegistrationParams, Observable<Void>>() {
-            @Override
-            public Observable<Void> call(DeviceRegistrationParams params) {
-                SimsServiceFactory serviceFactory = new SimsServiceFactory(configuration);
-                serviceFactory.setSessionToken(params.session.getSessionToken());
-                serviceFactory.setUserUUID(params.uuid);
-                SimsService service = serviceFactory.createService();
-                return service.deleteDevice(params.uuid);
-            }
-        }).subscribeOn(Schedulers.io()).subscribe(new Observer<Void>() {
-            @Override
-            public void onCompleted() {
-                sessionStore.clear();
-            }
+    public State getState() {
+        return state.get();
+    }
 
+    /**
+     * Unregisters the device. Only the session token is taken right away, from memory, so the
+     * session is still available when the app logs out right after. The stored registration is
+     * read in the queued job.
+     */
+    public void unregisterDevice() {
+        final String token = sessionToken;
+        jobs.onNext(Observable.defer(new Func0<Observable<Void>>() {
             @Override
-            public void onError(Throwable e) {
-                sessionStore.clear();
+            public Observable<Void> call() {
+                DeviceRegistration registered = registrationStore.get().toBlocking().firstOrDefault(null);
+                if(registered == null) {
+                    return Observable.empty();
+                }
+                DeviceRegistration registration = new DeviceRegistration(registered.getToken(),
+                    token != null ? token : registered.getSessionToken(), registered.getLanguage(),
+                    registered.getUuid());
+                return createService(registration).deleteDevice(registration.getUuid())
+                    .doOnTerminate(new Action0() {
+                        @Override
+                        public void call() {
+                            registrationStore.clear();
+                            state.set(State.UNREGISTERED);
+                        }
+                    });
             }
+        }));
+    }
 
-            @Override
-            public void onNext(Void aVoid) {
-                isRegistered.set(false);
-            }
-        });
+    /**
+     * Read on every registration, so a changed device language is registered again.
+     */
+    String language() {
+        return context.getResources().getConfiguration().locale.toString();
     }
 
-    private void registerDeviceForSims() {
-        if(isRegistered.get()) {
-            return;
+    /**
+     * The service is built once per session token and uuid, registrations of the same session
+     * reuse its client and Retrofit instance.
+     */
+    synchronized SimsService createService(DeviceRegistration registration) {
+        if(service == null || !equal(serviceSessionToken, registration.getSessionToken())
+            || !equal(serviceUuid, registration.getUuid())) {
+            SimsServiceFactory serviceFactory = new SimsServiceFactory(configuration, transport);
+            serviceFactory.setSessionToken(registration.getSessionToken());
+            serviceFactory.setUserUUID(registration.getUuid());
+            service = serviceFactory.createService();
+            serviceSessionToken = registration.getSessionToken();
+            serviceUuid = registration.getUuid();
         }
-        Observable<DeviceRegistrationParams> parameterGathering = Observable.combineLatest(notificationIdStore.get(), sessionStore.get(), uuidStore.get(), new Func3<String, User, String, DeviceRegistrationParams>() {
-            @Override
-            public DeviceRegistrationParams call(String notificationId, User session, String uuid) {
-                DevicePayload payload = new DevicePayload();
-                payload.token = notificationId;
-                payload.language = locale.toString();
-                DeviceRegistrationParams params = new DeviceRegistrationParams();
-                params.payload = payload;
-                params.uuid = uuid;
-                params.session = session;
-                return params;
-            }
-        });
-
-        parameterGathering.flatMap(new Func1<DeviceRegistrationParams, Observable<Void>>() {
-
-            @Override
-            public Observable<Void> call(DeviceRegistrationParams params) {
-                SimsServiceFactory serviceFactory = new SimsServiceFactory(configuration);
-                serviceFactory.setSessionToken(params.session.getSessionToken());
-                serviceFactory.setUserUUID(params.uuid);
-                SimsService service = serviceFactory.createService();
-                return service.registerDevice(params.uuid, params.payload);
-            }
-        }).subscribeOn(Schedulers.io()).subscribe(new Observer<Void>() {
-            @Override
-            public void onCompleted() {
+        return service;
+    }
 
-            }
+    private static boolean equal(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
 
+    private void registerDeviceForSims() {
+        jobs.onNext(Observable.defer(new Func0<Observable<Void>>() {
             @Override
-            public void onError(Throwable e) {
-
+            public Observable<Void> call() {
+                return currentRegistration().concatMap(new Registration());
             }
+        }));
+    }
 
+    /**
+     * Emits nothing while the notification id, session or uuid are missing. The session is read
+     * through a new store every time, it is written through the store of the network layer. The
+     * session token read is kept for {@link #unregisterDevice()}.
+     */
+    private Observable<DeviceRegistration> currentRegistration() {
+        return Observable.combineLatest(notificationIdStore.get(), new SessionStore(storage).get(), uuidStore.get(), new Func3<String, User, String, DeviceRegistration>() {
             @Override
-            public void onNext(Void aVoid) {
-                isRegistered.set(true);
+            public DeviceRegistration call(String notificationId, User session, String uuid) {
+                sessionToken = session.getSessionToken();
+                return new DeviceRegistration(notificationId, sessionToken, language(), uuid);
             }
         });
     }
 
-    private static class DeviceRegistrationParams {
-        String uuid;
-        DevicePayload payload;
-        User session;
+    private class Registration implements Func1<DeviceRegistration, Observable<Void>> {
+        @Override
+        public Observable<Void> call(final DeviceRegistration registration) {
+            DeviceRegistration registered = registrationStore.get().toBlocking().firstOrDefault(null);
+            if(registration.equals(registered)) {
+                state.set(State.REGISTERED);
+                return Observable.empty();
+            }
+            final DevicePayload payload = new DevicePayload();
+            payload.token = registration.getToken();
+            payload.language = registration.getLanguage();
+            state.set(State.REGISTERING);
+            return Observable.defer(new Func0<Observable<Void>>() {
+                    @Override
+                    public Observable<Void> call() {
+                        return createService(registration).registerDevice(registration.getUuid(), payload);
+                    }
+                })
+                .retryWhen(new RetryWithBackoff(configuration.getSimsRegistrationMaxAttempts(),
+                    configuration.getSimsRegistrationRetryDelay(), MAX_RETRY_DELAY,
+                    new IsTransientError(), scheduler))
+                .doOnCompleted(new Action0() {
+                    @Override
+                    public void call() {
+                        registrationStore.store(registration);
+                        state.set(State.REGISTERED);
+                    }
+                })
+                .doOnError(new Action1<Throwable>() {
+                    @Override
+                    public void call(Throwable error) {
+                        state.set(State.FAILED);
+                    }
+                });
+        }
     }
 }
@@ -0,0 +1,110 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android;
+
+import android.app.Activity;
+import android.app.Application;
+
+import com.tapglue.android.http.UnreadCountWatcher;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ForegroundTrackerTest {
+
+    @Mock
+    UnreadCountWatcher watcher;
+    @Mock
+    UnreadCountWatcher other;
+    @Mock
+    Activity activity;
+    @Mock
+    Application application;
+
+    //SUT
+    ForegroundTracker tracker;
+
+    @Before
+    public void setUp() {
+        tracker = new ForegroundTracker();
+        tracker.add(watcher);
+    }
+
+    @Test
+    public void addedWatcherKeepsStateUntilFirstCallback() {
+        verify(watcher, never()).setForeground(anyBoolean());
+    }
+
+    @Test
+    public void firstStartedActivityMovesToForeground() {
+        tracker.onActivityStarted(activity);
+        tracker.onActivityStarted(activity);
+
+        verify(watcher, times(1)).setForeground(true);
+    }
+
+    @Test
+    public void lastStoppedActivityMovesToBackground() {
+        tracker.onActivityStarted(activity);
+        tracker.onActivityStarted(activity);
+        tracker.onActivityStopped(activity);
+
+        verify(watcher, never()).setForeground(false);
+
+        tracker.onActivityStopped(activity);
+
+        verify(watcher).setForeground(false);
+    }
+
+    @Test
+    public void laterWatcherStartsWithCurrentState() {
+        tracker.onActivityStarted(activity);
+        tracker.onActivityStopped(activity);
+
+        tracker.add(other);
+
+        verify(other).setForeground(false);
+    }
+
+    @Test
+    public void allWatchersAreTold() {
+        tracker.add(other);
+
+        tracker.onActivityStarted(activity);
+
+        verify(watcher).setForeground(true);
+        verify(other).setForeground(true);
+    }
+
+    @Test
+    public void registersOneTrackerPerProcess() {
+        ForegroundTracker.track(application, watcher);
+        ForegroundTracker.track(application, other);
+
+        verify(application, times(1)).registerActivityLifecycleCallbacks(any(ForegroundTracker.class));
+    }
+}
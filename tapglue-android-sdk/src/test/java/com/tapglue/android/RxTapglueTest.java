@@ -28,7 +28,9 @@ import com.tapglue.android.entities.Event;
 import com.tapglue.android.entities.Like;
 import com.tapglue.android.entities.Post;
 import com.tapglue.android.entities.User;
+import com.tapglue.android.http.HttpMetrics;
 import com.tapglue.android.http.Network;
+import com.tapglue.android.http.payloads.AnalyticsBatch;
 import com.tapglue.android.http.payloads.SocialConnections;
 import com.tapglue.android.internal.UserStore;
 
@@ -52,6 +54,7 @@ import rx.schedulers.Schedulers;
 
 import static org.hamcrest.core.IsCollectionContaining.hasItems;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
@@ -103,7 +106,7 @@ public class RxTapglueTest {
     @Before
     public void setUp() throws Exception{
         whenNew(Network.class).withAnyArguments().thenReturn(network);
-        whenNew(UserStore.class).withArguments(context).thenReturn(currentUser);
+        whenNew(UserStore.class).withAnyArguments().thenReturn(currentUser);
         Whitebox.setInternalState(RxTapglue.class, firstInstance);
 
         when(firstInstance.compareAndSet(true, false)).thenReturn(true);
@@ -112,6 +115,8 @@ public class RxTapglueTest {
         when(resources.getConfiguration()).thenReturn(mock(android.content.res.Configuration.class));
         when(currentUser.clear()).thenReturn(clearAction);
         when(network.sendAnalytics()).thenReturn(Observable.<Void>empty());
+        when(network.sendAnalytics(any(AnalyticsBatch.class))).thenReturn(Observable.<Void>empty());
+        when(network.getHttpMetrics()).thenReturn(new HttpMetrics());
         when(network.loginWithEmail(EMAIL, PASSWORD)).thenReturn(Observable.just(user));
         when(network.loginWithUsername(USERNAME, PASSWORD)).thenReturn(Observable.just(user));
         when(currentUser.store()).thenReturn(new Func1<User, User>() {
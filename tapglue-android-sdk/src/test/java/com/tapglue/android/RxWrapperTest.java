@@ -16,8 +16,6 @@
 
 package com.tapglue.android;
 
-import com.tapglue.android.internal.TestEntity;
-
 import org.junit.Test;
 
 import java.io.IOException;
@@ -30,23 +28,23 @@ import static org.hamcrest.core.IsNull.nullValue;
 
 public class RxWrapperTest {
 
-    RxWrapper<TestEntity> wrapper = new RxWrapper<>();
+    private static final String ENTITY = "entity";
+
+    RxWrapper<String> wrapper = new RxWrapper<>();
 
     @Test
     public void unwrapsObservable() throws IOException {
-        TestEntity entity = new TestEntity(10);
-
-        assertThat(wrapper.unwrap(Observable.just(entity)), equalTo(entity));
+        assertThat(wrapper.unwrap(Observable.just(ENTITY)), equalTo(ENTITY));
     }
 
     @Test (expected = IOException.class)
     public void throwsExceptionOnError() throws IOException {
-        wrapper.unwrap(Observable.<TestEntity>error(new IOException()));
+        wrapper.unwrap(Observable.<String>error(new IOException()));
     }
 
     @Test
     public void emptyObservableReturnsNull() throws IOException {
-        TestEntity entity = wrapper.unwrap(Observable.<TestEntity>empty());
+        String entity = wrapper.unwrap(Observable.<String>empty());
 
         assertThat(entity, nullValue());
     }
@@ -1,17 +1,41 @@
 package com.tapglue.android.sims;
 
 import android.content.Context;
+import android.content.SharedPreferences;
 import android.graphics.Bitmap;
 
 import com.tapglue.android.Configuration;
+import com.tapglue.android.http.TapglueError;
+import com.tapglue.android.http.Transport;
+import com.tapglue.android.internal.DeviceRegistration;
 import com.tapglue.android.internal.NotificationServiceIdStore;
+import com.tapglue.android.platform.DeviceInfo;
 
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.io.IOException;
+
+import okhttp3.ResponseBody;
+import retrofit2.Response;
+import retrofit2.adapter.rxjava.HttpException;
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class TapglueSimsTest {
@@ -22,8 +46,66 @@ public class TapglueSimsTest {
     Configuration configuration;
     @Mock
     NotificationServiceIdStore notificationIdStore;
+    @Mock
+    Transport transport;
+    @Mock
+    SharedPreferences prefs;
+    @Mock
+    SharedPreferences sessionPrefs;
+    @Mock
+    SharedPreferences uuidPrefs;
+    @Mock
+    SharedPreferences.Editor editor;
+    @Mock
+    SimsService service;
+    @Mock
+    DeviceInfo deviceInfo;
     private static final String ID = "someID";
 
+    //SUT
+    TapglueSims sims;
+
+    @Before
+    public void setUp() {
+        when(context.getSharedPreferences(anyString(), anyInt())).thenReturn(prefs);
+        when(context.getSharedPreferences(eq("sessionToken"), anyInt())).thenReturn(sessionPrefs);
+        when(context.getSharedPreferences(eq("uuid"), anyInt())).thenReturn(uuidPrefs);
+        when(sessionPrefs.getString(eq("token"), any(String.class))).thenReturn("session");
+        when(uuidPrefs.getString(anyString(), any(String.class))).thenReturn("\"uuid\"");
+        when(prefs.edit()).thenReturn(editor);
+        when(editor.putString(anyString(), any(String.class))).thenReturn(editor);
+        when(editor.clear()).thenReturn(editor);
+        when(configuration.getSimsRegistrationMaxAttempts()).thenReturn(3);
+        when(service.registerDevice(anyString(), any(DevicePayload.class))).thenReturn(Observable.<Void>empty());
+        when(service.deleteDevice(anyString())).thenReturn(Observable.<Void>empty());
+
+        sims = new TapglueSims(configuration, context, transport, Schedulers.immediate()) {
+            @Override
+            String language() {
+                return "de_DE";
+            }
+
+            @Override
+            SimsService createService(DeviceRegistration registration) {
+                return service;
+            }
+        };
+    }
+
+    @Test
+    public void serviceIsBuiltOncePerSession() {
+        when(configuration.getBaseUrl()).thenReturn("https://api.tapglue.com");
+        Transport sharedTransport = new Transport(configuration, deviceInfo);
+        TapglueSims sims = new TapglueSims(configuration, context, sharedTransport, Schedulers.immediate());
+
+        SimsService first = sims.createService(new DeviceRegistration("id", "session", "de_DE", "uuid"));
+        SimsService same = sims.createService(new DeviceRegistration("other", "session", "en_US", "uuid"));
+        SimsService other = sims.createService(new DeviceRegistration("id", "other", "de_DE", "uuid"));
+
+        assertThat(same, sameInstance(first));
+        assertThat(other, not(sameInstance(first)));
+    }
+
     @Test
     public void storesNotificationServiceIdOnChanged() {
 //        TapglueSims sims = new TapglueSims(configuration, context);
@@ -32,4 +114,94 @@ public class TapglueSimsTest {
 //
 //        verify(notificationIdStore).store(ID);
     }
+
+    @Test
+    public void registersDeviceWhenIdChanges() {
+        sims.idChanged(ID);
+
+        verify(service).registerDevice(eq("uuid"), any(DevicePayload.class));
+        assertThat(sims.getState(), equalTo(TapglueSims.State.REGISTERED));
+    }
+
+    @Test
+    public void skipsIdenticalRegistration() {
+        sims.idChanged(ID);
+
+        sims.sessionTokenChanged();
+        sims.sessionTokenChanged();
+
+        verify(service, times(1)).registerDevice(anyString(), any(DevicePayload.class));
+    }
+
+    @Test
+    public void registersAgainWhenSessionChanges() {
+        sims.idChanged(ID);
+        when(sessionPrefs.getString(eq("token"), any(String.class))).thenReturn("other");
+
+        sims.sessionTokenChanged();
+
+        verify(service, times(2)).registerDevice(anyString(), any(DevicePayload.class));
+    }
+
+    @Test
+    public void retriesConnectionErrors() {
+        when(service.registerDevice(anyString(), any(DevicePayload.class)))
+            .thenReturn(Observable.<Void>error(new IOException()))
+            .thenReturn(Observable.<Void>empty());
+
+        sims.idChanged(ID);
+
+        assertThat(sims.getState(), equalTo(TapglueSims.State.REGISTERED));
+    }
+
+    @Test
+    public void retriesUnavailableServer() {
+        HttpException unavailable = new HttpException(Response.error(503, ResponseBody.create(null, "")));
+        when(service.registerDevice(anyString(), any(DevicePayload.class)))
+            .thenReturn(Observable.<Void>error(unavailable))
+            .thenReturn(Observable.<Void>empty());
+
+        sims.idChanged(ID);
+
+        assertThat(sims.getState(), equalTo(TapglueSims.State.REGISTERED));
+    }
+
+    @Test
+    public void failsOnApiErrors() {
+        when(service.registerDevice(anyString(), any(DevicePayload.class)))
+            .thenReturn(Observable.<Void>error(new TapglueError(1000, "invalid")));
+
+        sims.idChanged(ID);
+
+        assertThat(sims.getState(), equalTo(TapglueSims.State.FAILED));
+    }
+
+    @Test
+    public void unregistersRegisteredDevice() {
+        sims.idChanged(ID);
+
+        sims.unregisterDevice();
+        sims.unregisterDevice();
+
+        verify(service, times(1)).deleteDevice("uuid");
+        assertThat(sims.getState(), equalTo(TapglueSims.State.UNREGISTERED));
+    }
+
+    @Test
+    public void unregistersWithoutStoredNotificationId() {
+        sims.idChanged(ID);
+        sims.notificationIdStore = notificationIdStore;
+        when(notificationIdStore.get()).thenReturn(Observable.<String>empty());
+
+        sims.unregisterDevice();
+
+        verify(service).deleteDevice("uuid");
+    }
+
+    @Test
+    public void unregisterWithoutRegistrationDoesNothing() {
+        sims.unregisterDevice();
+
+        verify(service, times(0)).deleteDevice(anyString());
+    }
 }
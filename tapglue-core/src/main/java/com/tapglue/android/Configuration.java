@@ -0,0 +1,479 @@
+/**
+ * Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.tapglue.android;
+
+/**
+ * The configuration class is where things such as base URLs, client token and logging are
+ * configured to the SDK
+ */
+public class Configuration {
+
+    private final String baseUrl;
+    private final String token;
+    private boolean isLogging = false;
+    private int pageSize = 25;
+    private int userCacheSize = 200;
+    private long userCacheTtl = 60000;
+    private int contactMatchChunkSize = 500;
+    private int contactMatchConcurrency = 4;
+    private long typeAheadDebounce = 300;
+    private int searchIndexSize = 1000;
+    private int writeBehindMaxAttempts = 5;
+    private long writeBehindRetryDelay = 1000;
+    private int maxRetries = 2;
+    private long retryBaseDelay = 500;
+    private long retryMaxDelay = 10000;
+    private int retryBudget = 10;
+    private int circuitBreakerWindow = 20;
+    private double circuitBreakerFailureRate = 0.5;
+    private long circuitBreakerOpenDuration = 30000;
+    private long connectTimeout = 10000;
+    private long readTimeout = 10000;
+    private long writeTimeout = 10000;
+    private boolean warmUp = false;
+    private boolean requestCompression = false;
+    private long requestCompressionThreshold = 1024;
+    private int simsRegistrationMaxAttempts = 5;
+    private long simsRegistrationRetryDelay = 2000;
+    private int analyticsBufferSize = 100;
+    private int analyticsBatchSize = 50;
+    private long analyticsFlushInterval = 30000;
+    private long unreadCountMinInterval = 15000;
+    private long unreadCountMaxInterval = 300000;
+    private String feedUpdatesUrl;
+    private long feedUpdatesPollInterval = 30000;
+    private long feedUpdatesReconnectDelay = 60000;
+
+    /**
+     * @param baseUrl URL provided by tapglue to be used for all requests done by the SDK
+     * @param token Token provided by tapglue for authentication of the client
+     */
+    public Configuration(String baseUrl, String token) {
+        this.token = token;
+        this.baseUrl = baseUrl;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Toggles logging
+     * @param isLogging if true then output of all http requests will be printed to the log
+     */
+    public void setLogging(boolean isLogging) {
+        this.isLogging = isLogging;
+    }
+    public boolean isLogging() {
+        return isLogging;
+    }
+
+    /**
+     * sets page size for paginated endpoints
+     * @param pageSize
+     */
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * sets the maximum amount of users kept in memory, 0 disables the user cache
+     * @param userCacheSize
+     */
+    public void setUserCacheSize(int userCacheSize) {
+        this.userCacheSize = userCacheSize;
+    }
+
+    public int getUserCacheSize() {
+        return userCacheSize;
+    }
+
+    /**
+     * sets how long a cached user is served without asking the API again
+     * @param userCacheTtl time to live in milliseconds
+     */
+    public void setUserCacheTtl(long userCacheTtl) {
+        this.userCacheTtl = userCacheTtl;
+    }
+
+    public long getUserCacheTtl() {
+        return userCacheTtl;
+    }
+
+    /**
+     * sets how many emails or social ids are sent per request when matching contacts
+     * @param contactMatchChunkSize
+     */
+    public void setContactMatchChunkSize(int contactMatchChunkSize) {
+        this.contactMatchChunkSize = contactMatchChunkSize;
+    }
+
+    public int getContactMatchChunkSize() {
+        return contactMatchChunkSize;
+    }
+
+    /**
+     * sets how many contact matching requests may run at the same time
+     * @param contactMatchConcurrency
+     */
+    public void setContactMatchConcurrency(int contactMatchConcurrency) {
+        this.contactMatchConcurrency = contactMatchConcurrency;
+    }
+
+    public int getContactMatchConcurrency() {
+        return contactMatchConcurrency;
+    }
+
+    /**
+     * sets how long type-ahead search waits for the user to stop typing before asking the server
+     * @param typeAheadDebounce debounce in milliseconds
+     */
+    public void setTypeAheadDebounce(long typeAheadDebounce) {
+        this.typeAheadDebounce = typeAheadDebounce;
+    }
+
+    public long getTypeAheadDebounce() {
+        return typeAheadDebounce;
+    }
+
+    /**
+     * sets how many users the local type-ahead index keeps, least recently used users are evicted
+     * @param searchIndexSize maximum number of users
+     */
+    public void setSearchIndexSize(int searchIndexSize) {
+        this.searchIndexSize = searchIndexSize;
+    }
+
+    public int getSearchIndexSize() {
+        return searchIndexSize;
+    }
+
+    /**
+     * sets how often an optimistic mutation is sent before it is rolled back
+     * @param writeBehindMaxAttempts
+     */
+    public void setWriteBehindMaxAttempts(int writeBehindMaxAttempts) {
+        this.writeBehindMaxAttempts = writeBehindMaxAttempts;
+    }
+
+    public int getWriteBehindMaxAttempts() {
+        return writeBehindMaxAttempts;
+    }
+
+    /**
+     * sets the delay before the first retry of an optimistic mutation, it doubles with every retry
+     * @param writeBehindRetryDelay delay in milliseconds
+     */
+    public void setWriteBehindRetryDelay(long writeBehindRetryDelay) {
+        this.writeBehindRetryDelay = writeBehindRetryDelay;
+    }
+
+    public long getWriteBehindRetryDelay() {
+        return writeBehindRetryDelay;
+    }
+
+    /**
+     * sets how often an idempotent request is retried after a transient failure, 0 disables retries
+     * @param maxRetries
+     */
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * sets the delay before the first retry of a request, it doubles with every retry and is
+     * randomized
+     * @param retryBaseDelay delay in milliseconds
+     */
+    public void setRetryBaseDelay(long retryBaseDelay) {
+        this.retryBaseDelay = retryBaseDelay;
+    }
+
+    public long getRetryBaseDelay() {
+        return retryBaseDelay;
+    }
+
+    /**
+     * sets the longest delay before a retry, requests asking for a longer Retry-After are not
+     * retried
+     * @param retryMaxDelay delay in milliseconds
+     */
+    public void setRetryMaxDelay(long retryMaxDelay) {
+        this.retryMaxDelay = retryMaxDelay;
+    }
+
+    public long getRetryMaxDelay() {
+        return retryMaxDelay;
+    }
+
+    /**
+     * sets the retry budget shared by all requests. Every retry uses one token, successful
+     * requests slowly give tokens back and retrying pauses while half of the budget is used up
+     * @param retryBudget
+     */
+    public void setRetryBudget(int retryBudget) {
+        this.retryBudget = retryBudget;
+    }
+
+    public int getRetryBudget() {
+        return retryBudget;
+    }
+
+    /**
+     * sets over how many of the latest requests to a group of endpoints the failure rate is
+     * computed, 0 disables the circuit breaker
+     * @param circuitBreakerWindow
+     */
+    public void setCircuitBreakerWindow(int circuitBreakerWindow) {
+        this.circuitBreakerWindow = circuitBreakerWindow;
+    }
+
+    public int getCircuitBreakerWindow() {
+        return circuitBreakerWindow;
+    }
+
+    /**
+     * sets the share of failed requests that makes requests to a group of endpoints fail fast
+     * @param circuitBreakerFailureRate value between 0 and 1
+     */
+    public void setCircuitBreakerFailureRate(double circuitBreakerFailureRate) {
+        this.circuitBreakerFailureRate = circuitBreakerFailureRate;
+    }
+
+    public double getCircuitBreakerFailureRate() {
+        return circuitBreakerFailureRate;
+    }
+
+    /**
+     * sets how long requests fail fast before a probe request is sent
+     * @param circuitBreakerOpenDuration duration in milliseconds
+     */
+    public void setCircuitBreakerOpenDuration(long circuitBreakerOpenDuration) {
+        this.circuitBreakerOpenDuration = circuitBreakerOpenDuration;
+    }
+
+    public long getCircuitBreakerOpenDuration() {
+        return circuitBreakerOpenDuration;
+    }
+
+    /**
+     * sets how long to wait for a connection to the API, 0 waits forever
+     * @param connectTimeout timeout in milliseconds
+     */
+    public void setConnectTimeout(long connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public long getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * sets how long to wait for data from the API, 0 waits forever
+     * @param readTimeout timeout in milliseconds
+     */
+    public void setReadTimeout(long readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    public long getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * sets how long to wait while sending data to the API, 0 waits forever
+     * @param writeTimeout timeout in milliseconds
+     */
+    public void setWriteTimeout(long writeTimeout) {
+        this.writeTimeout = writeTimeout;
+    }
+
+    public long getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    /**
+     * sets whether a connection to the API is opened in the background when the SDK is created,
+     * so the first call does not wait for DNS, TCP and TLS
+     * @param warmUp
+     */
+    public void setWarmUp(boolean warmUp) {
+        this.warmUp = warmUp;
+    }
+
+    public boolean isWarmUp() {
+        return warmUp;
+    }
+
+    /**
+     * sets whether large request bodies are sent gzip compressed, only enable this if the API
+     * endpoint accepts gzip encoded requests
+     * @param requestCompression
+     */
+    public void setRequestCompression(boolean requestCompression) {
+        this.requestCompression = requestCompression;
+    }
+
+    public boolean isRequestCompression() {
+        return requestCompression;
+    }
+
+    /**
+     * sets the size from which request bodies are compressed
+     * @param requestCompressionThreshold size in bytes
+     */
+    public void setRequestCompressionThreshold(long requestCompressionThreshold) {
+        this.requestCompressionThreshold = requestCompressionThreshold;
+    }
+
+    public long getRequestCompressionThreshold() {
+        return requestCompressionThreshold;
+    }
+
+    /**
+     * sets how often registering the device for push notifications is attempted
+     * @param simsRegistrationMaxAttempts
+     */
+    public void setSimsRegistrationMaxAttempts(int simsRegistrationMaxAttempts) {
+        this.simsRegistrationMaxAttempts = simsRegistrationMaxAttempts;
+    }
+
+    public int getSimsRegistrationMaxAttempts() {
+        return simsRegistrationMaxAttempts;
+    }
+
+    /**
+     * sets the delay before the first retry of a device registration, it doubles with every retry
+     * @param simsRegistrationRetryDelay delay in milliseconds
+     */
+    public void setSimsRegistrationRetryDelay(long simsRegistrationRetryDelay) {
+        this.simsRegistrationRetryDelay = simsRegistrationRetryDelay;
+    }
+
+    public long getSimsRegistrationRetryDelay() {
+        return simsRegistrationRetryDelay;
+    }
+
+    /**
+     * sets how many analytics events are kept in memory before they are moved to disk
+     * @param analyticsBufferSize
+     */
+    public void setAnalyticsBufferSize(int analyticsBufferSize) {
+        this.analyticsBufferSize = analyticsBufferSize;
+    }
+
+    public int getAnalyticsBufferSize() {
+        return analyticsBufferSize;
+    }
+
+    /**
+     * sets the maximum amount of analytics events sent per request, full batches are sent right away
+     * @param analyticsBatchSize
+     */
+    public void setAnalyticsBatchSize(int analyticsBatchSize) {
+        this.analyticsBatchSize = analyticsBatchSize;
+    }
+
+    public int getAnalyticsBatchSize() {
+        return analyticsBatchSize;
+    }
+
+    /**
+     * sets how often buffered analytics events are sent, 0 only sends full batches
+     * @param analyticsFlushInterval interval in milliseconds
+     */
+    public void setAnalyticsFlushInterval(long analyticsFlushInterval) {
+        this.analyticsFlushInterval = analyticsFlushInterval;
+    }
+
+    public long getAnalyticsFlushInterval() {
+        return analyticsFlushInterval;
+    }
+
+    /**
+     * sets how often the unread count is polled right after it changed
+     * @param unreadCountMinInterval interval in milliseconds
+     */
+    public void setUnreadCountMinInterval(long unreadCountMinInterval) {
+        this.unreadCountMinInterval = unreadCountMinInterval;
+    }
+
+    public long getUnreadCountMinInterval() {
+        return unreadCountMinInterval;
+    }
+
+    /**
+     * sets the interval polling of an unchanged unread count backs off to
+     * @param unreadCountMaxInterval interval in milliseconds
+     */
+    public void setUnreadCountMaxInterval(long unreadCountMaxInterval) {
+        this.unreadCountMaxInterval = unreadCountMaxInterval;
+    }
+
+    public long getUnreadCountMaxInterval() {
+        return unreadCountMaxInterval;
+    }
+
+    /**
+     * sets the url of the server-sent events stream feed updates are read from, without it
+     * updates are polled
+     * @param feedUpdatesUrl
+     */
+    public void setFeedUpdatesUrl(String feedUpdatesUrl) {
+        this.feedUpdatesUrl = feedUpdatesUrl;
+    }
+
+    public String getFeedUpdatesUrl() {
+        return feedUpdatesUrl;
+    }
+
+    /**
+     * sets how often feed updates are polled while the stream is unavailable
+     * @param feedUpdatesPollInterval interval in milliseconds
+     */
+    public void setFeedUpdatesPollInterval(long feedUpdatesPollInterval) {
+        this.feedUpdatesPollInterval = feedUpdatesPollInterval;
+    }
+
+    public long getFeedUpdatesPollInterval() {
+        return feedUpdatesPollInterval;
+    }
+
+    /**
+     * sets how long to wait before the feed update stream is opened again
+     * @param feedUpdatesReconnectDelay delay in milliseconds
+     */
+    public void setFeedUpdatesReconnectDelay(long feedUpdatesReconnectDelay) {
+        this.feedUpdatesReconnectDelay = feedUpdatesReconnectDelay;
+    }
+
+    public long getFeedUpdatesReconnectDelay() {
+        return feedUpdatesReconnectDelay;
+    }
+}
@@ -0,0 +1,81 @@
+package com.tapglue.android;
+
+import com.google.gson.JsonObject;
+import com.tapglue.android.entities.FeedUpdate;
+import com.tapglue.android.http.Deadline;
+import com.tapglue.android.http.FlattenableFeed;
+import com.tapglue.android.http.Network;
+import com.tapglue.android.http.TapglueError;
+
+import okhttp3.RequestBody;
+import rx.Observable;
+import rx.functions.Func1;
+
+public class RxPage<T> {
+    FlattenableFeed<T> feed;
+    Network network;
+    RequestBody payload;
+    Deadline deadline;
+
+    public RxPage(FlattenableFeed<T> feed, Network network) {
+        this.feed = feed;
+        this.network = network;
+    }
+
+    public RxPage(FlattenableFeed<T> feed, Network network, RequestBody payload) {
+        this.feed = feed;
+        this.network = network;
+        this.payload = payload;
+    }
+
+    /**
+     * @param payload sent with every page request, null for GET requests
+     * @param deadline applies to this and all previous pages, null for none
+     */
+    public RxPage(FlattenableFeed<T> feed, Network network, RequestBody payload, Deadline deadline) {
+        this.feed = feed;
+        this.network = network;
+        this.payload = payload;
+        this.deadline = deadline;
+    }
+
+    public T getData() {
+        return feed.flatten();
+    }
+
+    /**
+     * @return page with the new entries of the feed update in front, this page is left as is
+     */
+    public RxPage<T> merged(FeedUpdate update) {
+        FlattenableFeed<T> mergedFeed = feed.merged(update);
+        if(mergedFeed == feed) {
+            return this;
+        }
+        return new RxPage<>(mergedFeed, network, payload, deadline);
+    }
+
+    public Observable<RxPage<T>> getPrevious() {
+        Observable<RxPage<T>> previous;
+        if(payload == null) {
+            previous = network.paginatedGet(feed.previousPointer()).map(new PreviousPageGenerator());
+        } else {
+            previous = network.paginatedPost(feed.previousPointer(), payload)
+                .map(new PreviousPageGenerator());
+        }
+        if(deadline == null) {
+            return previous;
+        }
+        return deadline.apply(previous, Observable.<RxPage<T>>error(
+            new TapglueError(TapglueError.DEADLINE_EXCEEDED, "deadline exceeded")));
+    }
+
+    private class PreviousPageGenerator implements Func1<JsonObject, RxPage<T>> {
+
+        @Override
+        public RxPage<T> call(JsonObject jsonObject) {
+            FlattenableFeed<T> previousFeed = feed.parse(jsonObject);
+            network.cacheUsers(previousFeed);
+            return new RxPage<>(previousFeed, network, payload, deadline);
+        }
+    }
+}
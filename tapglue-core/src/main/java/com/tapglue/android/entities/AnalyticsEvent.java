@@ -0,0 +1,61 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.entities;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class AnalyticsEvent {
+    @SerializedName("type")
+    private final String type;
+    @SerializedName("timestamp")
+    private final long timestamp;
+    @SerializedName("properties")
+    private final Map<String, String> properties;
+
+    public AnalyticsEvent(String type) {
+        this(type, Collections.<String, String>emptyMap());
+    }
+
+    /**
+     * @param type name of the event
+     * @param properties additional values describing the event
+     */
+    public AnalyticsEvent(String type, Map<String, String> properties) {
+        this.type = type;
+        this.timestamp = System.currentTimeMillis();
+        this.properties = new HashMap<>(properties);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return time the event was recorded in milliseconds since epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+}
@@ -18,6 +18,8 @@ package com.tapglue.android.entities;
 
 import com.google.gson.annotations.SerializedName;
 
+import java.util.Locale;
+
 public class Connection {
     @SerializedName("user_to_id_string")
     private final String userToId;
@@ -34,7 +36,7 @@ public class Connection {
         this.userTo = userTo;
         this.userToId = userTo.getId();
         this.type = type;
-        this.state = state.toString().toLowerCase();
+        this.state = state.toString().toLowerCase(Locale.ENGLISH);
     }
 
     public User getUserTo() {
@@ -65,6 +67,10 @@ public class Connection {
         return this.type;
     }
 
+    public State getState() {
+        return state == null ? null : State.valueOf(state.toUpperCase(Locale.ENGLISH));
+    }
+
     public enum Type {
         @SerializedName("follow")
         FOLLOW, 
@@ -73,7 +79,7 @@ public class Connection {
 
         @Override
         public String toString() {
-            return this.name().toLowerCase();
+            return this.name().toLowerCase(Locale.ENGLISH);
         }
     }
     public enum State {
@@ -16,20 +16,25 @@
 
 package com.tapglue.android.entities;
 
+import com.google.gson.annotations.JsonAdapter;
 import com.google.gson.annotations.SerializedName;
 
 import java.util.Map;
 
 public class Event {
     private String id;
+    @JsonAdapter(InternedString.class)
     private String type;
+    @JsonAdapter(InternedString.class)
     private String language;
+    @JsonAdapter(InternedString.class)
     private String priority;
     private String location;
     private double latitude;
     private double longitude;
     private long visibility;
-    private Map<String, Image> images;
+    @JsonAdapter(LazyJson.Factory.class)
+    private LazyJson<Map<String, Image>> images;
     @SerializedName("user_id_string")
     private String userId;
     private User user;
@@ -37,8 +42,10 @@ public class Event {
     private String postId;
     private Post post;
     private String tgObjectId;
-    private EventObject target;
-    private EventObject object;
+    @JsonAdapter(LazyJson.Factory.class)
+    private LazyJson<EventObject> target;
+    @JsonAdapter(LazyJson.Factory.class)
+    private LazyJson<EventObject> object;
     public String getUserId() {
         return userId;
     }
@@ -92,7 +99,7 @@ public class Event {
     }
 
     public Map<String, Image> getImages() {
-        return images;
+        return LazyJson.get(images);
     }
 
     public User getUser() {
@@ -104,14 +111,15 @@ public class Event {
     }
 
     public EventObject getTarget() {
-        return target;
+        return LazyJson.get(target);
     }
 
     public EventObject getObject() {
-        return object;
+        return LazyJson.get(object);
     }
 
     public static class Image {
+        @JsonAdapter(InternedString.class)
         private String type;
         private String url;
         private int height;
@@ -136,6 +144,7 @@ public class Event {
 
     public static class EventObject {
         private String id;
+        @JsonAdapter(InternedString.class)
         private String type;
         private String url;
         @SerializedName("display_name")
@@ -0,0 +1,68 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.entities;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Changes of the feeds since the previous update. New events and posts of the news feed, new posts
+ * of the post feed and new events of the me feed.
+ */
+public class FeedUpdate {
+    private List<Event> events;
+    private List<Post> posts;
+    @SerializedName("notifications")
+    private List<Event> meEvents;
+    private Map<String, User> users;
+    private String cursor;
+
+    public List<Event> getEvents() {
+        return events == null ? new ArrayList<Event>() : events;
+    }
+
+    public List<Post> getPosts() {
+        return posts == null ? new ArrayList<Post>() : posts;
+    }
+
+    public List<Event> getMeEvents() {
+        return meEvents == null ? new ArrayList<Event>() : meEvents;
+    }
+
+    public Map<String, User> getUsers() {
+        return users == null ? new HashMap<String, User>() : users;
+    }
+
+    /**
+     * @return position in the update stream, updates after it are requested with it
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public boolean isEmpty() {
+        return getEvents().isEmpty() && getPosts().isEmpty() && getMeEvents().isEmpty();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package com.tapglue.android.entities;
+
+/**
+ * Parses the ISO-8601 timestamps of the API, like 2016-03-09T10:35:02.123456Z, without creating
+ * any objects. Fractions beyond milliseconds are dropped, a missing zone is read as UTC.
+ */
+final class Iso8601 {
+
+    private static final long MILLIS_PER_MINUTE = 60000;
+
+    private Iso8601() {}
+
+    /**
+     * @return milliseconds since the epoch, 0 for null or malformed timestamps
+     */
+    static long toMillis(String value) {
+        if(value == null || value.length() < 19) {
+            return 0;
+        }
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 2);
+        int day = digits(value, 8, 2);
+        int hour = digits(value, 11, 2);
+        int minute = digits(value, 14, 2);
+        int second = digits(value, 17, 2);
+        if(year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+            || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59
+            || value.charAt(4) != '-' || value.charAt(7) != '-'
+            || value.charAt(13) != ':' || value.charAt(16) != ':') {
+            return 0;
+        }
+
+        int length = value.length();
+        int i = 19;
+        int millis = 0;
+        if(i < length && value.charAt(i) == '.') {
+            int scale = 100;
+            for(i++; i < length && isDigit(value.charAt(i)); i++) {
+                millis += (value.charAt(i) - '0') * scale;
+                scale /= 10;
+            }
+        }
+
+        int offset = 0;
+        if(i < length && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+            int sign = value.charAt(i) == '-' ? -1 : 1;
+            int hours = digits(value, i + 1, 2);
+            int minutesAt = i + 3 < length && value.charAt(i + 3) == ':' ? i + 4 : i + 3;
+            int minutes = minutesAt < length ? digits(value, minutesAt, 2) : 0;
+            if(hours < 0 || hours > 23 || minutes < 0 || minutes > 59) {
+                return 0;
+            }
+            offset = sign * (hours * 60 + minutes);
+        }
+
+        long days = daysSinceEpoch(year, month, day);
+        long seconds = ((days * 24 + hour) * 60 + minute) * 60 + second;
+        return seconds * 1000 + millis - offset * MILLIS_PER_MINUTE;
+    }
+
+    private static int digits(String value, int start, int count) {
+        if(start + count > value.length()) {
+            return -1;
+        }
+        int result = 0;
+        for(int i = start; i < start + count; i++) {
+            char c = value.charAt(i);
+            if(!isDigit(c)) {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int daysInMonth(int year, int month) {
+        if(month == 2) {
+            boolean leap = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+            return leap ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    /**
+     * Days of the proleptic gregorian calendar since 1970-01-01.
+     */
+    private static long daysSinceEpoch(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package com.tapglue.android.entities;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * Field value kept as its JSON text until it is read the first time. Used for fields most feed
+ * rows never show, a single string takes less memory than the decoded maps and objects.
+ */
+final class LazyJson<T> {
+
+    private final Gson gson;
+    private final Type type;
+    private String json;
+    private T value;
+
+    private LazyJson(Gson gson, Type type, String json) {
+        this.gson = gson;
+        this.type = type;
+        this.json = json;
+    }
+
+    private LazyJson(T value) {
+        this.gson = null;
+        this.type = null;
+        this.value = value;
+    }
+
+    static <T> LazyJson<T> of(T value) {
+        return value == null ? null : new LazyJson<>(value);
+    }
+
+    static <T> T get(LazyJson<T> field) {
+        return field == null ? null : field.get();
+    }
+
+    synchronized T get() {
+        if(json != null) {
+            value = gson.fromJson(json, type);
+            json = null;
+        }
+        return value;
+    }
+
+    synchronized boolean isDecoded() {
+        return json == null;
+    }
+
+    /**
+     * Only a plain {@link JsonWriter} can take the cached text as is. Other writers, like the one
+     * behind {@link Gson#toJsonTree(Object)}, build elements and get the text parsed first.
+     */
+    private synchronized void write(JsonWriter out, Gson gson, Type type) throws IOException {
+        if(json != null && out.getClass() == JsonWriter.class) {
+            out.jsonValue(json);
+        } else if(json != null) {
+            gson.getAdapter(JsonElement.class).write(out, new JsonParser().parse(json));
+        } else {
+            writeValue(out, gson, type);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeValue(JsonWriter out, Gson gson, Type type) throws IOException {
+        ((TypeAdapter<T>) gson.getAdapter(TypeToken.get(type))).write(out, value);
+    }
+
+    /**
+     * Reads fields declared as LazyJson&lt;T&gt; without decoding them.
+     */
+    static class Factory implements TypeAdapterFactory {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <A> TypeAdapter<A> create(final Gson gson, TypeToken<A> typeToken) {
+            if(typeToken.getRawType() != LazyJson.class) {
+                return null;
+            }
+            final Type valueType = ((ParameterizedType) typeToken.getType()).getActualTypeArguments()[0];
+            final TypeAdapter<JsonElement> elements = gson.getAdapter(JsonElement.class);
+            return (TypeAdapter<A>) new TypeAdapter<LazyJson<?>>() {
+                @Override
+                public void write(JsonWriter out, LazyJson<?> field) throws IOException {
+                    if(field == null) {
+                        out.nullValue();
+                    } else {
+                        field.write(out, gson, valueType);
+                    }
+                }
+
+                @Override
+                public LazyJson<?> read(JsonReader in) throws IOException {
+                    if(in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                        return null;
+                    }
+                    return new LazyJson<>(gson, valueType, elements.read(in).toString());
+                }
+            };
+        }
+    }
+}
@@ -8,8 +8,14 @@ public class Like {
     private String postId;
     @SerializedName("user_id")
     private String userId;
+    @SerializedName(value = "created_at", alternate = "createdAt")
     private String createdAt;
+    @SerializedName(value = "updated_at", alternate = "updatedAt")
     private String updatedAt;
+    private transient long createdAtMillis;
+    private transient volatile boolean createdAtParsed;
+    private transient long updatedAtMillis;
+    private transient volatile boolean updatedAtParsed;
     private User user;
     private Post post;
 
@@ -45,6 +51,28 @@ public class Like {
         return updatedAt;
     }
 
+    /**
+     * @return creation time in milliseconds since the epoch, parsed once, 0 when not set
+     */
+    public long getCreatedAtMillis() {
+        if(!createdAtParsed) {
+            createdAtMillis = Iso8601.toMillis(createdAt);
+            createdAtParsed = true;
+        }
+        return createdAtMillis;
+    }
+
+    /**
+     * @return time of the last update in milliseconds since the epoch, parsed once, 0 when not set
+     */
+    public long getUpdatedAtMillis() {
+        if(!updatedAtParsed) {
+            updatedAtMillis = Iso8601.toMillis(updatedAt);
+            updatedAtParsed = true;
+        }
+        return updatedAtMillis;
+    }
+
 
     @Override
     public boolean equals(Object o) {
@@ -15,8 +15,10 @@
  */
 package com.tapglue.android.entities;
 
+import com.google.gson.annotations.JsonAdapter;
 import com.google.gson.annotations.SerializedName;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -26,13 +28,18 @@ public class Post {
     private int visibility;
     @SerializedName("user_id")
     private String userId;
-    private List<String> tags;
+    @JsonAdapter(LazyJson.Factory.class)
+    private LazyJson<List<String>> tags;
     private List<Attachment> attachments;
     private Counts counts;
     @SerializedName("created_at")
     private String createdAt;
     @SerializedName("updated_at")
     private String updatedAt;
+    private transient long createdAtMillis;
+    private transient volatile boolean createdAtParsed;
+    private transient long updatedAtMillis;
+    private transient volatile boolean updatedAtParsed;
     @SerializedName("is_liked")
     private boolean isLiked;
     @SerializedName("has_reacted")
@@ -61,11 +68,11 @@ public class Post {
     }
 
     public List<String> getTags() {
-        return tags;
+        return LazyJson.get(tags);
     }
 
     public void setTags(List<String> tags) {
-        this.tags = tags;
+        this.tags = LazyJson.of(tags);
     }
 
     public List<Attachment> getAttachments() {
@@ -76,6 +83,10 @@ public class Post {
         return counts;
     }
 
+    public void setCounts(Counts counts) {
+        this.counts = counts;
+    }
+
     public String getCreatedAt() {
         return createdAt;
     }
@@ -84,6 +95,28 @@ public class Post {
         return updatedAt;
     }
 
+    /**
+     * @return creation time in milliseconds since the epoch, parsed once, 0 when not set
+     */
+    public long getCreatedAtMillis() {
+        if(!createdAtParsed) {
+            createdAtMillis = Iso8601.toMillis(createdAt);
+            createdAtParsed = true;
+        }
+        return createdAtMillis;
+    }
+
+    /**
+     * @return time of the last update in milliseconds since the epoch, parsed once, 0 when not set
+     */
+    public long getUpdatedAtMillis() {
+        if(!updatedAtParsed) {
+            updatedAtMillis = Iso8601.toMillis(updatedAt);
+            updatedAtParsed = true;
+        }
+        return updatedAtMillis;
+    }
+
     public boolean isLiked() {
         return isLiked;
     }
@@ -96,6 +129,17 @@ public class Post {
         return hasReacted;
     }
 
+    public boolean hasReacted(Reaction reaction) {
+        return hasReacted != null && Boolean.TRUE.equals(hasReacted.get(reaction));
+    }
+
+    public void setHasReacted(Reaction reaction, boolean reacted) {
+        if(hasReacted == null) {
+            hasReacted = new HashMap<>();
+        }
+        hasReacted.put(reaction, reacted);
+    }
+
     public void setUser(User user) {
         this.user = user;
     }
@@ -166,13 +210,33 @@ public class Post {
             return likes;
         }
 
+        public void setLikes(long likes) {
+            this.likes = likes;
+        }
+
         public long getComments() {
             return comments;
         }
 
+        public void setComments(long comments) {
+            this.comments = comments;
+        }
+
         public Map<Reaction, Integer> getReactions() {
             return reactions;
         }
+
+        public int getReactions(Reaction reaction) {
+            Integer count = reactions == null ? null : reactions.get(reaction);
+            return count == null ? 0 : count;
+        }
+
+        public void setReactions(Reaction reaction, int count) {
+            if(reactions == null) {
+                reactions = new HashMap<>();
+            }
+            reactions.put(reaction, count);
+        }
     }
 
     @Override
@@ -17,6 +17,8 @@ package com.tapglue.android.entities;
 
 import com.google.gson.annotations.SerializedName;
 
+import java.util.Locale;
+
 public enum Reaction {
     @SerializedName("like")
     LIKE,
@@ -33,6 +35,6 @@ public enum Reaction {
 
     @Override
     public String toString() {
-        return this.name().toLowerCase();
+        return this.name().toLowerCase(Locale.ENGLISH);
     }
 }
\ No newline at end of file
@@ -18,13 +18,15 @@ package com.tapglue.android.entities;
 
 import java.util.Map;
 
+import com.google.gson.annotations.JsonAdapter;
 import com.google.gson.annotations.SerializedName;
 
 public class User {
     @SerializedName("id_string")
     private String id;
     @SerializedName("social_ids")
-    private Map<String, String> socialIds;
+    @JsonAdapter(LazyJson.Factory.class)
+    private LazyJson<Map<String, String>> socialIds;
     @SerializedName("friend_count")
     private long friendCount;
     @SerializedName("follower_count")
@@ -52,8 +54,10 @@ public class User {
     boolean enabled = true;
     private String email;
     private String about;
-    private Map<String, Image> images;
-    private Map<String, String> metadata;
+    @JsonAdapter(LazyJson.Factory.class)
+    private LazyJson<Map<String, Image>> images;
+    @JsonAdapter(LazyJson.Factory.class)
+    private LazyJson<Map<String, String>> metadata;
 
     public static User createWithUsername(String username, String password) {
         User user = new User();
@@ -87,11 +91,11 @@ public class User {
     }
 
     public Map<String,String> getSocialIds() {
-        return socialIds;
+        return LazyJson.get(socialIds);
     }
 
     public void setSocialIds(Map<String,String> socialIds) {
-        this.socialIds = socialIds;
+        this.socialIds = LazyJson.of(socialIds);
     }
 
     public void setUserName(String username) {
@@ -155,19 +159,19 @@ public class User {
     }
 
     public Map<String, Image> getImages() {
-        return images;
+        return LazyJson.get(images);
     }
 
     public void setImages(Map<String, Image> images) {
-        this.images = images;
+        this.images = LazyJson.of(images);
     }
 
     public Map<String, String> getMetadata() {
-        return metadata;
+        return LazyJson.get(metadata);
     }
 
     public void setMetadata(Map<String, String> metadata) {
-        this.metadata = metadata;
+        this.metadata = LazyJson.of(metadata);
     }
 
     @Override
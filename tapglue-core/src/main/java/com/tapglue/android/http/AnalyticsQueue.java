@@ -0,0 +1,119 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.http;
+
+import com.tapglue.android.entities.AnalyticsEvent;
+import com.tapglue.android.http.payloads.AnalyticsBatch;
+import com.tapglue.android.internal.AnalyticsBuffer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.subjects.PublishSubject;
+import rx.subjects.Subject;
+
+/**
+ * Collects analytics events and sends them in batches. A flush starts once a batch is full or the
+ * flush interval passed, and sends batches until the buffer is empty. The requests go through the
+ * shared {@link Transport}, so they reuse the connection that is already open for the API calls.
+ * Batches that could not be sent are put back and sent with the next flush. Recording only touches
+ * memory, events that overflow the memory of the buffer are moved to disk by the flush.
+ */
+public class AnalyticsQueue {
+
+    private final Network network;
+    private final AnalyticsBuffer buffer;
+    private final HttpMetrics metrics;
+    private final int batchSize;
+    private final Scheduler scheduler;
+    private final Subject<Void, Void> flushes = PublishSubject.<Void>create().toSerialized();
+
+    /**
+     * @param batchSize maximum amount of events per request, a full batch is flushed right away
+     * @param flushInterval time between flushes in milliseconds, 0 only flushes full batches
+     * @param scheduler scheduler the batches are sent on
+     */
+    public AnalyticsQueue(Network network, AnalyticsBuffer buffer, HttpMetrics metrics,
+                          int batchSize, long flushInterval, Scheduler scheduler) {
+        this.network = network;
+        this.buffer = buffer;
+        this.metrics = metrics;
+        this.batchSize = Math.max(batchSize, 1);
+        this.scheduler = scheduler;
+        flushes.onBackpressureDrop().concatMap(new Func1<Void, Observable<Void>>() {
+            @Override
+            public Observable<Void> call(Void trigger) {
+                return Observable.defer(new Flush()).subscribeOn(AnalyticsQueue.this.scheduler)
+                    .onErrorResumeNext(Observable.<Void>empty());
+            }
+        }).subscribe();
+        if(flushInterval > 0) {
+            Observable.interval(flushInterval, flushInterval, TimeUnit.MILLISECONDS, scheduler)
+                .subscribe(new Action1<Long>() {
+                    @Override
+                    public void call(Long tick) {
+                        flush();
+                    }
+                });
+        }
+    }
+
+    public void record(AnalyticsEvent event) {
+        metrics.add(HttpMetrics.ANALYTICS_EVENTS_DROPPED, buffer.add(event));
+        if(buffer.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Sends all buffered events.
+     */
+    public void flush() {
+        flushes.onNext(null);
+    }
+
+    private class Flush implements Func0<Observable<Void>> {
+        @Override
+        public Observable<Void> call() {
+            metrics.add(HttpMetrics.ANALYTICS_EVENTS_DROPPED, buffer.spill());
+            final List<AnalyticsEvent> batch = buffer.take(batchSize);
+            if(batch.isEmpty()) {
+                return Observable.empty();
+            }
+            return network.sendAnalytics(new AnalyticsBatch(batch))
+                .doOnCompleted(new Action0() {
+                    @Override
+                    public void call() {
+                        metrics.add(HttpMetrics.ANALYTICS_EVENTS_SENT, batch.size());
+                    }
+                })
+                .doOnError(new Action1<Throwable>() {
+                    @Override
+                    public void call(Throwable error) {
+                        metrics.add(HttpMetrics.ANALYTICS_EVENTS_DROPPED, buffer.restore(batch));
+                    }
+                })
+                .concatWith(Observable.defer(this));
+        }
+    }
+}
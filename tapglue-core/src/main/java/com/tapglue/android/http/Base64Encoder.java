@@ -16,13 +16,13 @@
  */
 package com.tapglue.android.http;
 
-import android.util.Base64;
-
 import java.io.IOException;
 
+import okio.ByteString;
+
 class Base64Encoder {
 
     public String encode(String encode) throws IOException{
-        return Base64.encodeToString(encode.getBytes("UTF-8"), Base64.NO_WRAP);
+        return ByteString.encodeUtf8(encode).base64();
     }
 }
@@ -0,0 +1,138 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.http;
+
+/**
+ * Tracks the outcome of the last requests to one {@link EndpointGroup}. Once the failure rate
+ * over a full window reaches the threshold the breaker opens and requests are rejected without
+ * touching the network. After the open duration a single probe request is let through, its
+ * outcome decides whether the breaker closes again or stays open for another period.
+ */
+class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final boolean[] window;
+    private final double failureRate;
+    private final long openDuration;
+    private int next;
+    private int recorded;
+    private int failures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probing;
+
+    /**
+     * @param windowSize amount of outcomes the failure rate is computed over, 0 disables the
+     *                   breaker
+     * @param failureRate share of failed requests in the window that opens the breaker
+     * @param openDuration time in milliseconds the breaker stays open before probing
+     */
+    CircuitBreaker(int windowSize, double failureRate, long openDuration) {
+        this.window = new boolean[Math.max(0, windowSize)];
+        this.failureRate = failureRate;
+        this.openDuration = openDuration;
+    }
+
+    /**
+     * @return true if the request may be sent, in the half open state only for the probe
+     */
+    synchronized boolean allowRequest() {
+        if(window.length == 0 || state == State.CLOSED) {
+            return true;
+        }
+        if(state == State.OPEN) {
+            if(currentTimeMillis() - openedAt < openDuration) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+        }
+        if(probing) {
+            return false;
+        }
+        probing = true;
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        if(state == State.HALF_OPEN) {
+            probing = false;
+            state = State.CLOSED;
+            resetWindow();
+            return;
+        }
+        record(false);
+    }
+
+    /**
+     * @return true if this failure opened the breaker
+     */
+    synchronized boolean onFailure() {
+        if(state == State.HALF_OPEN) {
+            probing = false;
+            open();
+            return true;
+        }
+        record(true);
+        if(state == State.CLOSED && recorded == window.length
+            && failures >= failureRate * window.length) {
+            open();
+            return true;
+        }
+        return false;
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private void record(boolean failed) {
+        if(window.length == 0 || state != State.CLOSED) {
+            return;
+        }
+        if(recorded == window.length) {
+            if(window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failed;
+        if(failed) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = currentTimeMillis();
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        next = 0;
+        recorded = 0;
+        failures = 0;
+    }
+}
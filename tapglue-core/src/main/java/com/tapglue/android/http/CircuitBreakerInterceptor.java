@@ -0,0 +1,68 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.http;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Rejects requests with {@link TapglueError#CIRCUIT_OPEN} while the breaker of their
+ * {@link EndpointGroup} is open. Connection errors, 5xx and 429 responses count as failures.
+ * Has to be added after the {@link ErrorInterceptor} so it sees the raw responses. Every allowed
+ * request reports to the breaker, also when a later interceptor throws, so a half open breaker
+ * never waits for a probe that ended without a result.
+ */
+class CircuitBreakerInterceptor implements Interceptor {
+    private final Transport transport;
+
+    CircuitBreakerInterceptor(Transport transport) {
+        this.transport = transport;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        EndpointGroup group = EndpointGroup.forPath(request.url().encodedPath());
+        CircuitBreaker breaker = transport.getCircuitBreaker(group);
+        if(!breaker.allowRequest()) {
+            transport.getMetrics().increment(HttpMetrics.CIRCUIT_REJECTED);
+            throw new TapglueError(TapglueError.CIRCUIT_OPEN,
+                "circuit open for " + group.name().toLowerCase(Locale.ENGLISH) + " requests");
+        }
+        Response response = null;
+        try {
+            response = chain.proceed(request);
+            return response;
+        } finally {
+            if(response == null || response.code() >= 500 || response.code() == 429) {
+                onFailure(breaker);
+            } else {
+                breaker.onSuccess();
+            }
+        }
+    }
+
+    private void onFailure(CircuitBreaker breaker) {
+        if(breaker.onFailure()) {
+            transport.getMetrics().increment(HttpMetrics.CIRCUIT_OPENED);
+        }
+    }
+}
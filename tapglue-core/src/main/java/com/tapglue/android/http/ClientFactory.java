@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.tapglue.android.http;
+
+import com.tapglue.android.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.logging.HttpLoggingInterceptor;
+
+public class ClientFactory {
+
+    private ClientFactory() {}
+
+    public static OkHttpClient createClient(Configuration configuration, String sessionToken, String uuid, Transport transport) {
+        return createBuilder(configuration, transport)
+                .addInterceptor(new HeaderInterceptor(configuration.getToken(), sessionToken, uuid, transport.getDeviceInfo()))
+                .addInterceptor(createGzipInterceptor(configuration, transport))
+                .addInterceptor(new ErrorInterceptor(transport.getMetrics()))
+                .addInterceptor(new CircuitBreakerInterceptor(transport))
+                .addInterceptor(createRetryInterceptor(configuration, transport))
+                .addInterceptor(createLoggignInterceptor(configuration))
+                .build();
+    }
+
+    public static OkHttpClient createPaginatedClient(Configuration configuration, String sessionToken, String uuid, Transport transport) {
+        return createBuilder(configuration, transport)
+                .addInterceptor(new HeaderInterceptor(configuration.getToken(), sessionToken, uuid, transport.getDeviceInfo()))
+                .addInterceptor(new PaginationInterceptor(configuration.getPageSize()))
+                .addInterceptor(createGzipInterceptor(configuration, transport))
+                .addInterceptor(new ErrorInterceptor(transport.getMetrics()))
+                .addInterceptor(new CircuitBreakerInterceptor(transport))
+                .addInterceptor(createRetryInterceptor(configuration, transport))
+                .addInterceptor(createLoggignInterceptor(configuration))
+                .build();
+    }
+
+    /**
+     * Client for long lived streams. Reads never time out, and neither retries nor body logging
+     * apply as both would hold on to the stream.
+     */
+    public static OkHttpClient createStreamingClient(Configuration configuration, String sessionToken, String uuid, Transport transport) {
+        return createBuilder(configuration, transport)
+                .readTimeout(0, TimeUnit.MILLISECONDS)
+                .addInterceptor(new HeaderInterceptor(configuration.getToken(), sessionToken, uuid, transport.getDeviceInfo()))
+                .addInterceptor(new ErrorInterceptor(transport.getMetrics()))
+                .addInterceptor(new CircuitBreakerInterceptor(transport))
+                .build();
+    }
+
+    private static OkHttpClient.Builder createBuilder(Configuration configuration, Transport transport) {
+        return transport.newClientBuilder()
+                .connectTimeout(configuration.getConnectTimeout(), TimeUnit.MILLISECONDS)
+                .readTimeout(configuration.getReadTimeout(), TimeUnit.MILLISECONDS)
+                .writeTimeout(configuration.getWriteTimeout(), TimeUnit.MILLISECONDS);
+    }
+
+    private static Interceptor createGzipInterceptor(Configuration configuration, Transport transport) {
+        return new GzipRequestInterceptor(configuration.isRequestCompression(),
+            configuration.getRequestCompressionThreshold(), transport.getMetrics());
+    }
+
+    private static Interceptor createRetryInterceptor(Configuration configuration, Transport transport) {
+        return new RetryInterceptor(configuration.getMaxRetries(), configuration.getRetryBaseDelay(),
+            configuration.getRetryMaxDelay(), transport);
+    }
+
+    private static Interceptor createLoggignInterceptor(Configuration configuration) {
+        HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
+        loggingInterceptor.setLevel(configuration.isLogging() ? HttpLoggingInterceptor.Level.BODY: HttpLoggingInterceptor.Level.NONE);
+        return loggingInterceptor;
+    }
+}
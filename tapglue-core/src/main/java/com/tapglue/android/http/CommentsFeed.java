@@ -22,6 +22,8 @@ import com.tapglue.android.entities.Comment;
 import com.tapglue.android.entities.User;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -40,6 +42,14 @@ class CommentsFeed extends FlattenableFeed<List<Comment>> {
         return comments;
     }
 
+    @Override
+    Collection<User> embeddedUsers() {
+        if(users == null) {
+            return Collections.emptyList();
+        }
+        return users.values();
+    }
+
     @Override
     FlattenableFeed<List<Comment>> constructDefaultFeed() {
         CommentsFeed feed = new CommentsFeed();
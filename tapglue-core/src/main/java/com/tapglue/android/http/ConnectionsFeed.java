@@ -8,6 +8,8 @@ import com.tapglue.android.entities.ConnectionList;
 import com.tapglue.android.entities.User;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -43,6 +45,14 @@ class ConnectionsFeed extends FlattenableFeed<ConnectionList> {
         return new ConnectionList(incoming, outgoing);
     }
 
+    @Override
+    Collection<User> embeddedUsers() {
+        if(users == null) {
+            return Collections.emptyList();
+        }
+        return users;
+    }
+
     @Override
     FlattenableFeed<ConnectionList> constructDefaultFeed() {
         ConnectionsFeed feed = new ConnectionsFeed();
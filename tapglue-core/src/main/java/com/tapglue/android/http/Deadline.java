@@ -0,0 +1,90 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.http;
+
+import java.util.concurrent.TimeUnit;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Func0;
+import rx.schedulers.Schedulers;
+
+/**
+ * Point in time by which a call and all requests it triggers, e.g. the pages fetched after it,
+ * have to be done. Requests still running at the deadline are unsubscribed, which cancels the
+ * underlying HTTP call, and the fallback is emitted instead.
+ */
+public class Deadline {
+
+    private final long expiresAt;
+    private final HttpMetrics metrics;
+    private final Scheduler scheduler;
+
+    /**
+     * @param budget time in milliseconds from now
+     * @param metrics records {@link HttpMetrics#DEADLINE_EXCEEDED exceeded deadlines}
+     */
+    public Deadline(long budget, HttpMetrics metrics) {
+        this(budget, metrics, Schedulers.computation());
+    }
+
+    /**
+     * @param scheduler clock of the deadline, the timeout runs on it
+     */
+    Deadline(long budget, HttpMetrics metrics, Scheduler scheduler) {
+        this.scheduler = scheduler;
+        this.expiresAt = scheduler.now() + budget;
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return time left in milliseconds, 0 once the deadline passed
+     */
+    public long remaining() {
+        return Math.max(0, expiresAt - scheduler.now());
+    }
+
+    public boolean isExpired() {
+        return remaining() == 0;
+    }
+
+    /**
+     * The time left is taken when the returned observable is subscribed.
+     *
+     * @param source observable that has to emit before the deadline
+     * @param fallback subscribed to instead when the deadline passes first
+     */
+    public <T> Observable<T> apply(final Observable<T> source, final Observable<T> fallback) {
+        final Observable<T> exceeded = Observable.defer(new Func0<Observable<T>>() {
+            @Override
+            public Observable<T> call() {
+                metrics.increment(HttpMetrics.DEADLINE_EXCEEDED);
+                return fallback;
+            }
+        });
+        return Observable.defer(new Func0<Observable<T>>() {
+            @Override
+            public Observable<T> call() {
+                long remaining = remaining();
+                if(remaining == 0) {
+                    return exceeded;
+                }
+                return source.timeout(remaining, TimeUnit.MILLISECONDS, exceeded, scheduler);
+            }
+        });
+    }
+}
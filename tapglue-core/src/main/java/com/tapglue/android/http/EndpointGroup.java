@@ -0,0 +1,49 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.http;
+
+/**
+ * Families of endpoints that fail together and therefore share one {@link CircuitBreaker}.
+ */
+enum EndpointGroup {
+    FEED, USERS, POSTS, CONNECTIONS, SIMS, ANALYTICS;
+
+    private static final String VERSION_PREFIX = "/0.4";
+
+    static EndpointGroup forPath(String path) {
+        if(path.startsWith(VERSION_PREFIX)) {
+            path = path.substring(VERSION_PREFIX.length());
+        }
+        if(path.startsWith("/me/feed")) {
+            return FEED;
+        }
+        if(path.startsWith("/posts")) {
+            return POSTS;
+        }
+        if(path.startsWith("/me/devices")) {
+            return SIMS;
+        }
+        if(path.startsWith("/analytics")) {
+            return ANALYTICS;
+        }
+        if(path.startsWith("/me/connections") || path.endsWith("/follows")
+            || path.endsWith("/followers") || path.endsWith("/friends")) {
+            return CONNECTIONS;
+        }
+        return USERS;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.http;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+class ErrorInterceptor implements Interceptor {
+    private static final Gson GSON = new Gson();
+    private static final long MAX_ERROR_BODY = 64 * 1024;
+
+    private final HttpMetrics metrics;
+
+    ErrorInterceptor(HttpMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+        metrics.increment(HttpMetrics.status(response.code()));
+
+        if (response.code() >= 200 && response.code() <= 299) {
+            return response;
+        }
+        ErrorFeed errorFeed = parseErrors(response);
+
+        if (errorFeed != null && errorFeed.errors != null && !errorFeed.errors.isEmpty()) {
+            response.body().close();
+            for (TapglueError error : errorFeed.errors) {
+                error.withStatus(response.code());
+            }
+            if (errorFeed.errors.size() == 1) {
+                throw errorFeed.errors.get(0);
+            }
+            throw new TapglueErrors(errorFeed.errors).withStatus(response.code());
+        }
+
+        return response;
+    }
+
+    /**
+     * Only reads a bounded copy of JSON bodies, so the body stays readable for the caller and
+     * large error pages of proxies are never buffered.
+     */
+    private static ErrorFeed parseErrors(Response response) throws IOException {
+        ResponseBody body = response.body();
+        if (body == null) {
+            return null;
+        }
+        MediaType type = body.contentType();
+        if (type != null && !"json".equals(type.subtype())) {
+            return null;
+        }
+        try {
+            return GSON.fromJson(response.peekBody(MAX_ERROR_BODY).charStream(), ErrorFeed.class);
+        } catch (JsonParseException e) {
+            return null;
+        }
+    }
+}
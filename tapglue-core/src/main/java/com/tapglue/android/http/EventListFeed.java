@@ -21,10 +21,13 @@ import com.google.gson.JsonObject;
 import com.google.gson.annotations.SerializedName;
 
 import com.tapglue.android.entities.Event;
+import com.tapglue.android.entities.FeedUpdate;
 import com.tapglue.android.entities.Post;
 import com.tapglue.android.entities.User;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -46,6 +49,24 @@ class EventListFeed extends FlattenableFeed<List<Event>> {
         return events;
     }
 
+    @Override
+    public FlattenableFeed<List<Event>> merged(FeedUpdate update) {
+        EventListFeed merged = new EventListFeed();
+        merged.page = page;
+        merged.users = combine(users, update.getUsers());
+        merged.posts = combine(posts, postsById(update.getPosts()));
+        merged.events = prepend(update.getMeEvents(), events, new EventId());
+        return merged;
+    }
+
+    @Override
+    Collection<User> embeddedUsers() {
+        if(users == null) {
+            return Collections.emptyList();
+        }
+        return users.values();
+    }
+
     @Override
     FlattenableFeed<List<Event>> constructDefaultFeed() {
         EventListFeed feed = new EventListFeed();
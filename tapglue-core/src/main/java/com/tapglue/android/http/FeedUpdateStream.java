@@ -0,0 +1,123 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package com.tapglue.android.http;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.tapglue.android.entities.FeedUpdate;
+
+import java.io.IOException;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.BufferedSource;
+import rx.Observable;
+import rx.Subscriber;
+import rx.functions.Action0;
+import rx.subscriptions.Subscriptions;
+
+/**
+ * Reads feed updates from a server-sent events stream. Every event carries one update as JSON in
+ * its data lines, the event id is used as cursor of updates that do not name one. The stream
+ * completes when the server closes it and fails when it can not be opened or breaks.
+ */
+class FeedUpdateStream implements Observable.OnSubscribe<FeedUpdate> {
+
+    private static final Gson GSON = new Gson();
+
+    private final OkHttpClient client;
+    private final String url;
+    private final String cursor;
+
+    /**
+     * @param cursor sent as Last-Event-ID so the server resumes after it, null for none
+     */
+    FeedUpdateStream(OkHttpClient client, String url, String cursor) {
+        this.client = client;
+        this.url = url;
+        this.cursor = cursor;
+    }
+
+    @Override
+    public void call(Subscriber<? super FeedUpdate> subscriber) {
+        Request.Builder request = new Request.Builder().url(url)
+            .header("Accept", "text/event-stream");
+        if(cursor != null) {
+            request.header("Last-Event-ID", cursor);
+        }
+        final Call call = client.newCall(request.build());
+        subscriber.add(Subscriptions.create(new Action0() {
+            @Override
+            public void call() {
+                call.cancel();
+            }
+        }));
+        Response response = null;
+        try {
+            response = call.execute();
+            if(!response.isSuccessful()) {
+                throw new IOException("unexpected response " + response.code());
+            }
+            read(response.body().source(), subscriber);
+            if(!subscriber.isUnsubscribed()) {
+                subscriber.onCompleted();
+            }
+        } catch(IOException | JsonParseException e) {
+            if(!subscriber.isUnsubscribed()) {
+                subscriber.onError(e);
+            }
+        } finally {
+            if(response != null) {
+                response.body().close();
+            }
+        }
+    }
+
+    private void read(BufferedSource source, Subscriber<? super FeedUpdate> subscriber)
+        throws IOException {
+        StringBuilder data = new StringBuilder();
+        String id = null;
+        String line;
+        while(!subscriber.isUnsubscribed() && (line = source.readUtf8Line()) != null) {
+            if(line.isEmpty()) {
+                if(data.length() > 0) {
+                    FeedUpdate update = GSON.fromJson(data.toString(), FeedUpdate.class);
+                    if(update.getCursor() == null) {
+                        update.setCursor(id);
+                    }
+                    subscriber.onNext(update);
+                }
+                data.setLength(0);
+            } else if(line.startsWith("data:")) {
+                if(data.length() > 0) {
+                    data.append('\n');
+                }
+                data.append(value(line));
+            } else if(line.startsWith("id:")) {
+                id = value(line);
+            }
+        }
+    }
+
+    private static String value(String line) {
+        String value = line.substring(line.indexOf(':') + 1);
+        return value.startsWith(" ") ? value.substring(1) : value;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package com.tapglue.android.http;
+
+import com.tapglue.android.entities.FeedUpdate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Action1;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+/**
+ * Delivers feed updates over a server-sent events stream and merges them into the kept feed
+ * pages, so feeds do not have to be fetched again to show new content. While the stream can not
+ * be opened updates are polled with the cursor of the last update, and the stream is tried again
+ * after the reconnect delay. All subscribers share one connection.
+ */
+public class FeedUpdates {
+
+    private final Network network;
+    private final String streamUrl;
+    private final long pollInterval;
+    private final long reconnectDelay;
+    private final Scheduler scheduler;
+    private final AtomicReference<String> cursor = new AtomicReference<>();
+    private final Observable<FeedUpdate> updates;
+
+    /**
+     * @param streamUrl url of the event stream, null to only poll
+     * @param pollInterval time between polls in milliseconds while the stream is unavailable
+     * @param reconnectDelay time in milliseconds before the stream is opened again
+     * @param scheduler scheduler the stream is read and the polls are timed on
+     */
+    public FeedUpdates(Network network, String streamUrl, long pollInterval, long reconnectDelay,
+                       Scheduler scheduler) {
+        this.network = network;
+        this.streamUrl = streamUrl;
+        this.pollInterval = pollInterval;
+        this.reconnectDelay = reconnectDelay;
+        this.scheduler = scheduler;
+        updates = Observable.defer(new Connection()).repeat()
+            .doOnNext(new Action1<FeedUpdate>() {
+                @Override
+                public void call(FeedUpdate update) {
+                    if(update.getCursor() != null) {
+                        cursor.set(update.getCursor());
+                    }
+                    FeedUpdates.this.network.mergeFeedUpdate(update);
+                }
+            })
+            .filter(new Func1<FeedUpdate, Boolean>() {
+                @Override
+                public Boolean call(FeedUpdate update) {
+                    return !update.isEmpty();
+                }
+            })
+            .share();
+    }
+
+    /**
+     * @return updates as they arrive, they are already merged into the kept feed pages. The
+     * connection opens with the first subscriber and closes when the last one unsubscribes.
+     */
+    public Observable<FeedUpdate> updates() {
+        return updates;
+    }
+
+    String getCursor() {
+        return cursor.get();
+    }
+
+    private Observable<FeedUpdate> poll() {
+        return Observable.interval(0, pollInterval, TimeUnit.MILLISECONDS, scheduler)
+            .onBackpressureDrop()
+            .concatMap(new Func1<Long, Observable<FeedUpdate>>() {
+                @Override
+                public Observable<FeedUpdate> call(Long tick) {
+                    return network.retrieveFeedUpdates(cursor.get())
+                        .onErrorResumeNext(Observable.<FeedUpdate>empty());
+                }
+            });
+    }
+
+    private Observable<FeedUpdate> pause() {
+        return Observable.timer(reconnectDelay, TimeUnit.MILLISECONDS, scheduler)
+            .concatMap(new Func1<Long, Observable<FeedUpdate>>() {
+                @Override
+                public Observable<FeedUpdate> call(Long tick) {
+                    return Observable.empty();
+                }
+            });
+    }
+
+    private class Connection implements Func0<Observable<FeedUpdate>> {
+        @Override
+        public Observable<FeedUpdate> call() {
+            if(streamUrl == null) {
+                return poll();
+            }
+            return network.streamFeedUpdates(streamUrl, cursor.get()).subscribeOn(scheduler)
+                .concatWith(pause())
+                .onErrorResumeNext(poll().takeUntil(pause()));
+        }
+    }
+}
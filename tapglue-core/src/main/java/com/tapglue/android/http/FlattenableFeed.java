@@ -0,0 +1,125 @@
+package com.tapglue.android.http;
+
+import com.google.gson.JsonObject;
+import com.google.gson.annotations.SerializedName;
+import com.tapglue.android.entities.Event;
+import com.tapglue.android.entities.FeedUpdate;
+import com.tapglue.android.entities.Post;
+import com.tapglue.android.entities.User;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import rx.functions.Func1;
+
+public abstract class FlattenableFeed<T> {
+    @SerializedName("paging")
+    ApiPage page;
+
+    public FlattenableFeed() {
+
+    }
+
+    public abstract T flatten();
+
+    public final FlattenableFeed<T> parse(JsonObject jsonObject) {
+        if(jsonObject == null) {
+            FlattenableFeed<T> feed = constructDefaultFeed();
+            feed.page = page;
+            return feed;
+        }
+        return parseJson(jsonObject);
+    }
+
+    public String previousPointer() {
+        return page.beforePointer;
+    }
+
+    /**
+     * Creates a feed with the entries of an update that belong to this feed in front of the
+     * entries of this one. Entries with the id of an added entry are replaced. This feed is left
+     * as is since it may already be handed out, feeds without updates return themselves.
+     */
+    public FlattenableFeed<T> merged(FeedUpdate update) {
+        return this;
+    }
+
+    static <E> List<E> prepend(List<E> added, List<E> current, Func1<E, String> idOf) {
+        Set<String> ids = new HashSet<>();
+        List<E> merged = new ArrayList<>();
+        for(E entry: added) {
+            String id = idOf.call(entry);
+            if(id == null || ids.add(id)) {
+                merged.add(entry);
+            }
+        }
+        if(current != null) {
+            for(E entry: current) {
+                String id = idOf.call(entry);
+                if(id == null || ids.add(id)) {
+                    merged.add(entry);
+                }
+            }
+        }
+        return merged;
+    }
+
+    static <V> Map<String, V> combine(Map<String, V> current, Map<String, V> added) {
+        Map<String, V> combined = current == null ? new HashMap<String, V>() : new HashMap<>(current);
+        combined.putAll(added);
+        return combined;
+    }
+
+    static List<Post> newestFirst(List<Post> posts) {
+        Collections.sort(posts, new NewestFirst());
+        return posts;
+    }
+
+    static Map<String, Post> postsById(List<Post> posts) {
+        Map<String, Post> byId = new HashMap<>();
+        for(Post post: posts) {
+            byId.put(post.getId(), post);
+        }
+        return byId;
+    }
+
+    Collection<User> embeddedUsers() {
+        return Collections.emptyList();
+    }
+
+    abstract FlattenableFeed<T> constructDefaultFeed();
+    abstract FlattenableFeed<T> parseJson(JsonObject jsonObject);
+
+    static class EventId implements Func1<Event, String> {
+        @Override
+        public String call(Event event) {
+            return event.getId();
+        }
+    }
+
+    /**
+     * Orders posts by their parsed creation time, posts without one go last.
+     */
+    static class NewestFirst implements Comparator<Post> {
+        @Override
+        public int compare(Post first, Post second) {
+            long a = first.getCreatedAtMillis();
+            long b = second.getCreatedAtMillis();
+            return a < b ? 1 : (a == b ? 0 : -1);
+        }
+    }
+
+    static class PostId implements Func1<Post, String> {
+        @Override
+        public String call(Post post) {
+            return post.getId();
+        }
+    }
+}
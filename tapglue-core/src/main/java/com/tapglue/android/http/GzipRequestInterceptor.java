@@ -0,0 +1,75 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.http;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+
+/**
+ * Compresses request bodies of at least the threshold size with gzip when enabled. Bodies that do
+ * not get smaller are sent as they are.
+ */
+class GzipRequestInterceptor implements Interceptor {
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+
+    private final boolean enabled;
+    private final long threshold;
+    private final HttpMetrics metrics;
+
+    GzipRequestInterceptor(boolean enabled, long threshold, HttpMetrics metrics) {
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        RequestBody body = request.body();
+        if(!enabled || body == null || request.header(CONTENT_ENCODING) != null
+            || body.contentLength() < threshold) {
+            return chain.proceed(request);
+        }
+        long start = System.nanoTime();
+        Buffer plain = new Buffer();
+        body.writeTo(plain);
+        long plainSize = plain.size();
+        Buffer compressed = new Buffer();
+        BufferedSink gzip = Okio.buffer(new GzipSink(compressed));
+        gzip.writeAll(plain);
+        gzip.close();
+        metrics.add(HttpMetrics.GZIP_NANOS, System.nanoTime() - start);
+        if(compressed.size() >= plainSize) {
+            return chain.proceed(request);
+        }
+        metrics.increment(HttpMetrics.GZIP_REQUESTS);
+        metrics.add(HttpMetrics.GZIP_BYTES_SAVED, plainSize - compressed.size());
+        Request gzipped = request.newBuilder()
+            .header(CONTENT_ENCODING, "gzip")
+            .method(request.method(), RequestBody.create(body.contentType(), compressed.readByteString()))
+            .build();
+        return chain.proceed(gzipped);
+    }
+}
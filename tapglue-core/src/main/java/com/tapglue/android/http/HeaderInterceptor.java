@@ -16,7 +16,7 @@
  */
 package com.tapglue.android.http;
 
-import android.os.Build;
+import com.tapglue.android.platform.DeviceInfo;
 
 import java.io.IOException;
 import java.util.Calendar;
@@ -32,14 +32,16 @@ class HeaderInterceptor implements Interceptor {
     String appToken;
     String sessionToken;
     String uuid;
+    DeviceInfo deviceInfo;
 
     Base64Encoder encoder = new Base64Encoder();
     TimeZone timeZone;
 
-    HeaderInterceptor(String appToken, String sessionToken, String uuid) {
+    HeaderInterceptor(String appToken, String sessionToken, String uuid, DeviceInfo deviceInfo) {
         this.appToken = appToken;
         this.sessionToken = sessionToken;
         this.uuid = uuid;
+        this.deviceInfo = deviceInfo;
         Calendar cal = Calendar.getInstance();
         timeZone = cal.getTimeZone();
     }
@@ -50,10 +52,10 @@ class HeaderInterceptor implements Interceptor {
         request = request.newBuilder()
                 .addHeader("Authorization", "Basic " + encoder.encode(appToken + ":" + sessionToken))
                 .addHeader("Content-Type", "application/json")
-                .addHeader("X-Tapglue-OS", "Android")
-                .addHeader("X-Tapglue-OSVersion", Build.VERSION.RELEASE != null ? Build.VERSION.RELEASE:"unkown")
-                .addHeader("X-Tapglue-Manufacturer", Build.MANUFACTURER != null ? Build.MANUFACTURER : "Unknown_manufacturer")
-                .addHeader("X-Tapglue-Model", Build.MODEL != null ? Build.MODEL : "Unknown_model")
+                .addHeader("X-Tapglue-OS", deviceInfo.getOs())
+                .addHeader("X-Tapglue-OSVersion", deviceInfo.getOsVersion() != null ? deviceInfo.getOsVersion():"unkown")
+                .addHeader("X-Tapglue-Manufacturer", deviceInfo.getManufacturer() != null ? deviceInfo.getManufacturer() : "Unknown_manufacturer")
+                .addHeader("X-Tapglue-Model", deviceInfo.getModel() != null ? deviceInfo.getModel() : "Unknown_model")
                 .addHeader("X-Tapglue-SDKVersion", VERSION)
                 .addHeader("X-Tapglue-AndroidID", uuid)
                 .addHeader("X-Tapglue-Timezone", timeZone.getID())
@@ -0,0 +1,96 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.http;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Named counters recorded by the HTTP stack, e.g. how often requests were retried or how long
+ * the startup of the SDK took on the calling thread and in the background.
+ */
+public class HttpMetrics {
+
+    public static final String RETRY_ATTEMPTS = "retry.attempts";
+    public static final String RETRY_SUCCESSES = "retry.successes";
+    public static final String RETRY_BUDGET_EXHAUSTED = "retry.budget_exhausted";
+    public static final String CIRCUIT_OPENED = "circuit.opened";
+    public static final String CIRCUIT_REJECTED = "circuit.rejected";
+    public static final String DEADLINE_EXCEEDED = "deadline.exceeded";
+    public static final String WARM_UPS = "warm_up.completed";
+    public static final String WARM_UP_FAILURES = "warm_up.failed";
+    public static final String GZIP_REQUESTS = "gzip.requests";
+    public static final String GZIP_BYTES_SAVED = "gzip.bytes_saved";
+    public static final String GZIP_NANOS = "gzip.compress_nanos";
+    public static final String STARTUP_BLOCKING_NANOS = "startup.blocking_nanos";
+    public static final String STARTUP_BACKGROUND_NANOS = "startup.background_nanos";
+    public static final String STARTUP_FAILURES = "startup.failed";
+    public static final String ANALYTICS_EVENTS_SENT = "analytics.sent";
+    public static final String ANALYTICS_EVENTS_DROPPED = "analytics.dropped";
+
+    private static final String STATUS_PREFIX = "status.";
+
+    private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    /**
+     * @param code HTTP status code
+     * @return name of the counter of responses with this status code
+     */
+    public static String status(int code) {
+        return STATUS_PREFIX + code;
+    }
+
+    public void increment(String name) {
+        add(name, 1);
+    }
+
+    public void add(String name, long delta) {
+        AtomicLong counter = counters.get(name);
+        if(counter == null) {
+            AtomicLong created = new AtomicLong();
+            counter = counters.putIfAbsent(name, created);
+            if(counter == null) {
+                counter = created;
+            }
+        }
+        counter.addAndGet(delta);
+    }
+
+    /**
+     * @param name name of the counter
+     * @return current value, 0 for counters that were never recorded
+     */
+    public long get(String name) {
+        AtomicLong counter = counters.get(name);
+        return counter == null ? 0 : counter.get();
+    }
+
+    /**
+     * @return copy of all counters
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new HashMap<>();
+        for(Map.Entry<String, AtomicLong> entry: counters.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().get());
+        }
+        return Collections.unmodifiableMap(snapshot);
+    }
+}
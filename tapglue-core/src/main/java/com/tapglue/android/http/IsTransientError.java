@@ -0,0 +1,52 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.http;
+
+import java.io.IOException;
+
+import retrofit2.adapter.rxjava.HttpException;
+import rx.functions.Func1;
+
+/**
+ * Accepts errors worth retrying: connection problems, open circuit breakers and responses with a
+ * status that may succeed later (408, 429 and 5xx other than 501). Other responses are permanent.
+ * Non idempotent requests are not retried by {@link RetryInterceptor}, so their 5xx and 429
+ * responses end up here.
+ */
+public class IsTransientError implements Func1<Throwable, Boolean> {
+    private static final int REQUEST_TIMEOUT = 408;
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int NOT_IMPLEMENTED = 501;
+
+    @Override
+    public Boolean call(Throwable error) {
+        if(error instanceof TapglueError) {
+            TapglueError tapglueError = (TapglueError) error;
+            return tapglueError.getCode() == TapglueError.CIRCUIT_OPEN
+                || isTransient(tapglueError.getStatus());
+        }
+        if(error instanceof HttpException) {
+            return isTransient(((HttpException) error).code());
+        }
+        return error instanceof IOException;
+    }
+
+    static boolean isTransient(int status) {
+        return status == REQUEST_TIMEOUT || status == TOO_MANY_REQUESTS
+            || (status >= 500 && status <= 599 && status != NOT_IMPLEMENTED);
+    }
+}
@@ -24,6 +24,8 @@ import com.tapglue.android.entities.Like;
 import com.tapglue.android.entities.Post;
 import com.tapglue.android.entities.User;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
@@ -46,6 +48,14 @@ class LikesFeed extends FlattenableFeed<List<Like>> {
         return likes;
     }
 
+    @Override
+    Collection<User> embeddedUsers() {
+        if(users == null) {
+            return Collections.emptyList();
+        }
+        return users.values();
+    }
+
     @Override
     FlattenableFeed<List<Like>> constructDefaultFeed() {
         LikesFeed feed = new LikesFeed();
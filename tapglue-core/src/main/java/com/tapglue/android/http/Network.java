@@ -0,0 +1,962 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.tapglue.android.http;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.tapglue.android.Configuration;
+import com.tapglue.android.RxPage;
+import com.tapglue.android.internal.MutationLog;
+import com.tapglue.android.internal.PendingMutation;
+import com.tapglue.android.internal.SessionRecord;
+import com.tapglue.android.internal.SessionStore;
+import com.tapglue.android.internal.SocialGraph;
+import com.tapglue.android.internal.SocialGraph.Relation;
+import com.tapglue.android.internal.UUIDStore;
+import com.tapglue.android.internal.UserCache;
+import com.tapglue.android.internal.UserSearchIndex;
+import com.tapglue.android.entities.Comment;
+import com.tapglue.android.entities.Connection;
+import com.tapglue.android.entities.Connection.Type;
+import com.tapglue.android.entities.ConnectionList;
+import com.tapglue.android.entities.Event;
+import com.tapglue.android.entities.FeedUpdate;
+import com.tapglue.android.entities.Like;
+import com.tapglue.android.entities.NewsFeed;
+import com.tapglue.android.entities.Post;
+import com.tapglue.android.entities.Reaction;
+import com.tapglue.android.entities.User;
+import com.tapglue.android.http.payloads.SocialConnections;
+import com.tapglue.android.http.payloads.AnalyticsBatch;
+import com.tapglue.android.http.payloads.EmailLoginPayload;
+import com.tapglue.android.http.payloads.EmailSearchPayload;
+import com.tapglue.android.http.payloads.SocialSearchPayload;
+import com.tapglue.android.http.payloads.UsernameLoginPayload;
+import com.tapglue.android.platform.Storage;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.functions.Func3;
+import rx.schedulers.Schedulers;
+
+public class Network {
+
+    private static final MediaType JSON = MediaType.parse("application/json; charset=UTF-8");
+    private static final Gson GSON = new Gson();
+    private static final Logger LOGGER = Logger.getLogger(Network.class.getName());
+
+    volatile TapglueService service;
+    volatile PaginatedService paginatedService;
+    private ServiceFactory serviceFactory;
+    private SessionStore sessionStore;
+    private UUIDStore uuidStore;
+    private UserCache userCache;
+    private UserSearchIndex searchIndex;
+    private SocialGraph socialGraph = new SocialGraph();
+    private WriteBehindQueue writeBehindQueue;
+    private Scheduler deadlineScheduler;
+    private final AtomicReference<RxPage<List<Post>>> postFeed = new AtomicReference<>();
+    private final AtomicReference<RxPage<NewsFeed>> newsFeed = new AtomicReference<>();
+    private final AtomicReference<RxPage<List<Event>>> meFeed = new AtomicReference<>();
+
+    /**
+     * @param storage persists the session, the uuid and the pending mutations
+     */
+    public Network(ServiceFactory serviceFactory, Storage storage) {
+        this(serviceFactory, storage, new SessionRecord(storage));
+    }
+
+    /**
+     * @param session record of the current user, shared with the user store of the caller
+     */
+    public Network(ServiceFactory serviceFactory, Storage storage, SessionRecord session) {
+        this(serviceFactory, storage, session, Schedulers.io());
+    }
+
+    Network(ServiceFactory serviceFactory, Storage storage, Scheduler initializationScheduler) {
+        this(serviceFactory, storage, new SessionRecord(storage), initializationScheduler);
+    }
+
+    Network(ServiceFactory serviceFactory, Storage storage, SessionRecord session,
+            Scheduler initializationScheduler) {
+        this(serviceFactory, storage, session, initializationScheduler, Schedulers.computation());
+    }
+
+    /**
+     * Creating the clients and reading the stored session happens on the initialization
+     * scheduler. Calls made before it finished are queued and sent afterwards. Deadlines of
+     * calls with a budget are timed on the deadline scheduler.
+     */
+    Network(ServiceFactory serviceFactory, Storage storage, SessionRecord session,
+            Scheduler initializationScheduler, Scheduler deadlineScheduler) {
+        long start = System.nanoTime();
+        this.serviceFactory = serviceFactory;
+        this.deadlineScheduler = deadlineScheduler;
+        Configuration configuration = serviceFactory.getConfiguration();
+        userCache = new UserCache(configuration.getUserCacheSize(), configuration.getUserCacheTtl());
+        searchIndex = new UserSearchIndex(configuration.getSearchIndexSize());
+        sessionStore = new SessionStore(session);
+        uuidStore = new UUIDStore(storage);
+        writeBehindQueue = new WriteBehindQueue(this, new MutationLog(storage),
+            configuration.getWriteBehindMaxAttempts(), configuration.getWriteBehindRetryDelay());
+        Observable<Network> initialized = Observable.fromCallable(new Initializer())
+            .subscribeOn(initializationScheduler).cache();
+        service = QueuedService.create(TapglueService.class, initialized, new Func0<TapglueService>() {
+            @Override
+            public TapglueService call() {
+                return service;
+            }
+        });
+        paginatedService = QueuedService.create(PaginatedService.class, initialized, new Func0<PaginatedService>() {
+            @Override
+            public PaginatedService call() {
+                return paginatedService;
+            }
+        });
+        initialized.subscribe(new Action1<Network>() {
+            @Override
+            public void call(Network network) {
+            }
+        }, new InitializationFailure());
+        getHttpMetrics().add(HttpMetrics.STARTUP_BLOCKING_NANOS, System.nanoTime() - start);
+    }
+
+    public Observable<User> loginWithUsername(String username, String password) {
+        UsernameLoginPayload payload = new UsernameLoginPayload(username, password);
+        return service.login(payload).map(new SessionTokenExtractor()).map(sessionStore.store())
+               .map(userCache.store());
+    }
+
+    public Observable<User> loginWithEmail(String email, String password) {
+        EmailLoginPayload payload = new EmailLoginPayload(email, password);
+        return service.login(payload).map(new SessionTokenExtractor()).map(sessionStore.store())
+               .map(userCache.store());
+    }
+
+    public Observable<Void> logout() {
+        return service.logout().doOnCompleted(sessionStore.clear())
+               .doOnCompleted(new LocalStateClear());
+    }
+
+    public Observable<User> createUser(User user) {
+        return service.createUser(user);
+    }
+
+    public Observable<Void> deleteCurrentUser() {
+        return service.deleteCurrentUser().doOnCompleted(sessionStore.clear())
+               .doOnCompleted(new LocalStateClear());
+    }
+
+    public Observable<User> updateCurrentUser(User user) {
+        return service.updateCurrentUser(user)
+               .map(new SessionTokenExtractor()).map(sessionStore.store())
+               .map(userCache.store());
+    }
+
+    /**
+     * The cache is read on subscription, so a stored or retried observable honors the ttl.
+     */
+    public Observable<User> retrieveUser(final String id) {
+        return Observable.defer(new Func0<Observable<User>>() {
+            @Override
+            public Observable<User> call() {
+                User cached = userCache.get(id);
+                if(cached != null) {
+                    return Observable.just(cached);
+                }
+                return service.retrieveUser(id).map(userCache.store()).doOnNext(new Action1<User>() {
+                    @Override
+                    public void call(User user) {
+                        searchIndex.add(user);
+                    }
+                });
+            }
+        });
+    }
+
+    public Observable<User> refreshCurrentUser() {
+        return service.refreshCurrentUser()
+               .map(new SessionTokenExtractor()).map(sessionStore.store())
+               .map(userCache.store());
+    }
+
+    public void clearLocalSessionToken() {
+        sessionStore.clear().call();
+        new LocalStateClear().call();
+    }
+
+    public UserCache getUserCache() {
+        return userCache;
+    }
+
+    public HttpMetrics getHttpMetrics() {
+        return serviceFactory.getTransport().getMetrics();
+    }
+
+    public Transport getTransport() {
+        return serviceFactory.getTransport();
+    }
+
+    public void warmUp() {
+        serviceFactory.getTransport().warmUp(serviceFactory.getConfiguration().getBaseUrl());
+    }
+
+    public UserSearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    public SocialGraph getSocialGraph() {
+        return socialGraph;
+    }
+
+    /**
+     * Loads every page of the current users followings, followers and friends and replaces the
+     * social graph with the result.
+     * @return the fully loaded social graph
+     */
+    public Observable<SocialGraph> syncSocialGraph() {
+        Observable<List<User>> followings = service.retrieveFollowings()
+            .concatMap(new UserPageDrain(null)).toList();
+        Observable<List<User>> followers = service.retrieveFollowers()
+            .concatMap(new UserPageDrain(null)).toList();
+        Observable<List<User>> friends = paginatedService.retrieveFriends()
+            .concatMap(new UserPageDrain(null)).toList();
+        return Observable.zip(followings, followers, friends,
+            new Func3<List<User>, List<User>, List<User>, SocialGraph>() {
+                @Override
+                public SocialGraph call(List<User> followings, List<User> followers,
+                                        List<User> friends) {
+                    socialGraph.replace(followings, followers, friends);
+                    return socialGraph;
+                }
+            });
+    }
+
+    /**
+     * Fills the user cache with the users embedded in a feed page.
+     * @param feed page that was received from the API
+     */
+    public void cacheUsers(FlattenableFeed<?> feed) {
+        if(feed != null) {
+            userCache.putAll(feed.embeddedUsers());
+            searchIndex.addAll(feed.embeddedUsers());
+        }
+    }
+
+    public Observable<RxPage<List<User>>> retrieveFollowings() {
+        return service.retrieveFollowings().doOnNext(new SocialGraphFiller(Relation.FOLLOWING))
+            .map(new RxPageCreator<List<User>>(this, new UsersFeed()));
+    }
+
+    public Observable<RxPage<List<User>>> retrieveFollowers() {
+        return service.retrieveFollowers().doOnNext(new SocialGraphFiller(Relation.FOLLOWER))
+            .map(new RxPageCreator<List<User>>(this, new UsersFeed()));
+    }
+
+    public Observable<RxPage<List<User>>> retrieveUserFollowings(String userId) {
+        return service.retrieveUserFollowings(userId)
+            .map(new RxPageCreator<List<User>>(this, new UsersFeed()));
+    }
+
+    public Observable<RxPage<List<User>>> retrieveUserFollowers(String userId) {
+        return service.retrieveUserFollowers(userId)
+            .map(new RxPageCreator<List<User>>(this, new UsersFeed()));
+    }
+
+    public Observable<RxPage<List<User>>> retrieveFriends() {
+        return paginatedService.retrieveFriends().doOnNext(new SocialGraphFiller(Relation.FRIEND))
+            .map(new RxPageCreator<List<User>>(this, new UsersFeed()));
+    }
+
+    public Observable<RxPage<List<User>>> retrieveUserFriends(String userId) {
+        return paginatedService.retrieveUserFriends(userId)
+            .map(new RxPageCreator<List<User>>(this, new UsersFeed()));
+    }
+
+    public Observable<Connection> createConnection(final Connection connection) {
+        return service.createConnection(connection).doOnNext(new Action1<Connection>() {
+            @Override
+            public void call(Connection created) {
+                if(created != null && created.getState() == Connection.State.CONFIRMED) {
+                    Relation relation = created.getType() == Type.FRIEND ? Relation.FRIEND
+                        : Relation.FOLLOWING;
+                    socialGraph.add(relation, connection.getUserToId());
+                }
+            }
+        }).doOnCompleted(new Action0() {
+            @Override
+            public void call() {
+                userCache.invalidate(connection.getUserToId());
+            }
+        });
+    }
+
+    public Observable<List<User>> createSocialConnections(SocialConnections connections) {
+        return service.createSocialConnections(connections).doOnNext(new FeedUserCacher())
+            .map(new UsersExtractor());
+    }
+
+    public Observable<Void> deleteConnection(final String userId, final Type type) {
+        return service.deleteConnection(userId, type).doOnCompleted(new Action0() {
+            @Override
+            public void call() {
+                userCache.invalidate(userId);
+                socialGraph.remove(type == Type.FRIEND ? Relation.FRIEND : Relation.FOLLOWING, userId);
+            }
+        });
+    }
+
+    public Observable<RxPage<List<User>>> searchUsers(String searchTerm) {
+        return paginatedService.searchUsers(searchTerm)
+            .map(new RxPageCreator<List<User>>(this, new UsersFeed()));
+    }
+
+    /**
+     * Answers every term from the local index right away. The term is only sent to the server
+     * once no new term arrived within the configured debounce, then the server results are
+     * emitted followed by the local matches the server did not return.
+     * @param terms search terms as typed by the user
+     * @return matching users for the latest term
+     */
+    public Observable<List<User>> searchUsersTypeAhead(Observable<String> terms) {
+        final long debounce = serviceFactory.getConfiguration().getTypeAheadDebounce();
+        return terms.switchMap(new Func1<String, Observable<List<User>>>() {
+            @Override
+            public Observable<List<User>> call(final String term) {
+                Observable<List<User>> local = Observable.just(searchIndex.search(term));
+                if(term == null || term.trim().isEmpty()) {
+                    return local;
+                }
+                Observable<List<User>> remote = Observable.timer(debounce, TimeUnit.MILLISECONDS)
+                    .flatMap(new Func1<Long, Observable<List<User>>>() {
+                        @Override
+                        public Observable<List<User>> call(Long tick) {
+                            return searchUsers(term).map(new Func1<RxPage<List<User>>, List<User>>() {
+                                @Override
+                                public List<User> call(RxPage<List<User>> page) {
+                                    return mergeSearchResults(page.getData(), searchIndex.search(term));
+                                }
+                            }).onErrorResumeNext(Observable.<List<User>>empty());
+                        }
+                    });
+                return local.concatWith(remote);
+            }
+        });
+    }
+
+    private static List<User> mergeSearchResults(List<User> remote, List<User> local) {
+        List<User> merged = new ArrayList<>();
+        Set<String> ids = new LinkedHashSet<>();
+        if(remote != null) {
+            for(User user: remote) {
+                if(user != null && ids.add(user.getId())) {
+                    merged.add(user);
+                }
+            }
+        }
+        for(User user: local) {
+            if(ids.add(user.getId())) {
+                merged.add(user);
+            }
+        }
+        return merged;
+    }
+
+    public Observable<RxPage<List<User>>> searchUsersByEmail(List<String> emails) {
+        RequestBody payload = createJsonBody(new EmailSearchPayload(emails));
+        return paginatedService.searchUsersByEmail(payload)
+            .map(new RxPageCreator<List<User>>(this, new UsersFeed(), payload));
+    }
+
+    public Observable<RxPage<List<User>>> searchUsersBySocialIds(String platform, List<String> socialIds) {
+        RequestBody payload = createJsonBody(new SocialSearchPayload(socialIds));
+        return paginatedService.searchUsersBySocialIds(platform, payload)
+            .map(new RxPageCreator<List<User>>(this, new UsersFeed(), payload));
+    }
+
+    /**
+     * Matches a contact book of any size against tapglue users. Emails are de-duplicated, split
+     * into chunks and the chunks are searched in parallel, following every result page.
+     * @param emails emails to search for.
+     * @return matched users as they arrive.
+     */
+    public Observable<User> matchUsersByEmail(List<String> emails) {
+        return Observable.from(chunk(emails)).flatMap(new Func1<List<String>, Observable<User>>() {
+            @Override
+            public Observable<User> call(List<String> chunk) {
+                RequestBody payload = createJsonBody(new EmailSearchPayload(chunk));
+                return paginatedService.searchUsersByEmail(payload)
+                    .concatMap(new UserPageDrain(payload)).subscribeOn(Schedulers.io());
+            }
+        }, contactMatchConcurrency()).distinct();
+    }
+
+    /**
+     * Same as {@link #matchUsersByEmail(List)} for ids of another social platform.
+     * @param platform the platform the ids belong to.
+     * @param socialIds the userIds to search for.
+     * @return matched users as they arrive.
+     */
+    public Observable<User> matchUsersBySocialIds(final String platform, List<String> socialIds) {
+        return Observable.from(chunk(socialIds)).flatMap(new Func1<List<String>, Observable<User>>() {
+            @Override
+            public Observable<User> call(List<String> chunk) {
+                RequestBody payload = createJsonBody(new SocialSearchPayload(chunk));
+                return paginatedService.searchUsersBySocialIds(platform, payload)
+                    .concatMap(new UserPageDrain(payload)).subscribeOn(Schedulers.io());
+            }
+        }, contactMatchConcurrency()).distinct();
+    }
+
+    public Observable<RxPage<ConnectionList>> retrievePendingConnections() {
+        return paginatedService.retrievePendingConnections()
+            .map(new RxPageCreator<ConnectionList>(this, new ConnectionsFeed()));
+    }
+
+    public Observable<RxPage<ConnectionList>> retrieveRejectedConnections() {
+        return paginatedService.retrieveRejectedConnections()
+            .map(new RxPageCreator<ConnectionList>(this, new ConnectionsFeed()));
+    }
+
+    public Observable<Post> createPost(Post post) {
+        return service.createPost(post);
+    }
+
+    public Observable<Post> retrievePost(String id) {
+        return service.retrievePost(id);
+    }
+
+    public Observable<Post> updatePost(String id, Post post) {
+        return service.updatePost(id, post);
+    }
+
+    public Observable<Void> deletePost(String id) {
+        return service.deletePost(id);
+    }
+
+    public Observable<RxPage<List<Post>>> retrievePosts() {
+        return paginatedService.retrievePosts().map(new RxPageCreator<List<Post>>(this, new PostListFeed()));
+    }
+
+    public Observable<RxPage<List<Post>>> retrievePostsByUser(String id) {
+        return paginatedService.retrievePostsByUser(id).map(new RxPageCreator<List<Post>>(this, new PostListFeed()));
+    }
+
+    public Observable<Like> createLike(String id) {
+        return service.createLike(id);
+    }
+
+    /**
+     * Sends the optimistic changes that could not be delivered yet, e.g. after a reconnect.
+     */
+    public void retryPendingMutations() {
+        writeBehindQueue.replay();
+    }
+
+    /**
+     * Marks the post as liked right away and sends the like through the write behind queue.
+     * @param post the post to like, it is updated in place
+     * @return emits the updated post, fails after the change was rolled back
+     */
+    public Observable<Post> createLikeOptimistic(final Post post) {
+        if(post.isLiked()) {
+            return Observable.just(post);
+        }
+        final Post.Counts counts = countsOf(post);
+        post.setLiked(true);
+        counts.setLikes(counts.getLikes() + 1);
+        Observable<Void> sent = writeBehindQueue.enqueue(PendingMutation.like(post.getId()),
+            new Action0() {
+                @Override
+                public void call() {
+                    post.setLiked(false);
+                    counts.setLikes(Math.max(0, counts.getLikes() - 1));
+                }
+            });
+        return Observable.just(post).concatWith(sent.ignoreElements().cast(Post.class));
+    }
+
+    /**
+     * Marks the reaction on the post right away and sends it through the write behind queue.
+     * @param post the post to react on, it is updated in place
+     * @param reaction the reaction
+     * @return emits the updated post, fails after the change was rolled back
+     */
+    public Observable<Post> createReactionOptimistic(final Post post, final Reaction reaction) {
+        if(post.hasReacted(reaction)) {
+            return Observable.just(post);
+        }
+        final Post.Counts counts = countsOf(post);
+        post.setHasReacted(reaction, true);
+        counts.setReactions(reaction, counts.getReactions(reaction) + 1);
+        Observable<Void> sent = writeBehindQueue.enqueue(
+            PendingMutation.reaction(post.getId(), reaction), new Action0() {
+                @Override
+                public void call() {
+                    post.setHasReacted(reaction, false);
+                    counts.setReactions(reaction, Math.max(0, counts.getReactions(reaction) - 1));
+                }
+            });
+        return Observable.just(post).concatWith(sent.ignoreElements().cast(Post.class));
+    }
+
+    /**
+     * Counts the comment on the post right away and sends it through the write behind queue.
+     * @param post the commented post, it is updated in place
+     * @param comment the comment
+     * @return emits the updated post, fails after the change was rolled back
+     */
+    public Observable<Post> createCommentOptimistic(final Post post, Comment comment) {
+        final Post.Counts counts = countsOf(post);
+        counts.setComments(counts.getComments() + 1);
+        Observable<Void> sent = writeBehindQueue.enqueue(
+            PendingMutation.comment(post.getId(), comment), new Action0() {
+                @Override
+                public void call() {
+                    counts.setComments(Math.max(0, counts.getComments() - 1));
+                }
+            });
+        return Observable.just(post).concatWith(sent.ignoreElements().cast(Post.class));
+    }
+
+    /**
+     * Adds a confirmed connection to the social graph right away and sends it through the write
+     * behind queue.
+     * @param connection connection to be created
+     * @return emits the connection, fails after the change was rolled back
+     */
+    public Observable<Connection> createConnectionOptimistic(final Connection connection) {
+        final Relation relation = connection.getType() == Type.FRIEND ? Relation.FRIEND
+            : Relation.FOLLOWING;
+        final boolean applied = connection.getState() == Connection.State.CONFIRMED
+            && !socialGraph.contains(relation, connection.getUserToId());
+        if(applied) {
+            socialGraph.add(relation, connection.getUserToId());
+        }
+        Observable<Void> sent = writeBehindQueue.enqueue(PendingMutation.connection(connection),
+            new Action0() {
+                @Override
+                public void call() {
+                    if(applied) {
+                        socialGraph.remove(relation, connection.getUserToId());
+                    }
+                }
+            });
+        return Observable.just(connection).concatWith(sent.ignoreElements().cast(Connection.class));
+    }
+
+    public Observable<Void> deleteLike(String id) {
+        return service.deleteLike(id);
+    }
+
+    public Observable<RxPage<List<Like>>> retrieveLikesForPost(String id) {
+        return paginatedService.retrieveLikesForPost(id).map(new RxPageCreator<List<Like>>(this, new LikesFeed()));
+    }
+
+    public Observable<RxPage<List<Like>>> retrieveLikesByUser(String userId) {
+        return paginatedService.retrieveLikesByUser(userId).map(new RxPageCreator<List<Like>>(this, new LikesFeed()));
+    }
+
+    public Observable<Void> createReaction(String postId, Reaction reaction) {
+        return service.createReaction(postId, reaction);
+    }
+
+    public Observable<Void> deleteReaction(String postId, Reaction reaction) {
+        return service.deleteReaction(postId, reaction);
+    }
+
+    public Observable<Comment> createComment(String postId, Comment comment) {
+        return service.createComment(postId, comment);
+    }
+
+    public Observable<Void> deleteComment(String postId, String commentId) {
+        return service.deleteComment(postId, commentId);
+    }
+
+    public Observable<Comment> updateComment(String postId, String commentId, Comment comment) {
+        return service.updateComment(postId, commentId, comment);
+    }
+
+    public Observable<Void> sendAnalytics() {
+        return service.sendAnalytics();
+    }
+
+    public Observable<Void> sendAnalytics(AnalyticsBatch batch) {
+        return service.sendAnalytics(batch);
+    }
+
+    public Observable<RxPage<List<Comment>>> retrieveCommentsForPost(String postId) {
+        return paginatedService.retrieveCommentsForPost(postId)
+            .map(new RxPageCreator<List<Comment>>(this, new CommentsFeed()));
+    }
+
+    public Observable<RxPage<List<Post>>> retrievePostFeed() {
+        return paginatedService.retrievePostFeed().map(new RxPageCreator<List<Post>>(this, new PostListFeed()))
+            .doOnNext(new PageKeeper<>(postFeed));
+    }
+
+    /**
+     * @param budget milliseconds the feed and its previous pages have to be retrieved in, counted
+     * from every subscription
+     * @return the feed, or the last retrieved feed if the budget ran out
+     */
+    public Observable<RxPage<List<Post>>> retrievePostFeed(final long budget) {
+        return Observable.defer(new Func0<Observable<RxPage<List<Post>>>>() {
+            @Override
+            public Observable<RxPage<List<Post>>> call() {
+                Deadline deadline = new Deadline(budget, getHttpMetrics(), deadlineScheduler);
+                return deadline.apply(paginatedService.retrievePostFeed()
+                    .map(new RxPageCreator<List<Post>>(Network.this, new PostListFeed(), null, deadline))
+                    .doOnNext(new PageKeeper<>(postFeed)), lastPage(postFeed));
+            }
+        });
+    }
+
+    public Observable<List<Event>> retrieveEventFeed() {
+        return service.retrieveEventFeed().doOnNext(new FeedUserCacher()).map(new EventFeedToList());
+    }
+
+    public Observable<FeedUpdate> streamFeedUpdates(String url, String cursor) {
+        return Observable.create(new FeedUpdateStream(serviceFactory.createStreamingClient(), url, cursor));
+    }
+
+    public Observable<FeedUpdate> retrieveFeedUpdates(String cursor) {
+        return service.retrieveFeedUpdates(cursor);
+    }
+
+    /**
+     * Replaces the kept first pages of the post, news and me feed with pages that include the
+     * update and caches its users. Pages handed out before are not changed.
+     */
+    public void mergeFeedUpdate(FeedUpdate update) {
+        userCache.putAll(update.getUsers().values());
+        searchIndex.addAll(update.getUsers().values());
+        mergeInto(postFeed, update);
+        mergeInto(newsFeed, update);
+        mergeInto(meFeed, update);
+    }
+
+    public Observable<Long> retrieveUnreadCount() {
+        return service.retrieveUnreadCount().map(new Func1<UnreadCount, Long>() {
+            @Override
+            public Long call(UnreadCount unreadCount) {
+                return unreadCount.count;
+            }
+        });
+    }
+
+    public Observable<RxPage<NewsFeed>> retrieveNewsFeed() {
+        return paginatedService.retrieveNewsFeed().map(new RxPageCreator<NewsFeed>(this, new RawNewsFeed()))
+            .doOnNext(new PageKeeper<>(newsFeed));
+    }
+
+    /**
+     * @param budget milliseconds the feed and its previous pages have to be retrieved in, counted
+     * from every subscription
+     * @return the feed, or the last retrieved feed if the budget ran out
+     */
+    public Observable<RxPage<NewsFeed>> retrieveNewsFeed(final long budget) {
+        return Observable.defer(new Func0<Observable<RxPage<NewsFeed>>>() {
+            @Override
+            public Observable<RxPage<NewsFeed>> call() {
+                Deadline deadline = new Deadline(budget, getHttpMetrics(), deadlineScheduler);
+                return deadline.apply(paginatedService.retrieveNewsFeed()
+                    .map(new RxPageCreator<NewsFeed>(Network.this, new RawNewsFeed(), null, deadline))
+                    .doOnNext(new PageKeeper<>(newsFeed)), lastPage(newsFeed));
+            }
+        });
+    }
+
+    public Observable<RxPage<List<Event>>> retrieveMeFeed() {
+        return paginatedService.retrieveMeFeed().map(new RxPageCreator<List<Event>>(this, new EventListFeed()))
+            .doOnNext(new PageKeeper<>(meFeed));
+    }
+
+    /**
+     * @param budget milliseconds the feed and its previous pages have to be retrieved in, counted
+     * from every subscription
+     * @return the feed, or the last retrieved feed if the budget ran out
+     */
+    public Observable<RxPage<List<Event>>> retrieveMeFeed(final long budget) {
+        return Observable.defer(new Func0<Observable<RxPage<List<Event>>>>() {
+            @Override
+            public Observable<RxPage<List<Event>>> call() {
+                Deadline deadline = new Deadline(budget, getHttpMetrics(), deadlineScheduler);
+                return deadline.apply(paginatedService.retrieveMeFeed()
+                    .map(new RxPageCreator<List<Event>>(Network.this, new EventListFeed(), null, deadline))
+                    .doOnNext(new PageKeeper<>(meFeed)), lastPage(meFeed));
+            }
+        });
+    }
+
+    public Observable<JsonObject> paginatedGet(String pointer) {
+        return service.paginatedGet(pointer);
+    }
+
+    public Observable<JsonObject> paginatedPost(String pointer, RequestBody payload) {
+        return service.paginatedPost(pointer, payload);
+    }
+
+    private class Initializer implements Callable<Network> {
+        @Override
+        public Network call() {
+            long start = System.nanoTime();
+            service = serviceFactory.createTapglueService();
+            paginatedService = serviceFactory.createPaginatedService();
+            uuidStore.get().doOnNext(new UUIDAction()).subscribe();
+            sessionStore.get().map(new SessionTokenExtractor()).subscribe();
+            writeBehindQueue.replay();
+            getHttpMetrics().add(HttpMetrics.STARTUP_BACKGROUND_NANOS, System.nanoTime() - start);
+            return Network.this;
+        }
+    }
+
+    /**
+     * Logs a failed initialization. The queued calls receive the error themselves.
+     */
+    private class InitializationFailure implements Action1<Throwable> {
+        @Override
+        public void call(Throwable error) {
+            getHttpMetrics().increment(HttpMetrics.STARTUP_FAILURES);
+            LOGGER.log(Level.WARNING, "initialization failed", error);
+        }
+    }
+
+    private class SessionTokenExtractor implements Func1<User, User> {
+
+        @Override
+        public User call(User user) {
+            serviceFactory.setSessionToken(user.getSessionToken());
+            service = serviceFactory.createTapglueService();
+            paginatedService = serviceFactory.createPaginatedService();
+            return user;
+        }
+    }
+
+    private static Post.Counts countsOf(Post post) {
+        if(post.getCounts() == null) {
+            post.setCounts(new Post.Counts());
+        }
+        return post.getCounts();
+    }
+
+    private List<List<String>> chunk(List<String> values) {
+        Set<String> unique = new LinkedHashSet<>();
+        if(values != null) {
+            for(String value: values) {
+                if(value != null && !value.trim().isEmpty()) {
+                    unique.add(value.trim());
+                }
+            }
+        }
+        int chunkSize = Math.max(1, serviceFactory.getConfiguration().getContactMatchChunkSize());
+        List<String> all = new ArrayList<>(unique);
+        List<List<String>> chunks = new ArrayList<>();
+        for(int i = 0; i < all.size(); i += chunkSize) {
+            chunks.add(all.subList(i, Math.min(all.size(), i + chunkSize)));
+        }
+        return chunks;
+    }
+
+    private int contactMatchConcurrency() {
+        return Math.max(1, serviceFactory.getConfiguration().getContactMatchConcurrency());
+    }
+
+    private static <T> Observable<RxPage<T>> lastPage(final AtomicReference<RxPage<T>> kept) {
+        return Observable.defer(new Func0<Observable<RxPage<T>>>() {
+            @Override
+            public Observable<RxPage<T>> call() {
+                RxPage<T> page = kept.get();
+                if(page == null) {
+                    return Observable.error(new TapglueError(TapglueError.DEADLINE_EXCEEDED,
+                        "deadline exceeded"));
+                }
+                return Observable.just(page);
+            }
+        });
+    }
+
+    private static <T> void mergeInto(AtomicReference<RxPage<T>> kept, FeedUpdate update) {
+        RxPage<T> page;
+        do {
+            page = kept.get();
+            if(page == null) {
+                return;
+            }
+        } while(!kept.compareAndSet(page, page.merged(update)));
+    }
+
+    private static RequestBody createJsonBody(Object payload) {
+        return RequestBody.create(JSON, GSON.toJson(payload));
+    }
+
+    private class LocalStateClear implements Action0 {
+        @Override
+        public void call() {
+            userCache.clear().call();
+            searchIndex.clear().call();
+            socialGraph.clear().call();
+            postFeed.set(null);
+            newsFeed.set(null);
+            meFeed.set(null);
+        }
+    }
+
+    /**
+     * Keeps the latest first page of a feed to fall back to when a deadline is exceeded.
+     */
+    private static class PageKeeper<T> implements Action1<RxPage<T>> {
+        private final AtomicReference<RxPage<T>> kept;
+
+        PageKeeper(AtomicReference<RxPage<T>> kept) {
+            this.kept = kept;
+        }
+
+        @Override
+        public void call(RxPage<T> page) {
+            kept.set(page);
+        }
+    }
+
+    private class SocialGraphFiller implements Action1<UsersFeed> {
+        private final Relation relation;
+
+        SocialGraphFiller(Relation relation) {
+            this.relation = relation;
+        }
+
+        @Override
+        public void call(UsersFeed feed) {
+            if(feed != null) {
+                socialGraph.addAll(relation, feed.getUsers());
+            }
+        }
+    }
+
+    private class FeedUserCacher implements Action1<FlattenableFeed<?>> {
+        @Override
+        public void call(FlattenableFeed<?> feed) {
+            cacheUsers(feed);
+        }
+    }
+
+    private class UsersExtractor implements Func1<UsersFeed, List<User>> {
+        @Override
+        public List<User> call(UsersFeed feed) {
+            if(feed == null || feed.getUsers() == null) {
+                return new ArrayList<>();
+            }
+            return feed.getUsers();
+        }
+    }
+
+    private class UUIDAction implements Action1<String> {
+
+        @Override
+        public void call(String uuid) {
+            serviceFactory.setUserUUID(uuid);
+            service = serviceFactory.createTapglueService();
+            paginatedService = serviceFactory.createPaginatedService();
+        }
+    }
+
+    /**
+     * Emits the users of a result and keeps requesting the previous page until an empty page is
+     * returned. Search results send the same serialized payload with every page.
+     */
+    private class UserPageDrain implements Func1<FlattenableFeed<List<User>>, Observable<User>> {
+        private final RequestBody payload;
+
+        UserPageDrain(RequestBody payload) {
+            this.payload = payload;
+        }
+
+        @Override
+        public Observable<User> call(FlattenableFeed<List<User>> feed) {
+            final FlattenableFeed<List<User>> page = feed == null ? new UsersFeed().constructDefaultFeed() : feed;
+            cacheUsers(page);
+            List<User> users = page.flatten();
+            Observable<User> result = Observable.from(users);
+            if(users.isEmpty() || page.page == null || page.previousPointer() == null
+                || page.previousPointer().isEmpty()) {
+                return result;
+            }
+            Observable<JsonObject> previous = payload == null ? paginatedGet(page.previousPointer())
+                : paginatedPost(page.previousPointer(), payload);
+            return result.concatWith(previous
+                .concatMap(new Func1<JsonObject, Observable<User>>() {
+                    @Override
+                    public Observable<User> call(JsonObject jsonObject) {
+                        return UserPageDrain.this.call(page.parse(jsonObject));
+                    }
+                }));
+        }
+    }
+
+    private static class RxPageCreator<T> implements Func1<FlattenableFeed<T>, RxPage<T>> {
+        private final FlattenableFeed<T> defaultFeed;
+        private final Network network;
+        private RequestBody payload;
+        private Deadline deadline;
+
+        RxPageCreator(Network network, FlattenableFeed<T> defaultFeed) {
+            this.network = network;
+            this.defaultFeed = defaultFeed;
+        }
+
+        RxPageCreator(Network network, FlattenableFeed<T> defaultFeed, RequestBody payload) {
+            this.network = network;
+            this.payload = payload;
+            this.defaultFeed = defaultFeed;
+        }
+
+        RxPageCreator(Network network, FlattenableFeed<T> defaultFeed, RequestBody payload,
+                      Deadline deadline) {
+            this.network = network;
+            this.payload = payload;
+            this.defaultFeed = defaultFeed;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public RxPage<T> call(FlattenableFeed<T> feed) {
+            FlattenableFeed<T> returnFeed;
+            if(feed == null) {
+                returnFeed = defaultFeed;
+            } else {
+                returnFeed = feed;
+            }
+            network.cacheUsers(returnFeed);
+            return new RxPage<>(returnFeed, network, payload, deadline);
+        }
+    }
+}
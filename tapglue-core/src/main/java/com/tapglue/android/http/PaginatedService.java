@@ -1,8 +1,6 @@
 package com.tapglue.android.http;
 
-import com.tapglue.android.http.payloads.EmailSearchPayload;
-import com.tapglue.android.http.payloads.SocialSearchPayload;
-
+import okhttp3.RequestBody;
 import retrofit2.http.Body;
 import retrofit2.http.GET;
 import retrofit2.http.POST;
@@ -22,11 +20,11 @@ interface PaginatedService {
     Observable<UsersFeed> searchUsers(@Query("q") String searchTerm);
 
     @POST("/0.4/users/search/emails")
-    Observable<UsersFeed> searchUsersByEmail(@Body EmailSearchPayload payload);
+    Observable<UsersFeed> searchUsersByEmail(@Body RequestBody payload);
 
     @POST("/0.4/users/search/{platform}")
     Observable<UsersFeed> searchUsersBySocialIds(@Path("platform") String platform,
-                                                 @Body SocialSearchPayload payload);
+                                                 @Body RequestBody payload);
 
     @GET("/0.4/me/friends")
     Observable<UsersFeed> retrieveFriends();
@@ -3,10 +3,13 @@ package com.tapglue.android.http;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 
+import com.tapglue.android.entities.FeedUpdate;
 import com.tapglue.android.entities.Post;
 import com.tapglue.android.entities.User;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -25,6 +28,23 @@ class PostListFeed extends FlattenableFeed<List<Post>> {
         return posts;
     }
 
+    @Override
+    public FlattenableFeed<List<Post>> merged(FeedUpdate update) {
+        PostListFeed merged = new PostListFeed();
+        merged.page = page;
+        merged.users = combine(users, update.getUsers());
+        merged.posts = newestFirst(prepend(update.getPosts(), posts, new PostId()));
+        return merged;
+    }
+
+    @Override
+    Collection<User> embeddedUsers() {
+        if(users == null) {
+            return Collections.emptyList();
+        }
+        return users.values();
+    }
+
     @Override
     FlattenableFeed<List<Post>> constructDefaultFeed() {
         PostListFeed feed = new PostListFeed();
@@ -0,0 +1,66 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.http;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import rx.Observable;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+/**
+ * Creates stand-ins for Retrofit services that can be called before the real service exists.
+ * Every call returns right away, the request is made on the real service once the
+ * initialization emitted.
+ */
+class QueuedService {
+
+    private QueuedService() {}
+
+    /**
+     * @param type service interface whose methods all return observables
+     * @param initialized emits once the real service can be used
+     * @param target returns the real service at the time a queued call is subscribed
+     */
+    static <T> T create(Class<T> type, final Observable<?> initialized, final Func0<T> target) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+            new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, final Method method, final Object[] args)
+                    throws Throwable {
+                    if(method.getDeclaringClass() == Object.class) {
+                        return method.invoke(this, args);
+                    }
+                    return initialized.flatMap(new Func1<Object, Observable<?>>() {
+                        @Override
+                        public Observable<?> call(Object ignored) {
+                            try {
+                                return (Observable<?>) method.invoke(target.call(), args);
+                            } catch(InvocationTargetException e) {
+                                return Observable.error(e.getCause());
+                            } catch(IllegalAccessException e) {
+                                return Observable.error(e);
+                            }
+                        }
+                    });
+                }
+            }));
+    }
+}
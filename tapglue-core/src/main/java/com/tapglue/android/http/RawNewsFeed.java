@@ -4,11 +4,14 @@ import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.annotations.SerializedName;
 import com.tapglue.android.entities.Event;
+import com.tapglue.android.entities.FeedUpdate;
 import com.tapglue.android.entities.NewsFeed;
 import com.tapglue.android.entities.Post;
 import com.tapglue.android.entities.User;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -34,6 +37,25 @@ class RawNewsFeed extends FlattenableFeed<NewsFeed> {
         return new NewsFeed(events, posts);
     }
 
+    @Override
+    public FlattenableFeed<NewsFeed> merged(FeedUpdate update) {
+        RawNewsFeed merged = new RawNewsFeed();
+        merged.page = page;
+        merged.users = combine(users, update.getUsers());
+        merged.postMap = combine(postMap, postsById(update.getPosts()));
+        merged.events = prepend(update.getEvents(), events, new EventId());
+        merged.posts = newestFirst(prepend(update.getPosts(), posts, new PostId()));
+        return merged;
+    }
+
+    @Override
+    Collection<User> embeddedUsers() {
+        if(users == null) {
+            return Collections.emptyList();
+        }
+        return users.values();
+    }
+
     @Override
     FlattenableFeed<NewsFeed> constructDefaultFeed() {
         RawNewsFeed feed = new RawNewsFeed();
@@ -0,0 +1,46 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.http;
+
+/**
+ * Token bucket shared by all clients that limits retries when many requests fail at once. Every
+ * retry takes one token, every successful request gives back a fraction of one. Retries are only
+ * allowed while more than half of the tokens are left.
+ */
+class RetryBudget {
+    private static final double SUCCESS_RATIO = 0.1;
+
+    private final double maxTokens;
+    private double tokens;
+
+    RetryBudget(int maxTokens) {
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    synchronized boolean tryAcquire() {
+        if(tokens <= maxTokens / 2) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        tokens = Math.min(maxTokens, tokens + SUCCESS_RATIO);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Random;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Retries idempotent requests that failed with a connection error, a 5xx or a 429 response.
+ * Retries are delayed by a randomized exponential backoff unless the server sends a Retry-After
+ * header, and all clients share one {@link RetryBudget} so an outage does not multiply traffic.
+ * Has to be added after the {@link ErrorInterceptor} so it sees the raw responses.
+ */
+class RetryInterceptor implements Interceptor {
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final int maxRetries;
+    private final long baseDelay;
+    private final long maxDelay;
+    private final RetryBudget budget;
+    private final HttpMetrics metrics;
+    private final Random random = new Random();
+
+    RetryInterceptor(int maxRetries, long baseDelay, long maxDelay, Transport transport) {
+        this.maxRetries = maxRetries;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        this.budget = transport.getRetryBudget();
+        this.metrics = transport.getMetrics();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if(!isIdempotent(request.method())) {
+            return chain.proceed(request);
+        }
+        for(int attempt = 0; ; attempt++) {
+            Response response;
+            try {
+                response = chain.proceed(request);
+            } catch(IOException e) {
+                if(e instanceof InterruptedIOException || !canRetry(attempt)) {
+                    throw e;
+                }
+                waitBeforeRetry(backoff(attempt));
+                continue;
+            }
+            if(!isTransient(response.code())) {
+                budget.onSuccess();
+                if(attempt > 0) {
+                    metrics.increment(HttpMetrics.RETRY_SUCCESSES);
+                }
+                return response;
+            }
+            long delay = retryAfter(response);
+            if(delay < 0) {
+                delay = backoff(attempt);
+            }
+            if(delay > maxDelay || !canRetry(attempt)) {
+                return response;
+            }
+            response.body().close();
+            waitBeforeRetry(delay);
+        }
+    }
+
+    private boolean canRetry(int attempt) {
+        if(attempt >= maxRetries) {
+            return false;
+        }
+        if(!budget.tryAcquire()) {
+            metrics.increment(HttpMetrics.RETRY_BUDGET_EXHAUSTED);
+            return false;
+        }
+        metrics.increment(HttpMetrics.RETRY_ATTEMPTS);
+        return true;
+    }
+
+    private void waitBeforeRetry(long delay) throws IOException {
+        try {
+            sleep(delay);
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting to retry");
+        }
+    }
+
+    private long backoff(int attempt) {
+        long ceiling = Math.min(maxDelay, baseDelay << Math.min(attempt, 30));
+        return ceiling <= 0 ? 0 : (long) (random.nextDouble() * ceiling);
+    }
+
+    void sleep(long millis) throws InterruptedException {
+        if(millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    private static long retryAfter(Response response) {
+        String header = response.header("Retry-After");
+        if(header == null) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(header.trim()) * 1000);
+        } catch(NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static boolean isTransient(int code) {
+        return code == TOO_MANY_REQUESTS || (code >= 500 && code <= 599 && code != 501);
+    }
+
+    private static boolean isIdempotent(String method) {
+        return method.equals("GET") || method.equals("HEAD") || method.equals("PUT")
+            || method.equals("DELETE") || method.equals("OPTIONS");
+    }
+}
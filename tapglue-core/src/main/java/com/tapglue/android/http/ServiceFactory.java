@@ -27,13 +27,18 @@ public class ServiceFactory {
     String sessionToken = "";
     Configuration configuration;
     String userUUID = "";
+    Transport transport;
 
-    public ServiceFactory(Configuration configuration) {
+    /**
+     * @param transport shared with the other clients of the SDK
+     */
+    public ServiceFactory(Configuration configuration, Transport transport) {
         this.configuration = configuration;
+        this.transport = transport;
     }
 
     public TapglueService createTapglueService() {
-        OkHttpClient client = ClientFactory.createClient(configuration, sessionToken, userUUID);
+        OkHttpClient client = ClientFactory.createClient(configuration, sessionToken, userUUID, transport);
 
         Retrofit retrofit = buildRetrofit(client);
         return retrofit.create(TapglueService.class);
@@ -41,12 +46,16 @@ public class ServiceFactory {
 
     public PaginatedService createPaginatedService() {
         OkHttpClient client = ClientFactory
-            .createPaginatedClient(configuration, sessionToken, userUUID);
+            .createPaginatedClient(configuration, sessionToken, userUUID, transport);
 
         Retrofit retrofit = buildRetrofit(client);
         return retrofit.create(PaginatedService.class);
     }
 
+    public OkHttpClient createStreamingClient() {
+        return ClientFactory.createStreamingClient(configuration, sessionToken, userUUID, transport);
+    }
+
     private Retrofit buildRetrofit(OkHttpClient client) {
         return new Retrofit.Builder().client(client)
                 .addCallAdapterFactory(RxJavaCallAdapterFactory.create())
@@ -54,6 +63,14 @@ public class ServiceFactory {
                 .baseUrl(configuration.getBaseUrl()).build();
     }
 
+    public Configuration getConfiguration() {
+        return configuration;
+    }
+
+    public Transport getTransport() {
+        return transport;
+    }
+
     public void setSessionToken(String token) {
         this.sessionToken = token;
     }
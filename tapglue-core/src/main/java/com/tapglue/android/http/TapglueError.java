@@ -24,10 +24,22 @@ import java.io.IOException;
  * Specifies errors returned by the web API.
  */
 public class TapglueError extends IOException{
+    /**
+     * Code of the error thrown without sending the request because too many recent requests to
+     * the same group of endpoints failed.
+     */
+    public static final int CIRCUIT_OPEN = -1;
+    /**
+     * Code of the error emitted when a call did not finish before its deadline and there was no
+     * cached data to fall back to.
+     */
+    public static final int DEADLINE_EXCEEDED = -2;
+
     @SerializedName("code")
     private final int code;
     @SerializedName("message")
     private final String message;
+    private transient int status;
 
     public TapglueError(int code, String message) {
         this.code = code;
@@ -44,6 +56,19 @@ public class TapglueError extends IOException{
         return code;
     }
 
+    /**
+     * @return HTTP status of the response the error was returned with, 0 for errors raised
+     * without a response
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    TapglueError withStatus(int status) {
+        this.status = status;
+        return this;
+    }
+
     /**
      * @return the error message from the API.
      */
@@ -0,0 +1,40 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.http;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown when the web API returns more than one error for a request. Code and message are the
+ * ones of the first error, so it can be handled like a single {@link TapglueError}.
+ */
+public class TapglueErrors extends TapglueError {
+    private final List<TapglueError> errors;
+
+    public TapglueErrors(List<TapglueError> errors) {
+        super(errors.get(0).getCode(), errors.get(0).getMessage());
+        this.errors = Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * @return all errors returned by the web API in the order they were returned
+     */
+    public List<TapglueError> getErrors() {
+        return errors;
+    }
+}
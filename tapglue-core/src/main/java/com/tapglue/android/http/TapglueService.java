@@ -21,9 +21,11 @@ import com.tapglue.android.entities.User;
 import com.tapglue.android.entities.Comment;
 import com.tapglue.android.entities.Connection;
 import com.tapglue.android.entities.Connection.Type;
+import com.tapglue.android.entities.FeedUpdate;
 import com.tapglue.android.entities.Like;
 import com.tapglue.android.entities.Post;
 import com.tapglue.android.entities.Reaction;
+import com.tapglue.android.http.payloads.AnalyticsBatch;
 import com.tapglue.android.http.payloads.EmailLoginPayload;
 import com.tapglue.android.http.payloads.SocialConnections;
 import com.tapglue.android.http.payloads.UsernameLoginPayload;
@@ -35,6 +37,7 @@ import retrofit2.http.DELETE;
 import retrofit2.http.GET;
 import retrofit2.http.POST;
 import retrofit2.http.PUT;
+import retrofit2.http.Query;
 import retrofit2.http.Url;
 import rx.Observable;
 
@@ -51,6 +54,9 @@ interface TapglueService {
     @POST("/0.4/analytics")
     Observable<Void> sendAnalytics();
 
+    @POST("/0.4/analytics")
+    Observable<Void> sendAnalytics(@Body AnalyticsBatch batch);
+
     @POST("/0.4/users")
     Observable<User> createUser(@Body User user);
 
@@ -133,6 +139,12 @@ interface TapglueService {
     @GET("/0.4/me/feed/events")
     Observable<EventListFeed> retrieveEventFeed();
 
+    @GET("/0.4/me/feed/updates")
+    Observable<FeedUpdate> retrieveFeedUpdates(@Query("cursor") String cursor);
+
+    @GET("/0.4/me/feed/unread/count")
+    Observable<UnreadCount> retrieveUnreadCount();
+
     @GET
     Observable<JsonObject> paginatedGet(@Url String pointer);
 
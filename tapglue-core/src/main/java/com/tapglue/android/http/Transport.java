@@ -0,0 +1,111 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.http;
+
+import com.tapglue.android.Configuration;
+import com.tapglue.android.platform.DeviceInfo;
+import com.tapglue.android.platform.JvmDeviceInfo;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * State shared by every client created for one {@link Configuration}. Clients are recreated
+ * whenever the session changes, the transport outlives them. All clients are derived from one
+ * base client so they share its connection pool and HTTP/2 connections are multiplexed across
+ * all of them.
+ */
+public class Transport {
+
+    private final HttpMetrics metrics = new HttpMetrics();
+    private final OkHttpClient baseClient = new OkHttpClient.Builder()
+        .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+        .build();
+    private final RetryBudget retryBudget;
+    private final Map<EndpointGroup, CircuitBreaker> circuitBreakers = new EnumMap<>(EndpointGroup.class);
+    private final DeviceInfo deviceInfo;
+
+    /**
+     * Describes the device with the properties of the JVM.
+     */
+    public Transport(Configuration configuration) {
+        this(configuration, new JvmDeviceInfo());
+    }
+
+    /**
+     * @param deviceInfo device described in the headers of every request
+     */
+    public Transport(Configuration configuration, DeviceInfo deviceInfo) {
+        this.deviceInfo = deviceInfo;
+        retryBudget = new RetryBudget(configuration.getRetryBudget());
+        for(EndpointGroup group: EndpointGroup.values()) {
+            circuitBreakers.put(group, new CircuitBreaker(configuration.getCircuitBreakerWindow(),
+                configuration.getCircuitBreakerFailureRate(),
+                configuration.getCircuitBreakerOpenDuration()));
+        }
+    }
+
+    public HttpMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Resolves and connects to the host of the base url in the background, so the first API call
+     * finds an open connection in the pool.
+     * @param baseUrl base url of the API
+     */
+    public void warmUp(String baseUrl) {
+        Request request = new Request.Builder().url(baseUrl).head().build();
+        baseClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                metrics.increment(HttpMetrics.WARM_UP_FAILURES);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                response.body().close();
+                metrics.increment(HttpMetrics.WARM_UPS);
+            }
+        });
+    }
+
+    OkHttpClient.Builder newClientBuilder() {
+        return baseClient.newBuilder();
+    }
+
+    DeviceInfo getDeviceInfo() {
+        return deviceInfo;
+    }
+
+    RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    CircuitBreaker getCircuitBreaker(EndpointGroup group) {
+        return circuitBreakers.get(group);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package com.tapglue.android.http;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Action1;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.subjects.BehaviorSubject;
+import rx.subjects.PublishSubject;
+import rx.subjects.Subject;
+
+/**
+ * Polls the unread count of the me feed for badges. The interval doubles while the count stays
+ * the same or polling fails, up to the maximum interval, and drops back to the minimum interval
+ * when the count changes or {@link #activityDetected()} is called. Polling pauses while the app
+ * is in the background and all subscribers share one poller.
+ */
+public class UnreadCountWatcher {
+
+    private final Network network;
+    private final long minInterval;
+    private final long maxInterval;
+    private final Scheduler scheduler;
+    private final AtomicLong interval;
+    private final AtomicLong lastCount = new AtomicLong(-1);
+    private final Subject<Boolean, Boolean> foreground = BehaviorSubject.create(true).toSerialized();
+    private final Subject<Long, Long> wakeUps = PublishSubject.<Long>create().toSerialized();
+    private final Observable<Long> counts;
+
+    /**
+     * @param minInterval interval in milliseconds right after the count changed
+     * @param maxInterval interval in milliseconds the polling backs off to
+     * @param scheduler scheduler the intervals are timed and the polls are run on
+     */
+    public UnreadCountWatcher(Network network, long minInterval, long maxInterval, Scheduler scheduler) {
+        this.network = network;
+        this.minInterval = minInterval;
+        this.maxInterval = Math.max(minInterval, maxInterval);
+        this.scheduler = scheduler;
+        this.interval = new AtomicLong(minInterval);
+        counts = foreground.distinctUntilChanged().switchMap(new Func1<Boolean, Observable<Long>>() {
+            @Override
+            public Observable<Long> call(Boolean active) {
+                if(!active) {
+                    return Observable.empty();
+                }
+                return poll().concatWith(Observable.defer(new Cycle()).repeat());
+            }
+        }).distinctUntilChanged().replay(1).refCount();
+    }
+
+    /**
+     * @return the unread count, emitted whenever it changed. Polling starts with the first
+     * subscriber and stops when the last one unsubscribes.
+     */
+    public Observable<Long> watch() {
+        return counts;
+    }
+
+    /**
+     * Polls right away and resets the interval to the minimum, e.g. after the user created
+     * content or opened the feed.
+     */
+    public void activityDetected() {
+        interval.set(minInterval);
+        wakeUps.onNext(0L);
+    }
+
+    /**
+     * Pauses polling while the app is in the background, it continues with a poll on return.
+     */
+    public void setForeground(boolean inForeground) {
+        foreground.onNext(inForeground);
+    }
+
+    long getInterval() {
+        return interval.get();
+    }
+
+    private Observable<Long> poll() {
+        return network.retrieveUnreadCount()
+            .subscribeOn(scheduler)
+            .doOnNext(new Action1<Long>() {
+                @Override
+                public void call(Long count) {
+                    if(lastCount.getAndSet(count) == count) {
+                        backOff();
+                    } else {
+                        interval.set(minInterval);
+                    }
+                }
+            })
+            .doOnError(new Action1<Throwable>() {
+                @Override
+                public void call(Throwable error) {
+                    backOff();
+                }
+            })
+            .onErrorResumeNext(Observable.<Long>empty());
+    }
+
+    private void backOff() {
+        interval.set(Math.min(interval.get() * 2, maxInterval));
+    }
+
+    private class Cycle implements Func0<Observable<Long>> {
+        @Override
+        public Observable<Long> call() {
+            return Observable.timer(interval.get(), TimeUnit.MILLISECONDS, scheduler)
+                .ambWith(wakeUps).take(1)
+                .concatMap(new Func1<Long, Observable<Long>>() {
+                    @Override
+                    public Observable<Long> call(Long tick) {
+                        return poll();
+                    }
+                });
+        }
+    }
+}
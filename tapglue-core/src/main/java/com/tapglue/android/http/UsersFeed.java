@@ -7,6 +7,8 @@ import com.tapglue.android.entities.User;
 import com.google.gson.annotations.SerializedName;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 class UsersFeed extends FlattenableFeed<List<User>> {
@@ -25,6 +27,14 @@ class UsersFeed extends FlattenableFeed<List<User>> {
         return getUsers();
      }
 
+     @Override
+     Collection<User> embeddedUsers() {
+        if(getUsers() == null) {
+            return Collections.emptyList();
+        }
+        return getUsers();
+     }
+
      @Override
      FlattenableFeed<List<User>> constructDefaultFeed() {
          UsersFeed feed = new UsersFeed();
@@ -0,0 +1,199 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.http;
+
+import com.tapglue.android.internal.MutationLog;
+import com.tapglue.android.internal.PendingMutation;
+import com.tapglue.android.internal.RetryWithBackoff;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import rx.Observable;
+import rx.Observer;
+import rx.Scheduler;
+import rx.functions.Action0;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.schedulers.Schedulers;
+import rx.subjects.AsyncSubject;
+import rx.subjects.PublishSubject;
+import rx.subjects.Subject;
+
+/**
+ * Sends locally applied mutations to the API one after another. Every mutation is written to the
+ * {@link MutationLog} before it is sent and removed once it was accepted or permanently rejected.
+ * Connection problems, open circuit breakers and the responses {@link IsTransientError} accepts
+ * are retried with backoff. When the retries are exhausted the mutation stays in the log and is
+ * sent again on the next {@link #replay()}. Other errors returned by the API are permanent and
+ * roll the local change back.
+ */
+public class WriteBehindQueue {
+
+    private static final long MAX_DELAY = 60000;
+
+    private final Network network;
+    private final MutationLog log;
+    private final int maxAttempts;
+    private final long baseDelay;
+    private final Scheduler scheduler;
+    private final Subject<Job, Job> jobs = PublishSubject.<Job>create().toSerialized();
+    private final Set<PendingMutation> queued = new HashSet<>();
+    private final Map<PendingMutation, Job> parked = new LinkedHashMap<>();
+    private final IsTransientError isTransient = new IsTransientError();
+
+    WriteBehindQueue(Network network, MutationLog log, int maxAttempts, long baseDelay) {
+        this(network, log, maxAttempts, baseDelay, Schedulers.io());
+    }
+
+    WriteBehindQueue(Network network, MutationLog log, int maxAttempts, long baseDelay,
+                     Scheduler scheduler) {
+        this.network = network;
+        this.log = log;
+        this.maxAttempts = maxAttempts;
+        this.baseDelay = baseDelay;
+        this.scheduler = scheduler;
+        jobs.onBackpressureBuffer().concatMap(new Func1<Job, Observable<Object>>() {
+            @Override
+            public Observable<Object> call(Job job) {
+                return execute(job);
+            }
+        }).subscribe();
+    }
+
+    /**
+     * @param mutation mutation that was already applied locally
+     * @param rollback reverts the local change when the API rejects the mutation
+     * @return completes once the API accepted the mutation, fails after the rollback when the API
+     * rejected it
+     */
+    public Observable<Void> enqueue(PendingMutation mutation, Action0 rollback) {
+        Job job = new Job(mutation, rollback);
+        synchronized(queued) {
+            queued.add(mutation);
+        }
+        log.add(mutation);
+        jobs.onNext(job);
+        return job.result;
+    }
+
+    /**
+     * Sends the logged mutations again, e.g. after a reconnect. Mutations that ran out of retries
+     * in this session keep their rollback. Mutations left over from a previous session are sent
+     * without one, the objects they were applied to are gone. Mutations already queued are
+     * skipped, so a mutation enqueued before the first replay is not sent twice.
+     */
+    public void replay() {
+        List<Job> replayed = new ArrayList<>();
+        synchronized(queued) {
+            for(PendingMutation mutation: log.getAll()) {
+                if(!queued.add(mutation)) {
+                    continue;
+                }
+                Job job = parked.remove(mutation);
+                replayed.add(job != null ? job : new Job(mutation, null));
+            }
+        }
+        for(Job job: replayed) {
+            jobs.onNext(job);
+        }
+    }
+
+    private Observable<Object> execute(final Job job) {
+        return Observable.defer(new Send(job.mutation))
+            .retryWhen(new RetryWithBackoff(maxAttempts, baseDelay, MAX_DELAY, isTransient, scheduler))
+            .subscribeOn(scheduler)
+            .ignoreElements()
+            .doOnEach(new Observer<Object>() {
+                @Override
+                public void onCompleted() {
+                    log.remove(job.mutation);
+                    settle(job, false);
+                    job.result.onCompleted();
+                }
+
+                @Override
+                public void onError(Throwable e) {
+                    if(isTransient.call(e)) {
+                        settle(job, true);
+                        return;
+                    }
+                    log.remove(job.mutation);
+                    settle(job, false);
+                    if(job.rollback != null) {
+                        job.rollback.call();
+                    }
+                    job.result.onError(e);
+                }
+
+                @Override
+                public void onNext(Object o) {
+                }
+            })
+            .onErrorResumeNext(Observable.empty());
+    }
+
+    private void settle(Job job, boolean park) {
+        synchronized(queued) {
+            queued.remove(job.mutation);
+            if(park) {
+                parked.put(job.mutation, job);
+            }
+        }
+    }
+
+    private Observable<?> send(PendingMutation mutation) {
+        switch(mutation.getType()) {
+            case LIKE:
+                return network.createLike(mutation.getPostId());
+            case REACTION:
+                return network.createReaction(mutation.getPostId(), mutation.getReaction());
+            case COMMENT:
+                return network.createComment(mutation.getPostId(), mutation.getComment());
+            default:
+                return network.createConnection(mutation.getConnection());
+        }
+    }
+
+    private class Send implements Func0<Observable<Object>> {
+        private final PendingMutation mutation;
+
+        Send(PendingMutation mutation) {
+            this.mutation = mutation;
+        }
+
+        @Override
+        public Observable<Object> call() {
+            return send(mutation).cast(Object.class);
+        }
+    }
+
+    private static class Job {
+        final PendingMutation mutation;
+        final Action0 rollback;
+        final AsyncSubject<Void> result = AsyncSubject.create();
+
+        Job(PendingMutation mutation, Action0 rollback) {
+            this.mutation = mutation;
+            this.rollback = rollback;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package com.tapglue.android.images;
+
+import com.tapglue.android.entities.Event;
+import com.tapglue.android.entities.User;
+
+import java.util.Collection;
+
+/**
+ * Picks the variant of an image to download for a view of a given pixel size: the smallest one
+ * that covers the size, or the largest one when none does. Variants without a reported size are
+ * only picked when no variant has one.
+ */
+public class ImageSelector {
+
+    private ImageSelector() {}
+
+    /**
+     * @return the best fitting variant, null when there are none
+     */
+    public static ImageVariant bestFit(Collection<ImageVariant> variants, int width, int height) {
+        ImageVariant smallestCovering = null;
+        ImageVariant largest = null;
+        ImageVariant unsized = null;
+        for(ImageVariant variant: variants) {
+            if(!variant.hasSize()) {
+                if(unsized == null) {
+                    unsized = variant;
+                }
+                continue;
+            }
+            if(variant.covers(width, height)
+                && (smallestCovering == null || variant.pixels() < smallestCovering.pixels())) {
+                smallestCovering = variant;
+            }
+            if(largest == null || variant.pixels() > largest.pixels()) {
+                largest = variant;
+            }
+        }
+        if(smallestCovering != null) {
+            return smallestCovering;
+        }
+        return largest != null ? largest : unsized;
+    }
+
+    /**
+     * @return the best fitting image of the user, null when the user has none
+     */
+    public static ImageVariant bestFit(User user, int width, int height) {
+        if(user == null) {
+            return null;
+        }
+        return bestFit(ImageVariant.fromUserImages(user.getImages()), width, height);
+    }
+
+    /**
+     * @return the best fitting image of the event, null when the event has none
+     */
+    public static ImageVariant bestFit(Event event, int width, int height) {
+        if(event == null) {
+            return null;
+        }
+        return bestFit(ImageVariant.fromEventImages(event.getImages()), width, height);
+    }
+}
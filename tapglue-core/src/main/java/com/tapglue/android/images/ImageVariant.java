@@ -0,0 +1,88 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package com.tapglue.android.images;
+
+import com.tapglue.android.entities.Event;
+import com.tapglue.android.entities.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One size of an image. Width and height are 0 when the API did not report them.
+ */
+public class ImageVariant {
+    private final String url;
+    private final int width;
+    private final int height;
+
+    public ImageVariant(String url, int width, int height) {
+        this.url = url;
+        this.width = width;
+        this.height = height;
+    }
+
+    public static List<ImageVariant> fromUserImages(Map<String, User.Image> images) {
+        List<ImageVariant> variants = new ArrayList<>();
+        if(images != null) {
+            for(User.Image image: images.values()) {
+                if(image != null && image.getUrl() != null) {
+                    variants.add(new ImageVariant(image.getUrl(), image.getWidth(), image.getHeight()));
+                }
+            }
+        }
+        return variants;
+    }
+
+    public static List<ImageVariant> fromEventImages(Map<String, Event.Image> images) {
+        List<ImageVariant> variants = new ArrayList<>();
+        if(images != null) {
+            for(Event.Image image: images.values()) {
+                if(image != null && image.getUrl() != null) {
+                    variants.add(new ImageVariant(image.getUrl(), image.getWidth(), image.getHeight()));
+                }
+            }
+        }
+        return variants;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    boolean hasSize() {
+        return width > 0 && height > 0;
+    }
+
+    boolean covers(int targetWidth, int targetHeight) {
+        return width >= targetWidth && height >= targetHeight;
+    }
+
+    long pixels() {
+        return (long) width * height;
+    }
+}
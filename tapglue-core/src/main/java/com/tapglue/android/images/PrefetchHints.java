@@ -0,0 +1,97 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package com.tapglue.android.images;
+
+import com.tapglue.android.entities.Event;
+import com.tapglue.android.entities.Post;
+import com.tapglue.android.entities.User;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lists the image urls of the feed rows about to scroll into view, in the order they will be
+ * shown, so an image loader can warm its cache ahead of them. Every url is listed once.
+ */
+public class PrefetchHints {
+
+    private PrefetchHints() {}
+
+    /**
+     * @param firstRow position of the first row to prefetch, usually the one after the last
+     *                 visible row
+     * @param rows amount of rows to prefetch
+     * @param avatarSize pixel size avatars are shown at
+     * @return avatar of the author and url attachments of every post
+     */
+    public static List<String> forPosts(List<Post> posts, int firstRow, int rows, int avatarSize) {
+        Set<String> urls = new LinkedHashSet<>();
+        for(Post post: window(posts, firstRow, rows)) {
+            addAvatar(urls, post.getUser(), avatarSize);
+            if(post.getAttachments() == null) {
+                continue;
+            }
+            for(Post.Attachment attachment: post.getAttachments()) {
+                if(attachment.getType() == Post.Attachment.Type.URL && attachment.getContents() != null) {
+                    urls.addAll(attachment.getContents().values());
+                }
+            }
+        }
+        urls.remove(null);
+        return new ArrayList<>(urls);
+    }
+
+    /**
+     * @param firstRow position of the first row to prefetch, usually the one after the last
+     *                 visible row
+     * @param rows amount of rows to prefetch
+     * @param avatarSize pixel size avatars are shown at
+     * @param imageWidth pixel width event images are shown at
+     * @param imageHeight pixel height event images are shown at
+     * @return avatar of the user and best fitting image of every event
+     */
+    public static List<String> forEvents(List<Event> events, int firstRow, int rows, int avatarSize,
+                                         int imageWidth, int imageHeight) {
+        Set<String> urls = new LinkedHashSet<>();
+        for(Event event: window(events, firstRow, rows)) {
+            addAvatar(urls, event.getUser(), avatarSize);
+            ImageVariant image = ImageSelector.bestFit(event, imageWidth, imageHeight);
+            if(image != null) {
+                urls.add(image.getUrl());
+            }
+        }
+        return new ArrayList<>(urls);
+    }
+
+    private static void addAvatar(Set<String> urls, User user, int avatarSize) {
+        ImageVariant avatar = ImageSelector.bestFit(user, avatarSize, avatarSize);
+        if(avatar != null) {
+            urls.add(avatar.getUrl());
+        }
+    }
+
+    private static <T> List<T> window(List<T> rows, int firstRow, int count) {
+        if(rows == null || firstRow >= rows.size() || count <= 0) {
+            return new ArrayList<>();
+        }
+        int from = Math.max(0, firstRow);
+        return rows.subList(from, Math.min(rows.size(), from + count));
+    }
+}
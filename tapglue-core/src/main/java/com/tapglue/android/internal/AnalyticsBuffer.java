@@ -0,0 +1,190 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.internal;
+
+import com.tapglue.android.entities.AnalyticsEvent;
+import com.tapglue.android.platform.Storage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffer of analytics events that were not sent yet. Events are kept in a fixed size ring in
+ * memory, when it is full its content is moved to an overflow list in memory. Adding events never
+ * touches the disk, {@link #spill()} moves the overflow to disk in one write and is called from the
+ * flush path. Events on disk are older than the ones in memory and are taken first. Once the
+ * overflow or the disk hold {@link #MAX_OVERFLOW} events the oldest ones are dropped.
+ *
+ * <p>The ring and overflow are guarded by the buffer itself, the disk by a separate lock, so
+ * recording an event does not wait for a flush reading or writing the disk.</p>
+ */
+public class AnalyticsBuffer {
+    private static final String ANALYTICS_OVERFLOW = "analyticsOverflow";
+    static final int MAX_OVERFLOW = 1000;
+    private static final int UNKNOWN = -1;
+
+    Store<Entries> store;
+    private final Object diskLock = new Object();
+    private final AnalyticsEvent[] ring;
+    private int head;
+    private int size;
+    private List<AnalyticsEvent> overflow = new ArrayList<>();
+    private volatile int stored = UNKNOWN;
+
+    /**
+     * @param capacity amount of events kept in memory
+     */
+    public AnalyticsBuffer(Storage storage, int capacity) {
+        store = new Store<>(storage.open(ANALYTICS_OVERFLOW), Entries.class);
+        ring = new AnalyticsEvent[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Only touches memory.
+     * @return amount of old events dropped to make room
+     */
+    public synchronized int add(AnalyticsEvent event) {
+        int dropped = 0;
+        if(size == ring.length) {
+            dropped = overflowRing();
+        }
+        ring[(head + size) % ring.length] = event;
+        size++;
+        return dropped;
+    }
+
+    /**
+     * Moves the events that overflowed the ring to disk.
+     * @return amount of old events dropped to make room
+     */
+    public int spill() {
+        synchronized(diskLock) {
+            List<AnalyticsEvent> events;
+            synchronized(this) {
+                if(overflow.isEmpty()) {
+                    return 0;
+                }
+                events = overflow;
+                overflow = new ArrayList<>();
+            }
+            Entries entries = load();
+            entries.events.addAll(events);
+            int dropped = trim(entries);
+            store.store().call(entries);
+            stored = entries.events.size();
+            return dropped;
+        }
+    }
+
+    /**
+     * Removes the oldest events from the buffer.
+     * @param max maximum amount of events returned
+     */
+    public List<AnalyticsEvent> take(int max) {
+        List<AnalyticsEvent> batch = new ArrayList<>();
+        synchronized(diskLock) {
+            Entries entries = load();
+            if(max > 0 && !entries.events.isEmpty()) {
+                List<AnalyticsEvent> oldest = entries.events.subList(0, Math.min(max, entries.events.size()));
+                batch.addAll(oldest);
+                oldest.clear();
+                store.store().call(entries);
+            }
+            stored = entries.events.size();
+        }
+        synchronized(this) {
+            if(batch.size() < max && !overflow.isEmpty()) {
+                List<AnalyticsEvent> oldest = overflow.subList(0, Math.min(max - batch.size(), overflow.size()));
+                batch.addAll(oldest);
+                oldest.clear();
+            }
+            while(batch.size() < max && size > 0) {
+                batch.add(ring[head]);
+                ring[head] = null;
+                head = (head + 1) % ring.length;
+                size--;
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Puts events that could not be sent back in front of the buffer.
+     * @return amount of old events dropped to make room
+     */
+    public int restore(List<AnalyticsEvent> events) {
+        synchronized(diskLock) {
+            Entries entries = load();
+            entries.events.addAll(0, events);
+            int dropped = trim(entries);
+            store.store().call(entries);
+            stored = entries.events.size();
+            return dropped;
+        }
+    }
+
+    /**
+     * Does not read the disk. Events left on disk by a previous session are only counted once
+     * the buffer touched the disk in this session.
+     */
+    public synchronized int size() {
+        return size + overflow.size() + Math.max(stored, 0);
+    }
+
+    /**
+     * Moves the ring to the overflow list, dropping its oldest events once it holds more than
+     * {@link #MAX_OVERFLOW}. Older events on disk are trimmed by the next spill.
+     */
+    private int overflowRing() {
+        for(int i = 0; i < size; i++) {
+            int index = (head + i) % ring.length;
+            overflow.add(ring[index]);
+            ring[index] = null;
+        }
+        head = 0;
+        size = 0;
+        return trim(overflow);
+    }
+
+    private int trim(Entries entries) {
+        return trim(entries.events);
+    }
+
+    private static int trim(List<AnalyticsEvent> events) {
+        int excess = events.size() - MAX_OVERFLOW;
+        if(excess <= 0) {
+            return 0;
+        }
+        events.subList(0, excess).clear();
+        return excess;
+    }
+
+    private Entries load() {
+        Entries entries = store.get().toBlocking().firstOrDefault(null);
+        if(entries == null) {
+            entries = new Entries();
+        }
+        if(entries.events == null) {
+            entries.events = new ArrayList<>();
+        }
+        return entries;
+    }
+
+    static class Entries {
+        List<AnalyticsEvent> events;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.internal;
+
+/**
+ * Everything a device registration for push notifications depends on. The device only has to be
+ * registered again when one of these changes.
+ */
+public class DeviceRegistration {
+    private final String token;
+    private final String sessionToken;
+    private final String language;
+    private final String uuid;
+
+    public DeviceRegistration(String token, String sessionToken, String language, String uuid) {
+        this.token = token;
+        this.sessionToken = sessionToken;
+        this.language = language;
+        this.uuid = uuid;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public String getSessionToken() {
+        return sessionToken;
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) {
+            return true;
+        }
+        if(o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        DeviceRegistration that = (DeviceRegistration) o;
+        return equal(token, that.token) && equal(sessionToken, that.sessionToken)
+            && equal(language, that.language) && equal(uuid, that.uuid);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = token != null ? token.hashCode() : 0;
+        result = 31 * result + (sessionToken != null ? sessionToken.hashCode() : 0);
+        result = 31 * result + (language != null ? language.hashCode() : 0);
+        result = 31 * result + (uuid != null ? uuid.hashCode() : 0);
+        return result;
+    }
+
+    private static boolean equal(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.internal;
+
+import com.tapglue.android.platform.Storage;
+
+import rx.Observable;
+
+/**
+ * Persists the last {@link DeviceRegistration} the API accepted.
+ */
+public class DeviceRegistrationStore {
+    private static final String DEVICE_REGISTRATION = "deviceRegistration";
+    Store<DeviceRegistration> store;
+
+    public DeviceRegistrationStore(Storage storage) {
+        store = new Store<>(storage.open(DEVICE_REGISTRATION), DeviceRegistration.class);
+    }
+
+    public void store(DeviceRegistration registration) {
+        store.store().call(registration);
+    }
+
+    public Observable<DeviceRegistration> get() {
+        return store.get();
+    }
+
+    public void clear() {
+        store.clear().call();
+    }
+}
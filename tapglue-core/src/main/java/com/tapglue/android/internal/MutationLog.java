@@ -0,0 +1,68 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.internal;
+
+import com.tapglue.android.platform.Storage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Durable log of {@link PendingMutation pending mutations}. Mutations survive process death and
+ * are replayed on the next start.
+ */
+public class MutationLog {
+    private static final String MUTATION_LOG = "mutationLog";
+
+    Store<Entries> store;
+
+    public MutationLog(Storage storage) {
+        store = new Store<>(storage.open(MUTATION_LOG), Entries.class);
+    }
+
+    public synchronized void add(PendingMutation mutation) {
+        Entries entries = load();
+        entries.mutations.add(mutation);
+        store.store().call(entries);
+    }
+
+    public synchronized void remove(PendingMutation mutation) {
+        Entries entries = load();
+        if(entries.mutations.remove(mutation)) {
+            store.store().call(entries);
+        }
+    }
+
+    public synchronized List<PendingMutation> getAll() {
+        return new ArrayList<>(load().mutations);
+    }
+
+    private Entries load() {
+        Entries entries = store.get().toBlocking().firstOrDefault(null);
+        if(entries == null) {
+            entries = new Entries();
+        }
+        if(entries.mutations == null) {
+            entries.mutations = new ArrayList<>();
+        }
+        return entries;
+    }
+
+    static class Entries {
+        List<PendingMutation> mutations;
+    }
+}
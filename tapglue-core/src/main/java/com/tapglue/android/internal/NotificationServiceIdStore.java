@@ -1,7 +1,6 @@
 package com.tapglue.android.internal;
 
-import android.content.Context;
-import android.content.SharedPreferences;
+import com.tapglue.android.platform.Storage;
 
 import rx.Observable;
 
@@ -9,9 +8,8 @@ public class NotificationServiceIdStore {
     private static final String NOTIFICATION_ID = "notificationServiceId";
     Store<String> store;
 
-    public NotificationServiceIdStore(Context context) {
-        SharedPreferences prefs = context.getSharedPreferences(NOTIFICATION_ID, Context.MODE_PRIVATE);
-        store = new Store<>(prefs, String.class);
+    public NotificationServiceIdStore(Storage storage) {
+        store = new Store<>(storage.open(NOTIFICATION_ID), String.class);
     }
 
     public void store(String id) {
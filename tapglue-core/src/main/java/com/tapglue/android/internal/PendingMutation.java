@@ -0,0 +1,110 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.internal;
+
+import com.tapglue.android.entities.Comment;
+import com.tapglue.android.entities.Connection;
+import com.tapglue.android.entities.Reaction;
+
+import java.util.UUID;
+
+/**
+ * A write that was applied locally and still has to be sent to the API.
+ */
+public class PendingMutation {
+
+    public enum Type {
+        LIKE, REACTION, COMMENT, CONNECTION
+    }
+
+    private String id;
+    private Type type;
+    private String postId;
+    private Reaction reaction;
+    private Comment comment;
+    private Connection connection;
+
+    private PendingMutation(Type type) {
+        this.id = UUID.randomUUID().toString();
+        this.type = type;
+    }
+
+    public static PendingMutation like(String postId) {
+        PendingMutation mutation = new PendingMutation(Type.LIKE);
+        mutation.postId = postId;
+        return mutation;
+    }
+
+    public static PendingMutation reaction(String postId, Reaction reaction) {
+        PendingMutation mutation = new PendingMutation(Type.REACTION);
+        mutation.postId = postId;
+        mutation.reaction = reaction;
+        return mutation;
+    }
+
+    public static PendingMutation comment(String postId, Comment comment) {
+        PendingMutation mutation = new PendingMutation(Type.COMMENT);
+        mutation.postId = postId;
+        mutation.comment = comment;
+        return mutation;
+    }
+
+    public static PendingMutation connection(Connection connection) {
+        PendingMutation mutation = new PendingMutation(Type.CONNECTION);
+        mutation.connection = connection;
+        return mutation;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getPostId() {
+        return postId;
+    }
+
+    public Reaction getReaction() {
+        return reaction;
+    }
+
+    public Comment getComment() {
+        return comment;
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        PendingMutation mutation = (PendingMutation) o;
+
+        return id.equals(mutation.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Func1;
+import rx.schedulers.Schedulers;
+
+/**
+ * Retry strategy for {@link rx.Observable#retryWhen(Func1) retryWhen}. Errors accepted by the
+ * filter are retried with exponentially growing delays until the maximum amount of attempts is
+ * reached, all other errors are passed on right away.
+ */
+public class RetryWithBackoff implements Func1<Observable<? extends Throwable>, Observable<?>> {
+
+    private final int maxAttempts;
+    private final long baseDelay;
+    private final long maxDelay;
+    private final Func1<Throwable, Boolean> retryable;
+    private final Scheduler scheduler;
+
+    /**
+     * @param maxAttempts maximum amount of attempts including the first one
+     * @param baseDelay delay before the first retry in milliseconds, doubled with every retry
+     * @param maxDelay upper bound of the delay in milliseconds
+     * @param retryable decides which errors are retried
+     */
+    public RetryWithBackoff(int maxAttempts, long baseDelay, long maxDelay,
+                            Func1<Throwable, Boolean> retryable) {
+        this(maxAttempts, baseDelay, maxDelay, retryable, Schedulers.computation());
+    }
+
+    public RetryWithBackoff(int maxAttempts, long baseDelay, long maxDelay,
+                            Func1<Throwable, Boolean> retryable, Scheduler scheduler) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        this.retryable = retryable;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Observable<?> call(Observable<? extends Throwable> errors) {
+        return errors.flatMap(new Func1<Throwable, Observable<Long>>() {
+            private int attempt = 1;
+
+            @Override
+            public Observable<Long> call(Throwable error) {
+                if(attempt >= maxAttempts || !retryable.call(error)) {
+                    return Observable.error(error);
+                }
+                long delay = delayFor(attempt++);
+                return Observable.timer(delay, TimeUnit.MILLISECONDS, scheduler);
+            }
+        });
+    }
+
+    long delayFor(int attempt) {
+        long delay = baseDelay << Math.min(attempt - 1, 30);
+        return delay < 0 || delay > maxDelay ? maxDelay : delay;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package com.tapglue.android.internal;
+
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.tapglue.android.entities.User;
+import com.tapglue.android.platform.KeyValueStore;
+import com.tapglue.android.platform.Storage;
+
+import rx.Observable;
+import rx.functions.Action0;
+import rx.functions.Func1;
+
+/**
+ * The persisted session of the current user. The session token and the profile are kept in
+ * separate stores, so storing a new token only writes the token. The profile is only written
+ * when its content hash differs from the hash stored next to it, which also holds for records
+ * sharing the storage. Records written by earlier versions, which kept the whole user in both
+ * stores, are still read and are replaced by the first write.
+ */
+public class SessionRecord {
+    private static final String TOKEN_STORE = "sessionToken";
+    private static final String PROFILE_STORE = "user";
+    private static final String TOKEN = "token";
+    private static final String PROFILE = "profile";
+    private static final String PROFILE_HASH = "profileHash";
+    private static final String LEGACY = "object";
+    private static final String SESSION_TOKEN = "session_token";
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final Gson PROFILE_GSON = new GsonBuilder()
+        .setExclusionStrategies(new SessionTokenExclusion()).create();
+
+    KeyValueStore tokenValues;
+    KeyValueStore profileValues;
+    private User user;
+
+    public SessionRecord(Storage storage) {
+        tokenValues = storage.open(TOKEN_STORE);
+        profileValues = storage.open(PROFILE_STORE);
+    }
+
+    Func1<User, User> store() {
+        return new Func1<User, User>() {
+            @Override
+            public User call(User user) {
+                write(user);
+                return user;
+            }
+        };
+    }
+
+    synchronized Observable<User> get() {
+        if(user == null) {
+            user = read();
+        }
+        return user == null ? Observable.<User>empty() : Observable.just(user);
+    }
+
+    Action0 clear() {
+        return new Action0() {
+            @Override
+            public void call() {
+                synchronized(SessionRecord.this) {
+                    user = null;
+                    tokenValues.clear();
+                    profileValues.clear();
+                }
+            }
+        };
+    }
+
+    synchronized boolean isEmpty() {
+        user = read();
+        return user == null;
+    }
+
+    private synchronized void write(User user) {
+        this.user = user;
+        String storedToken = storedToken();
+        boolean legacyToken = dropLegacy(tokenValues);
+        String token = user.getSessionToken() == null ? storedToken : user.getSessionToken();
+        if(token != null && (legacyToken || !token.equals(storedToken))) {
+            tokenValues.putString(TOKEN, token);
+        }
+
+        String profile = PROFILE_GSON.toJson(user);
+        String hash = hash(profile);
+        boolean legacyProfile = dropLegacy(profileValues);
+        if(legacyProfile || !hash.equals(profileValues.getString(PROFILE_HASH))) {
+            profileValues.putString(PROFILE, profile);
+            profileValues.putString(PROFILE_HASH, hash);
+        }
+    }
+
+    private User read() {
+        String token = storedToken();
+        String profile = storedProfile();
+        if(token == null && profile == null) {
+            return null;
+        }
+        JsonObject json = profile == null ? new JsonObject()
+            : new JsonParser().parse(profile).getAsJsonObject();
+        if(token != null) {
+            json.addProperty(SESSION_TOKEN, token);
+        }
+        return new Gson().fromJson(json, User.class);
+    }
+
+    private String storedToken() {
+        String token = tokenValues.getString(TOKEN);
+        if(token == null) {
+            User legacy = new Gson().fromJson(tokenValues.getString(LEGACY), User.class);
+            token = legacy == null ? null : legacy.getSessionToken();
+        }
+        return token;
+    }
+
+    private String storedProfile() {
+        String profile = profileValues.getString(PROFILE);
+        if(profile == null) {
+            profile = profileValues.getString(LEGACY);
+        }
+        return profile;
+    }
+
+    /**
+     * @return true if the store held a legacy record, which is removed then
+     */
+    private static boolean dropLegacy(KeyValueStore values) {
+        if(values.getString(LEGACY) == null) {
+            return false;
+        }
+        values.clear();
+        return true;
+    }
+
+    /**
+     * 64 bit FNV-1a over the characters of the profile.
+     */
+    static String hash(String value) {
+        long hash = FNV_OFFSET;
+        for(int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return Long.toHexString(hash);
+    }
+
+    private static class SessionTokenExclusion implements ExclusionStrategy {
+        @Override
+        public boolean shouldSkipField(FieldAttributes field) {
+            return field.getDeclaringClass() == User.class && field.getName().equals("sessionToken");
+        }
+
+        @Override
+        public boolean shouldSkipClass(Class<?> cls) {
+            return false;
+        }
+    }
+}
@@ -16,11 +16,8 @@
 
 package com.tapglue.android.internal;
 
-import android.content.Context;
-import android.content.SharedPreferences;
-
 import com.tapglue.android.entities.User;
-import com.tapglue.android.internal.Store;
+import com.tapglue.android.platform.Storage;
 
 import rx.Observable;
 import rx.functions.Action0;
@@ -28,11 +25,17 @@ import rx.functions.Func1;
 
 public class SessionStore {
 
-    Store<User> store;
+    SessionRecord store;
+
+    public SessionStore(Storage storage) {
+        this(new SessionRecord(storage));
+    }
 
-    public SessionStore(Context context) {
-        SharedPreferences prefs = context.getSharedPreferences("sessionToken", Context.MODE_PRIVATE);
-        store = new Store<>(prefs, User.class);
+    /**
+     * @param record shared with the other stores of the session, so they see the same user
+     */
+    public SessionStore(SessionRecord record) {
+        store = record;
     }
 
     public Observable<User> get() {
@@ -0,0 +1,151 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.internal;
+
+import com.tapglue.android.entities.User;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import rx.functions.Action0;
+
+/**
+ * Connection id sets of the current user. Membership checks are hash lookups, so filtering a list
+ * of users (e.g. "friends who liked this") is linear in the size of that list.
+ */
+public class SocialGraph {
+
+    public enum Relation {
+        FOLLOWING, FOLLOWER, FRIEND
+    }
+
+    private final Set<String> followings = new HashSet<>();
+    private final Set<String> followers = new HashSet<>();
+    private final Set<String> friends = new HashSet<>();
+    private volatile boolean complete = false;
+
+    public synchronized boolean contains(Relation relation, String userId) {
+        return userId != null && set(relation).contains(userId);
+    }
+
+    public boolean isFollowing(String userId) {
+        return contains(Relation.FOLLOWING, userId);
+    }
+
+    public boolean isFollower(String userId) {
+        return contains(Relation.FOLLOWER, userId);
+    }
+
+    public boolean isFriend(String userId) {
+        return contains(Relation.FRIEND, userId);
+    }
+
+    /**
+     * @param relation relation to the current user
+     * @param users users to filter, e.g. the users who liked a post
+     * @return the users that have the relation to the current user, in their original order
+     */
+    public synchronized List<User> filter(Relation relation, Collection<User> users) {
+        List<User> result = new ArrayList<>();
+        if(users == null) {
+            return result;
+        }
+        Set<String> ids = set(relation);
+        for(User user: users) {
+            if(user != null && ids.contains(user.getId())) {
+                result.add(user);
+            }
+        }
+        return result;
+    }
+
+    public synchronized int size(Relation relation) {
+        return set(relation).size();
+    }
+
+    /**
+     * @return true once every connection page was loaded, before that the sets only contain the
+     * connections seen so far.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public synchronized void add(Relation relation, String userId) {
+        if(userId != null) {
+            set(relation).add(userId);
+        }
+    }
+
+    public synchronized void addAll(Relation relation, Collection<User> users) {
+        if(users == null) {
+            return;
+        }
+        Set<String> ids = set(relation);
+        for(User user: users) {
+            if(user != null && user.getId() != null) {
+                ids.add(user.getId());
+            }
+        }
+    }
+
+    public synchronized void remove(Relation relation, String userId) {
+        set(relation).remove(userId);
+    }
+
+    /**
+     * Replaces all sets with a fully loaded graph.
+     */
+    public synchronized void replace(Collection<User> followings, Collection<User> followers,
+                                     Collection<User> friends) {
+        this.followings.clear();
+        this.followers.clear();
+        this.friends.clear();
+        addAll(Relation.FOLLOWING, followings);
+        addAll(Relation.FOLLOWER, followers);
+        addAll(Relation.FRIEND, friends);
+        complete = true;
+    }
+
+    public Action0 clear() {
+        return new Action0() {
+            @Override
+            public void call() {
+                synchronized(SocialGraph.this) {
+                    followings.clear();
+                    followers.clear();
+                    friends.clear();
+                    complete = false;
+                }
+            }
+        };
+    }
+
+    private Set<String> set(Relation relation) {
+        switch(relation) {
+            case FOLLOWING:
+                return followings;
+            case FOLLOWER:
+                return followers;
+            default:
+                return friends;
+        }
+    }
+}
@@ -16,10 +16,8 @@
 
 package com.tapglue.android.internal;
 
-import android.content.SharedPreferences;
-import android.content.SharedPreferences.Editor;
-
 import com.google.gson.Gson;
+import com.tapglue.android.platform.KeyValueStore;
 
 import rx.Observable;
 import rx.functions.Action0;
@@ -27,12 +25,12 @@ import rx.functions.Func1;
 
 public class Store<T> {
     private static final String TAG = "object";
-    SharedPreferences prefs;
+    KeyValueStore values;
     Class<T> cls;
     T obj;
 
-    Store(SharedPreferences prefs, Class<T> cls) {
-        this.prefs = prefs;
+    Store(KeyValueStore values, Class<T> cls) {
+        this.values = values;
         this.cls = cls;
     }
 
@@ -43,9 +41,7 @@ public class Store<T> {
             public T call(T obj) {
             store.setObject(obj);
             String objJson = new Gson().toJson(obj);
-            Editor editor = store.prefs.edit();
-            editor.putString(TAG, objJson);
-            editor.apply();
+            store.values.putString(TAG, objJson);
             return obj;
             }
         };
@@ -53,7 +49,7 @@ public class Store<T> {
 
     Observable<T> get() {
         if(obj == null) {
-            String objJson = prefs.getString(TAG, null);
+            String objJson = values.getString(TAG);
             obj = new Gson().fromJson(objJson, cls);
         }
         return obj == null ? Observable.<T>empty():Observable.just(obj);
@@ -64,15 +60,13 @@ public class Store<T> {
             @Override
             public void call() {
                 obj = null;
-                Editor editor = prefs.edit();
-                editor.clear();
-                editor.apply();
+                values.clear();
             }
         };
     }
 
     boolean isEmpty() {
-        String objJson = prefs.getString(TAG, null);
+        String objJson = values.getString(TAG);
         obj = new Gson().fromJson(objJson, cls);
         return obj == null;
     }
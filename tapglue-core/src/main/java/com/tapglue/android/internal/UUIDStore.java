@@ -16,7 +16,7 @@
 
 package com.tapglue.android.internal;
 
-import android.content.Context;
+import com.tapglue.android.platform.Storage;
 
 import java.util.UUID;
 
@@ -26,8 +26,8 @@ public class UUIDStore {
     private static final String UUID_TAG = "uuid";
     Store<String> store;
 
-    public UUIDStore(Context context) {
-        store = new Store<>(context.getSharedPreferences(UUID_TAG, Context.MODE_PRIVATE), String.class);
+    public UUIDStore(Storage storage) {
+        store = new Store<>(storage.open(UUID_TAG), String.class);
     }
 
     public Observable<String> get() {
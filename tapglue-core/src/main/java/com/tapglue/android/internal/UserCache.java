@@ -0,0 +1,151 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.internal;
+
+import com.tapglue.android.entities.User;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import rx.functions.Action0;
+import rx.functions.Func1;
+
+/**
+ * Bounded in memory cache of {@link com.tapglue.android.entities.User users}. The least recently
+ * used entry is evicted once the cache is full, and every entry expires after its own time to live.
+ */
+public class UserCache {
+
+    private final int maxSize;
+    private final long ttl;
+    private final Map<String, Entry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param maxSize maximum amount of users kept, 0 disables the cache
+     * @param ttl default time to live of an entry in milliseconds
+     */
+    public UserCache(final int maxSize, long ttl) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param id id of the wanted user
+     * @return the cached user or null when there is no fresh entry
+     */
+    public synchronized User get(String id) {
+        Entry entry = id == null ? null : entries.get(id);
+        if(entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if(entry.expiresAt <= currentTimeMillis()) {
+            entries.remove(id);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.user;
+    }
+
+    public void put(User user) {
+        put(user, ttl);
+    }
+
+    /**
+     * @param user user to be cached, users without id are ignored
+     * @param ttl time to live of this entry in milliseconds
+     */
+    public synchronized void put(User user, long ttl) {
+        if(maxSize <= 0 || user == null || user.getId() == null) {
+            return;
+        }
+        entries.put(user.getId(), new Entry(user, currentTimeMillis() + ttl));
+    }
+
+    public void putAll(Collection<User> users) {
+        if(users == null) {
+            return;
+        }
+        for(User user: users) {
+            put(user);
+        }
+    }
+
+    public synchronized void invalidate(String id) {
+        if(id != null) {
+            entries.remove(id);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public Func1<User, User> store() {
+        return new Func1<User, User>() {
+            @Override
+            public User call(User user) {
+                put(user);
+                return user;
+            }
+        };
+    }
+
+    public Action0 clear() {
+        return new Action0() {
+            @Override
+            public void call() {
+                synchronized(UserCache.this) {
+                    entries.clear();
+                }
+            }
+        };
+    }
+
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private static class Entry {
+        final User user;
+        final long expiresAt;
+
+        Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
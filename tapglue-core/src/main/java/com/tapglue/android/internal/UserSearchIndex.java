@@ -0,0 +1,173 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.internal;
+
+import com.tapglue.android.entities.User;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import rx.functions.Action0;
+
+/**
+ * In memory prefix index over user names, first names and last names of the
+ * {@link com.tapglue.android.entities.User users} the SDK has seen. Tokens are kept in a sorted
+ * map so all tokens starting with a prefix form one contiguous range. Once the index holds more
+ * than its maximum number of users, the least recently added or found user is evicted.
+ */
+public class UserSearchIndex {
+
+    private static final int DEFAULT_MAX_USERS = 1000;
+
+    private final int maxUsers;
+    private final TreeMap<String, Set<String>> tokens = new TreeMap<>();
+    private final LinkedHashMap<String, User> users = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, List<String>> userTokens = new HashMap<>();
+
+    public UserSearchIndex() {
+        this(DEFAULT_MAX_USERS);
+    }
+
+    public UserSearchIndex(int maxUsers) {
+        this.maxUsers = maxUsers;
+    }
+
+    public synchronized void add(User user) {
+        if(user == null || user.getId() == null) {
+            return;
+        }
+        String id = user.getId();
+        removeTokens(id);
+        List<String> newTokens = new ArrayList<>();
+        tokenize(user.getUserName(), newTokens);
+        tokenize(user.getFirstName(), newTokens);
+        tokenize(user.getLastName(), newTokens);
+        for(String token: newTokens) {
+            Set<String> ids = tokens.get(token);
+            if(ids == null) {
+                ids = new LinkedHashSet<>();
+                tokens.put(token, ids);
+            }
+            ids.add(id);
+        }
+        users.put(id, user);
+        userTokens.put(id, newTokens);
+        evict();
+    }
+
+    public void addAll(Collection<User> users) {
+        if(users == null) {
+            return;
+        }
+        for(User user: users) {
+            add(user);
+        }
+    }
+
+    /**
+     * Every word of the term has to be the prefix of a user name, first name or last name of a
+     * user for the user to match.
+     * @param term search term as typed by the user
+     * @return matching users, empty when the term is empty
+     */
+    public synchronized List<User> search(String term) {
+        List<String> words = new ArrayList<>();
+        tokenize(term, words);
+        if(words.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<String> result = null;
+        for(String word: words) {
+            Set<String> matches = new LinkedHashSet<>();
+            for(Set<String> ids: tokens.subMap(word, true, word + Character.MAX_VALUE, true).values()) {
+                matches.addAll(ids);
+            }
+            if(result == null) {
+                result = matches;
+            } else {
+                result.retainAll(matches);
+            }
+        }
+        List<User> found = new ArrayList<>(result.size());
+        for(String id: result) {
+            found.add(users.get(id));
+        }
+        return found;
+    }
+
+    public synchronized int size() {
+        return users.size();
+    }
+
+    public Action0 clear() {
+        return new Action0() {
+            @Override
+            public void call() {
+                synchronized(UserSearchIndex.this) {
+                    tokens.clear();
+                    users.clear();
+                    userTokens.clear();
+                }
+            }
+        };
+    }
+
+    private void evict() {
+        Iterator<String> ids = users.keySet().iterator();
+        while(users.size() > maxUsers && ids.hasNext()) {
+            String id = ids.next();
+            ids.remove();
+            removeTokens(id);
+        }
+    }
+
+    private void removeTokens(String id) {
+        List<String> oldTokens = userTokens.remove(id);
+        if(oldTokens == null) {
+            return;
+        }
+        for(String token: oldTokens) {
+            Set<String> ids = tokens.get(token);
+            if(ids != null) {
+                ids.remove(id);
+                if(ids.isEmpty()) {
+                    tokens.remove(token);
+                }
+            }
+        }
+    }
+
+    private static void tokenize(String value, List<String> into) {
+        if(value == null) {
+            return;
+        }
+        for(String word: value.toLowerCase(Locale.ENGLISH).split("\\s+")) {
+            if(!word.isEmpty() && !into.contains(word)) {
+                into.add(word);
+            }
+        }
+    }
+}
@@ -16,10 +16,8 @@
 
 package com.tapglue.android.internal;
 
-import android.content.Context;
-import android.content.SharedPreferences;
-
 import com.tapglue.android.entities.User;
+import com.tapglue.android.platform.Storage;
 
 import rx.Observable;
 import rx.functions.Action0;
@@ -27,13 +25,17 @@ import rx.functions.Func1;
 
 public class UserStore {
 
-    private static final String USER_TAG = "user";
+    SessionRecord store;
 
-    Store<User> store;
+    public UserStore(Storage storage) {
+        this(new SessionRecord(storage));
+    }
 
-    public UserStore(Context context) {
-        SharedPreferences prefs = context.getSharedPreferences(USER_TAG, Context.MODE_PRIVATE);
-        store = new Store(prefs, User.class);
+    /**
+     * @param record shared with the other stores of the session, so they see the same user
+     */
+    public UserStore(SessionRecord record) {
+        store = record;
     }
 
     public Func1<User, User> store() {
@@ -0,0 +1,62 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.platform;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Storage that only lives as long as the process, e.g. for benchmarks and replay tools.
+ */
+public class InMemoryStorage implements Storage {
+
+    private final ConcurrentMap<String, KeyValueStore> stores = new ConcurrentHashMap<>();
+
+    @Override
+    public KeyValueStore open(String name) {
+        KeyValueStore store = stores.get(name);
+        if(store == null) {
+            KeyValueStore created = new InMemoryStore();
+            store = stores.putIfAbsent(name, created);
+            if(store == null) {
+                store = created;
+            }
+        }
+        return store;
+    }
+
+    private static class InMemoryStore implements KeyValueStore {
+        private final Map<String, String> values = new HashMap<>();
+
+        @Override
+        public synchronized String getString(String key) {
+            return values.get(key);
+        }
+
+        @Override
+        public synchronized void putString(String key, String value) {
+            values.put(key, value);
+        }
+
+        @Override
+        public synchronized void clear() {
+            values.clear();
+        }
+    }
+}
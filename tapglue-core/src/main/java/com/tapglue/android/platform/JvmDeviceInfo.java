@@ -0,0 +1,43 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.platform;
+
+/**
+ * Describes the JVM the SDK runs on, for running it outside of Android.
+ */
+public class JvmDeviceInfo implements DeviceInfo {
+
+    @Override
+    public String getOs() {
+        return System.getProperty("os.name", "JVM");
+    }
+
+    @Override
+    public String getOsVersion() {
+        return System.getProperty("os.version", "unknown");
+    }
+
+    @Override
+    public String getManufacturer() {
+        return System.getProperty("java.vendor", "Unknown_manufacturer");
+    }
+
+    @Override
+    public String getModel() {
+        return System.getProperty("java.version", "Unknown_model");
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package com.tapglue.android.entities;
+
+import com.google.gson.Gson;
+import com.tapglue.android.entities.Connection.State;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class ConnectionTest {
+
+    private Locale defaultLocale;
+
+    @Before
+    public void setUp() {
+        defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+    }
+
+    @After
+    public void tearDown() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    @Test
+    public void readsStateIndependentOfLocale() {
+        Connection connection = new Gson().fromJson("{\"state\":\"pending\"}", Connection.class);
+
+        assertThat(connection.getState(), equalTo(State.PENDING));
+    }
+
+    @Test
+    public void writesStateIndependentOfLocale() {
+        String json = new Gson().toJson(new Connection(new User("name", "password"), Connection.Type.FRIEND, State.CONFIRMED));
+
+        assertThat(new Gson().fromJson(json, Connection.class).getState(), equalTo(State.CONFIRMED));
+    }
+}
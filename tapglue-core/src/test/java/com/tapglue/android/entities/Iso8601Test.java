@@ -0,0 +1,111 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package com.tapglue.android.entities;
+
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class Iso8601Test {
+
+    @Test
+    public void parsesUtcTimestamp() throws Exception {
+        assertThat(Iso8601.toMillis("2016-03-09T10:35:02Z"), equalTo(reference("2016-03-09T10:35:02.000+0000")));
+    }
+
+    @Test
+    public void truncatesFractionToMillis() throws Exception {
+        assertThat(Iso8601.toMillis("2016-03-09T10:35:02.123456Z"), equalTo(reference("2016-03-09T10:35:02.123+0000")));
+    }
+
+    @Test
+    public void appliesOffset() throws Exception {
+        assertThat(Iso8601.toMillis("2016-03-09T10:35:02.5+01:30"), equalTo(reference("2016-03-09T10:35:02.500+0130")));
+        assertThat(Iso8601.toMillis("2016-03-09T10:35:02-0200"), equalTo(reference("2016-03-09T10:35:02.000-0200")));
+    }
+
+    @Test
+    public void handlesLeapYears() throws Exception {
+        assertThat(Iso8601.toMillis("2016-02-29T00:00:00Z"), equalTo(reference("2016-02-29T00:00:00.000+0000")));
+        assertThat(Iso8601.toMillis("2000-03-01T00:00:00Z"), equalTo(reference("2000-03-01T00:00:00.000+0000")));
+    }
+
+    @Test
+    public void missingZoneIsUtc() throws Exception {
+        assertThat(Iso8601.toMillis("1970-01-01T00:00:01"), equalTo(1000L));
+    }
+
+    @Test
+    public void malformedTimestampIsZero() {
+        assertThat(Iso8601.toMillis(null), equalTo(0L));
+        assertThat(Iso8601.toMillis("yesterday"), equalTo(0L));
+        assertThat(Iso8601.toMillis("2016-13-09T10:35:02Z"), equalTo(0L));
+    }
+
+    @Test
+    public void outOfRangeTimeIsZero() {
+        assertThat(Iso8601.toMillis("2016-03-09T24:00:00Z"), equalTo(0L));
+        assertThat(Iso8601.toMillis("2016-03-09T10:60:02Z"), equalTo(0L));
+        assertThat(Iso8601.toMillis("2016-03-09T10:35:60Z"), equalTo(0L));
+        assertThat(Iso8601.toMillis("2016-03-09T10:35:02+24:00"), equalTo(0L));
+        assertThat(Iso8601.toMillis("2016-03-09T10:35:02+01:60"), equalTo(0L));
+    }
+
+    @Test
+    public void dayBeyondMonthIsZero() {
+        assertThat(Iso8601.toMillis("2016-04-31T00:00:00Z"), equalTo(0L));
+        assertThat(Iso8601.toMillis("2015-02-29T00:00:00Z"), equalTo(0L));
+        assertThat(Iso8601.toMillis("1900-02-29T00:00:00Z"), equalTo(0L));
+        assertThat(Iso8601.toMillis("2016-02-30T00:00:00Z"), equalTo(0L));
+    }
+
+    @Test
+    public void lastDayOfMonthIsParsed() throws Exception {
+        assertThat(Iso8601.toMillis("2016-04-30T23:59:59Z"), equalTo(reference("2016-04-30T23:59:59.000+0000")));
+        assertThat(Iso8601.toMillis("2000-02-29T00:00:00Z"), equalTo(reference("2000-02-29T00:00:00.000+0000")));
+    }
+
+    @Test
+    public void postExposesParsedCreationTime() throws Exception {
+        Post post = new Gson().fromJson("{\"created_at\":\"2016-03-09T10:35:02Z\"}", Post.class);
+
+        assertThat(post.getCreatedAtMillis(), equalTo(reference("2016-03-09T10:35:02.000+0000")));
+        assertThat(post.getUpdatedAtMillis(), equalTo(0L));
+    }
+
+    @Test
+    public void commentReadsSnakeCaseTimestamps() throws Exception {
+        Comment comment = new Gson().fromJson("{\"created_at\":\"2016-03-09T10:35:02Z\"}", Comment.class);
+
+        assertThat(comment.getCreatedAt(), equalTo("2016-03-09T10:35:02Z"));
+        assertThat(comment.getCreatedAtMillis(), equalTo(reference("2016-03-09T10:35:02.000+0000")));
+    }
+
+    private static long reference(String value) throws Exception {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.parse(value).getTime();
+    }
+}
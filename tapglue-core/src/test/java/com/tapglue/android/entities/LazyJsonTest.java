@@ -0,0 +1,122 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package com.tapglue.android.entities;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.annotations.JsonAdapter;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class LazyJsonTest {
+
+    Gson gson = new Gson();
+
+    @Test
+    public void fieldIsDecodedOnFirstAccess() {
+        Holder holder = gson.fromJson("{\"values\":{\"a\":\"1\"}}", Holder.class);
+
+        assertThat(holder.values.isDecoded(), equalTo(false));
+        assertThat(holder.values.get().get("a"), equalTo("1"));
+        assertThat(holder.values.isDecoded(), equalTo(true));
+    }
+
+    @Test
+    public void undecodedFieldIsWrittenUnchanged() {
+        String json = "{\"values\":{\"a\":\"1\",\"b\":\"2\"}}";
+
+        assertThat(gson.toJson(gson.fromJson(json, Holder.class)), equalTo(json));
+    }
+
+    @Test
+    public void undecodedFieldIsWrittenToTree() {
+        Holder holder = gson.fromJson("{\"values\":{\"a\":\"1\"}}", Holder.class);
+
+        JsonObject tree = gson.toJsonTree(holder).getAsJsonObject();
+
+        assertThat(tree.getAsJsonObject("values").get("a").getAsString(), equalTo("1"));
+        assertThat(holder.values.isDecoded(), equalTo(false));
+    }
+
+    @Test
+    public void userWithLazyFieldsIsWrittenToTree() {
+        User user = gson.fromJson("{\"id_string\":\"1\",\"metadata\":{\"k\":\"v\"}}", User.class);
+
+        JsonObject tree = gson.toJsonTree(user).getAsJsonObject();
+
+        assertThat(tree.getAsJsonObject("metadata").get("k").getAsString(), equalTo("v"));
+    }
+
+    @Test
+    public void setValueIsWritten() {
+        Map<String, String> values = new HashMap<>();
+        values.put("a", "1");
+        Holder holder = new Holder();
+        holder.values = LazyJson.of(values);
+
+        assertThat(gson.toJson(holder), equalTo("{\"values\":{\"a\":\"1\"}}"));
+    }
+
+    @Test
+    public void nullStaysNull() {
+        Holder holder = gson.fromJson("{\"values\":null}", Holder.class);
+
+        assertThat(LazyJson.get(holder.values), nullValue());
+    }
+
+    @Test
+    public void userRoundTripsLazyFields() {
+        User user = gson.fromJson("{\"id_string\":\"1\",\"metadata\":{\"k\":\"v\"},"
+            + "\"images\":{\"avatar\":{\"url\":\"u\",\"height\":1,\"width\":2}}}", User.class);
+
+        User copy = gson.fromJson(gson.toJson(user), User.class);
+
+        assertThat(copy.getMetadata().get("k"), equalTo("v"));
+        assertThat(copy.getImages().get("avatar").getWidth(), equalTo(2));
+    }
+
+    @Test
+    public void eventTypesAreInterned() {
+        Event first = gson.fromJson("{\"type\":\"tg_like\",\"language\":\"en\"}", Event.class);
+        Event second = gson.fromJson("{\"type\":\"tg_like\",\"language\":\"en\"}", Event.class);
+
+        assertThat(first.getType(), sameInstance(second.getType()));
+        assertThat(first.getLanguage(), sameInstance(second.getLanguage()));
+    }
+
+    @Test
+    public void eventObjectIsDecodedOnAccess() {
+        Event event = gson.fromJson("{\"object\":{\"id\":\"o\",\"type\":\"article\"}}", Event.class);
+
+        assertThat(event.getObject().getId(), equalTo("o"));
+        assertThat(event.getTarget(), nullValue());
+    }
+
+    static class Holder {
+        @JsonAdapter(LazyJson.Factory.class)
+        LazyJson<Map<String, String>> values;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.http;
+
+import com.tapglue.android.entities.AnalyticsEvent;
+import com.tapglue.android.http.payloads.AnalyticsBatch;
+import com.tapglue.android.internal.AnalyticsBuffer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import rx.Observable;
+import rx.schedulers.Schedulers;
+import rx.schedulers.TestScheduler;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AnalyticsQueueTest {
+
+    @Mock
+    Network network;
+    @Mock
+    AnalyticsBuffer buffer;
+
+    HttpMetrics metrics = new HttpMetrics();
+    AnalyticsEvent event = new AnalyticsEvent("event");
+    List<AnalyticsEvent> batch = Arrays.asList(event, event);
+
+    @Before
+    public void setUp() {
+        when(buffer.take(2)).thenReturn(batch).thenReturn(Collections.<AnalyticsEvent>emptyList());
+        when(network.sendAnalytics(any(AnalyticsBatch.class))).thenReturn(Observable.<Void>empty());
+    }
+
+    @Test
+    public void fullBatchIsSentRightAway() {
+        AnalyticsQueue queue = new AnalyticsQueue(network, buffer, metrics, 2, 0, Schedulers.immediate());
+        when(buffer.size()).thenReturn(2);
+
+        queue.record(event);
+
+        verify(network).sendAnalytics(any(AnalyticsBatch.class));
+        assertThat(metrics.get(HttpMetrics.ANALYTICS_EVENTS_SENT), equalTo(2L));
+    }
+
+    @Test
+    public void partialBatchWaitsForInterval() {
+        TestScheduler scheduler = new TestScheduler();
+        AnalyticsQueue queue = new AnalyticsQueue(network, buffer, metrics, 2, 1000, scheduler);
+        when(buffer.size()).thenReturn(1);
+
+        queue.record(event);
+        scheduler.triggerActions();
+        verify(network, never()).sendAnalytics(any(AnalyticsBatch.class));
+
+        scheduler.advanceTimeBy(1000, TimeUnit.MILLISECONDS);
+        verify(network).sendAnalytics(any(AnalyticsBatch.class));
+    }
+
+    @Test
+    public void flushSendsUntilBufferIsEmpty() {
+        when(buffer.take(2)).thenReturn(batch).thenReturn(batch)
+            .thenReturn(Collections.<AnalyticsEvent>emptyList());
+        AnalyticsQueue queue = new AnalyticsQueue(network, buffer, metrics, 2, 0, Schedulers.immediate());
+
+        queue.flush();
+
+        verify(network, times(2)).sendAnalytics(any(AnalyticsBatch.class));
+    }
+
+    @Test
+    public void failedBatchIsRestored() {
+        when(network.sendAnalytics(any(AnalyticsBatch.class)))
+            .thenReturn(Observable.<Void>error(new IOException()));
+        AnalyticsQueue queue = new AnalyticsQueue(network, buffer, metrics, 2, 0, Schedulers.immediate());
+
+        queue.flush();
+
+        verify(buffer).restore(batch);
+        assertThat(metrics.get(HttpMetrics.ANALYTICS_EVENTS_SENT), equalTo(0L));
+    }
+
+    @Test
+    public void flushSpillsOverflowBeforeTaking() {
+        when(buffer.spill()).thenReturn(3).thenReturn(0);
+        AnalyticsQueue queue = new AnalyticsQueue(network, buffer, metrics, 2, 0, Schedulers.immediate());
+
+        queue.flush();
+
+        InOrder inOrder = inOrder(buffer);
+        inOrder.verify(buffer).spill();
+        inOrder.verify(buffer).take(2);
+        assertThat(metrics.get(HttpMetrics.ANALYTICS_EVENTS_DROPPED), equalTo(3L));
+    }
+}
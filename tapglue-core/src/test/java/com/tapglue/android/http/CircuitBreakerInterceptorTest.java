@@ -0,0 +1,163 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.http;
+
+import com.tapglue.android.Configuration;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import static junit.framework.Assert.fail;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CircuitBreakerInterceptorTest {
+
+    private static final String FEED_URL = "https://api.tapglue.com/0.4/me/feed/posts";
+    private static final String POSTS_URL = "https://api.tapglue.com/0.4/posts/1";
+
+    @Mock
+    Interceptor.Chain chain;
+    @Mock
+    Configuration configuration;
+
+    Transport transport;
+
+    //SUT
+    CircuitBreakerInterceptor interceptor;
+
+    @Before
+    public void setUp() {
+        when(configuration.getCircuitBreakerWindow()).thenReturn(2);
+        when(configuration.getCircuitBreakerFailureRate()).thenReturn(1.0);
+        when(configuration.getCircuitBreakerOpenDuration()).thenReturn(60000L);
+        transport = new Transport(configuration);
+        interceptor = new CircuitBreakerInterceptor(transport);
+        when(chain.request()).thenReturn(new Request.Builder().url(FEED_URL).build());
+    }
+
+    @Test
+    public void failsFastWhenOpen() throws Exception {
+        when(chain.proceed(any(Request.class))).thenReturn(response(FEED_URL, 503));
+        interceptor.intercept(chain);
+        interceptor.intercept(chain);
+
+        try {
+            interceptor.intercept(chain);
+            fail("did not throw exception");
+        } catch(TapglueError e) {
+            assertThat(e.getCode(), equalTo(TapglueError.CIRCUIT_OPEN));
+        }
+        verify(chain, times(2)).proceed(any(Request.class));
+        assertThat(transport.getMetrics().get(HttpMetrics.CIRCUIT_OPENED), equalTo(1L));
+        assertThat(transport.getMetrics().get(HttpMetrics.CIRCUIT_REJECTED), equalTo(1L));
+    }
+
+    @Test
+    public void connectionErrorsCountAsFailures() throws Exception {
+        when(chain.proceed(any(Request.class))).thenThrow(new IOException("reset"));
+        for(int i = 0; i < 2; i++) {
+            try {
+                interceptor.intercept(chain);
+            } catch(IOException ignored) {}
+        }
+
+        assertThat(transport.getCircuitBreaker(EndpointGroup.FEED).getState(),
+            equalTo(CircuitBreaker.State.OPEN));
+    }
+
+    @Test
+    public void runtimeErrorsEndHalfOpenProbe() throws Exception {
+        when(configuration.getCircuitBreakerOpenDuration()).thenReturn(0L);
+        transport = new Transport(configuration);
+        interceptor = new CircuitBreakerInterceptor(transport);
+        when(chain.proceed(any(Request.class))).thenReturn(response(FEED_URL, 503));
+        interceptor.intercept(chain);
+        interceptor.intercept(chain);
+        when(chain.proceed(any(Request.class))).thenThrow(new IllegalStateException("interceptor"));
+        try {
+            interceptor.intercept(chain);
+            fail("did not throw exception");
+        } catch(IllegalStateException ignored) {}
+        doReturn(response(FEED_URL, 200)).when(chain).proceed(any(Request.class));
+
+        Response response = interceptor.intercept(chain);
+
+        assertThat(response.code(), equalTo(200));
+    }
+
+    @Test
+    public void clientErrorsDoNotOpen() throws Exception {
+        when(chain.proceed(any(Request.class))).thenReturn(response(FEED_URL, 404));
+        interceptor.intercept(chain);
+        interceptor.intercept(chain);
+
+        assertThat(transport.getCircuitBreaker(EndpointGroup.FEED).getState(),
+            equalTo(CircuitBreaker.State.CLOSED));
+    }
+
+    @Test
+    public void otherGroupsAreNotAffected() throws Exception {
+        when(chain.proceed(any(Request.class))).thenReturn(response(FEED_URL, 503));
+        interceptor.intercept(chain);
+        interceptor.intercept(chain);
+        when(chain.request()).thenReturn(new Request.Builder().url(POSTS_URL).build());
+        when(chain.proceed(any(Request.class))).thenReturn(response(POSTS_URL, 200));
+
+        Response response = interceptor.intercept(chain);
+
+        assertThat(response.code(), equalTo(200));
+    }
+
+    @Test
+    public void mapsPathsToGroups() {
+        assertThat(EndpointGroup.forPath("/0.4/me/feed/events"), equalTo(EndpointGroup.FEED));
+        assertThat(EndpointGroup.forPath("/0.4/posts/1/likes"), equalTo(EndpointGroup.POSTS));
+        assertThat(EndpointGroup.forPath("/0.4/me/connections/social"), equalTo(EndpointGroup.CONNECTIONS));
+        assertThat(EndpointGroup.forPath("/0.4/users/1/followers"), equalTo(EndpointGroup.CONNECTIONS));
+        assertThat(EndpointGroup.forPath("/0.4/me/devices/1"), equalTo(EndpointGroup.SIMS));
+        assertThat(EndpointGroup.forPath("/0.4/analytics"), equalTo(EndpointGroup.ANALYTICS));
+        assertThat(EndpointGroup.forPath("/0.4/users/1"), equalTo(EndpointGroup.USERS));
+    }
+
+    private static Response response(String url, int code) {
+        return new Response.Builder()
+            .code(code)
+            .protocol(Protocol.HTTP_1_1)
+            .request(new Request.Builder().url(url).build())
+            .body(ResponseBody.create(MediaType.parse("application/json"), "{}"))
+            .build();
+    }
+}
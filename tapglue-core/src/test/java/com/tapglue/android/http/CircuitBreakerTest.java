@@ -0,0 +1,128 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.http;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class CircuitBreakerTest {
+
+    private static final long OPEN_DURATION = 1000;
+
+    long now = 0;
+
+    //SUT
+    CircuitBreaker breaker;
+
+    @Before
+    public void setUp() {
+        breaker = new CircuitBreaker(4, 0.5, OPEN_DURATION) {
+            @Override
+            long currentTimeMillis() {
+                return now;
+            }
+        };
+    }
+
+    @Test
+    public void staysClosedUntilWindowIsFull() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onFailure();
+
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.CLOSED));
+        assertThat(breaker.allowRequest(), equalTo(true));
+    }
+
+    @Test
+    public void opensAtFailureRate() {
+        breaker.onSuccess();
+        breaker.onSuccess();
+        breaker.onFailure();
+
+        assertThat(breaker.onFailure(), equalTo(true));
+        assertThat(breaker.allowRequest(), equalTo(false));
+    }
+
+    @Test
+    public void oldOutcomesLeaveTheWindow() {
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onSuccess();
+        breaker.onSuccess();
+
+        breaker.onSuccess();
+        breaker.onFailure();
+
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.CLOSED));
+    }
+
+    @Test
+    public void letsSingleProbeThroughAfterOpenDuration() {
+        open();
+        now = OPEN_DURATION;
+
+        assertThat(breaker.allowRequest(), equalTo(true));
+        assertThat(breaker.allowRequest(), equalTo(false));
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.HALF_OPEN));
+    }
+
+    @Test
+    public void successfulProbeCloses() {
+        open();
+        now = OPEN_DURATION;
+        breaker.allowRequest();
+
+        breaker.onSuccess();
+
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.CLOSED));
+        assertThat(breaker.allowRequest(), equalTo(true));
+    }
+
+    @Test
+    public void failedProbeReopens() {
+        open();
+        now = OPEN_DURATION;
+        breaker.allowRequest();
+
+        breaker.onFailure();
+
+        assertThat(breaker.allowRequest(), equalTo(false));
+        now = OPEN_DURATION * 2;
+        assertThat(breaker.allowRequest(), equalTo(true));
+    }
+
+    @Test
+    public void emptyWindowDisablesBreaker() {
+        breaker = new CircuitBreaker(0, 0.5, OPEN_DURATION);
+
+        for(int i = 0; i < 10; i++) {
+            breaker.onFailure();
+        }
+
+        assertThat(breaker.allowRequest(), equalTo(true));
+    }
+
+    private void open() {
+        for(int i = 0; i < 4; i++) {
+            breaker.onFailure();
+        }
+    }
+}
@@ -25,11 +25,13 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.logging.HttpLoggingInterceptor;
 
 import static org.hamcrest.CoreMatchers.isA;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsCollectionContaining.hasItem;
+import static org.hamcrest.core.IsSame.sameInstance;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -50,7 +52,7 @@ public class ClientFactoryTest {
         when(configuration.getBaseUrl()).thenReturn(SAMPLE_ENDPOINT);
         when(configuration.getToken()).thenReturn(APP_TOKEN);
 
-        client = ClientFactory.createClient(configuration, SESSION_TOKEN, UUID);
+        client = ClientFactory.createClient(configuration, SESSION_TOKEN, UUID, new Transport(configuration));
     }
 
     @Test
@@ -67,4 +69,34 @@ public class ClientFactoryTest {
     public void addsErrorInterceptor() {
         assertThat(client.interceptors(), hasItem(isA(ErrorInterceptor.class)));
     }
+
+    @Test
+    public void addsRetryInterceptor() {
+        assertThat(client.interceptors(), hasItem(isA(RetryInterceptor.class)));
+    }
+
+    @Test
+    public void addsCircuitBreakerInterceptor() {
+        assertThat(client.interceptors(), hasItem(isA(CircuitBreakerInterceptor.class)));
+    }
+
+    @Test
+    public void allowsHttp2() {
+        assertThat(client.protocols(), hasItem(Protocol.HTTP_2));
+    }
+
+    @Test
+    public void clientsOfOneTransportShareConnectionPool() {
+        Transport transport = new Transport(configuration);
+
+        OkHttpClient first = ClientFactory.createClient(configuration, SESSION_TOKEN, UUID, transport);
+        OkHttpClient second = ClientFactory.createPaginatedClient(configuration, SESSION_TOKEN, UUID, transport);
+
+        assertThat(first.connectionPool(), sameInstance(second.connectionPool()));
+    }
+
+    @Test
+    public void addsGzipInterceptor() {
+        assertThat(client.interceptors(), hasItem(isA(GzipRequestInterceptor.class)));
+    }
 }
@@ -0,0 +1,95 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.http;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import rx.Observable;
+import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class DeadlineTest {
+
+    HttpMetrics metrics = new HttpMetrics();
+
+    @Test
+    public void emitsSourceBeforeDeadline() {
+        Deadline deadline = new Deadline(1000, metrics);
+        TestSubscriber<String> ts = new TestSubscriber<>();
+
+        deadline.apply(Observable.just("source"), Observable.just("fallback")).subscribe(ts);
+        ts.awaitTerminalEvent(1, TimeUnit.SECONDS);
+
+        ts.assertValue("source");
+        assertThat(metrics.get(HttpMetrics.DEADLINE_EXCEEDED), equalTo(0L));
+    }
+
+    @Test
+    public void emitsFallbackAfterDeadline() {
+        Deadline deadline = new Deadline(10, metrics);
+        TestSubscriber<String> ts = new TestSubscriber<>();
+
+        deadline.apply(Observable.<String>never(), Observable.just("fallback")).subscribe(ts);
+        ts.awaitTerminalEvent(1, TimeUnit.SECONDS);
+
+        ts.assertValue("fallback");
+        assertThat(metrics.get(HttpMetrics.DEADLINE_EXCEEDED), equalTo(1L));
+    }
+
+    @Test
+    public void expiredDeadlineDoesNotSubscribeSource() {
+        Deadline deadline = new Deadline(0, metrics);
+        TestSubscriber<String> ts = new TestSubscriber<>();
+
+        deadline.apply(Observable.<String>error(new IllegalStateException()),
+            Observable.just("fallback")).subscribe(ts);
+
+        assertThat(deadline.isExpired(), equalTo(true));
+        ts.assertValue("fallback");
+    }
+
+    @Test
+    public void remainingTimeIsTakenOnSubscribe() {
+        TestScheduler scheduler = new TestScheduler();
+        Deadline deadline = new Deadline(1000, metrics, scheduler);
+        Observable<String> call = deadline.apply(Observable.<String>never(), Observable.just("fallback"));
+        TestSubscriber<String> ts = new TestSubscriber<>();
+
+        scheduler.advanceTimeBy(500, TimeUnit.MILLISECONDS);
+        call.subscribe(ts);
+        scheduler.advanceTimeBy(499, TimeUnit.MILLISECONDS);
+
+        ts.assertNoValues();
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+        ts.assertValue("fallback");
+    }
+
+    @Test
+    public void deadlineExpiresOnClockOfScheduler() {
+        TestScheduler scheduler = new TestScheduler();
+        Deadline deadline = new Deadline(1000, metrics, scheduler);
+
+        scheduler.advanceTimeBy(1000, TimeUnit.MILLISECONDS);
+
+        assertThat(deadline.isExpired(), equalTo(true));
+    }
+}
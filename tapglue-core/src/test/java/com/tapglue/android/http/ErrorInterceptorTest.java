@@ -0,0 +1,145 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.http;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import static junit.framework.Assert.fail;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.powermock.api.mockito.PowerMockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ErrorInterceptorTest {
+
+    private static final String URL = "https://api.tapglue.com";
+
+    @Mock
+    Interceptor.Chain chain;
+
+    HttpMetrics metrics = new HttpMetrics();
+
+    ErrorInterceptor interceptor = new ErrorInterceptor(metrics);
+
+    @Test
+    public void throwsExceptionWhenError() throws Exception {
+        Request request = new Request.Builder()
+                .url(URL).build();
+        MediaType appJson = MediaType.parse("application/json");
+        Response response = new Response.Builder()
+                .code(401)
+                .protocol(Protocol.HTTP_1_1)
+                .request(request)
+                .body(ResponseBody.create(appJson, getSampleBodyStringForErrorCode(1000)))
+                .build();
+
+        when(chain.proceed(any(Request.class))).thenReturn(response);
+        try {
+            interceptor.intercept(chain);
+            fail("did not throw exception");
+        } catch(TapglueError e) {
+            assertThat(e.getCode(), equalTo(1000));
+        }
+    }
+
+    @Test
+    public void throwsAllErrorsWhenSeveral() throws Exception {
+        String body = "{\"errors\": [{\"code\": 1000}, {\"code\": 1001}]}";
+        when(chain.proceed(any(Request.class))).thenReturn(response(400, "application/json", body));
+        try {
+            interceptor.intercept(chain);
+            fail("did not throw exception");
+        } catch(TapglueErrors e) {
+            assertThat(e.getCode(), equalTo(1000));
+            assertThat(e.getErrors().size(), equalTo(2));
+            assertThat(e.getErrors().get(1).getCode(), equalTo(1001));
+        }
+    }
+
+    @Test
+    public void errorsKeepHttpStatus() throws Exception {
+        String body = "{\"errors\": [{\"code\": 1000}, {\"code\": 1001}]}";
+        when(chain.proceed(any(Request.class))).thenReturn(response(503, "application/json", body));
+        try {
+            interceptor.intercept(chain);
+            fail("did not throw exception");
+        } catch(TapglueErrors e) {
+            assertThat(e.getStatus(), equalTo(503));
+            assertThat(e.getErrors().get(1).getStatus(), equalTo(503));
+        }
+    }
+
+    @Test
+    public void passesNonJsonErrorPagesThrough() throws Exception {
+        when(chain.proceed(any(Request.class)))
+            .thenReturn(response(502, "text/html", "<html>Bad Gateway</html>"));
+
+        Response response = interceptor.intercept(chain);
+
+        assertThat(response.body().string(), equalTo("<html>Bad Gateway</html>"));
+    }
+
+    @Test
+    public void passesMalformedJsonThrough() throws Exception {
+        when(chain.proceed(any(Request.class))).thenReturn(response(500, "application/json", "{\"err"));
+
+        Response response = interceptor.intercept(chain);
+
+        assertThat(response.code(), equalTo(500));
+    }
+
+    @Test
+    public void countsStatusCodes() throws Exception {
+        when(chain.proceed(any(Request.class))).thenReturn(response(200, "application/json", "{}"));
+
+        interceptor.intercept(chain);
+        interceptor.intercept(chain);
+
+        assertThat(metrics.get(HttpMetrics.status(200)), equalTo(2L));
+    }
+
+    private static Response response(int code, String type, String body) {
+        return new Response.Builder()
+                .code(code)
+                .protocol(Protocol.HTTP_1_1)
+                .request(new Request.Builder().url(URL).build())
+                .body(ResponseBody.create(MediaType.parse(type), body))
+                .build();
+    }
+
+    private String getSampleBodyStringForErrorCode(int errorCode) {
+        return "{\n" +
+                "    \"data\": {},\n" +
+                "    \"errors\": [\n" +
+                "        {\n" +
+                "            \"code\": " + errorCode + "\n" +
+                "        }\n" +
+                "    ]\n" +
+                "}";
+    }
+}
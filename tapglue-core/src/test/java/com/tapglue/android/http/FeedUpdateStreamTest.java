@@ -0,0 +1,113 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package com.tapglue.android.http;
+
+import com.tapglue.android.entities.FeedUpdate;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+
+public class FeedUpdateStreamTest {
+
+    MockWebServer server;
+    OkHttpClient client = new OkHttpClient();
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void emitsUpdatePerEvent() {
+        server.enqueue(new MockResponse().setBody(": heartbeat\n\n"
+            + "id: 1\ndata: {\"posts\":[{\"id\":\"a\"}]}\n\n"
+            + "id: 2\ndata: {\"events\":\ndata: [{\"id\":\"b\"}]}\n\n"));
+
+        List<FeedUpdate> updates = read(null).getOnNextEvents();
+
+        assertThat(updates.size(), equalTo(2));
+        assertThat(updates.get(0).getPosts().get(0).getId(), equalTo("a"));
+        assertThat(updates.get(1).getEvents().get(0).getId(), equalTo("b"));
+    }
+
+    @Test
+    public void eventIdIsCursor() {
+        server.enqueue(new MockResponse().setBody("id: 7\ndata: {}\n\n"));
+
+        List<FeedUpdate> updates = read(null).getOnNextEvents();
+
+        assertThat(updates.get(0).getCursor(), equalTo("7"));
+    }
+
+    @Test
+    public void sendsCursorAsLastEventId() throws InterruptedException {
+        server.enqueue(new MockResponse().setBody(""));
+
+        read("5");
+
+        RecordedRequest request = server.takeRequest();
+        assertThat(request.getHeader("Last-Event-ID"), equalTo("5"));
+        assertThat(request.getHeader("Accept"), equalTo("text/event-stream"));
+    }
+
+    @Test
+    public void completesWhenServerCloses() {
+        server.enqueue(new MockResponse().setBody("data: {}\n\n"));
+
+        read(null).assertCompleted();
+    }
+
+    @Test
+    public void failsWhenStreamIsUnavailable() {
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        TestSubscriber<FeedUpdate> ts = read(null);
+
+        assertThat(ts.getOnErrorEvents().get(0), instanceOf(IOException.class));
+    }
+
+    private TestSubscriber<FeedUpdate> read(String cursor) {
+        TestSubscriber<FeedUpdate> ts = new TestSubscriber<>();
+        Observable.create(new FeedUpdateStream(client, server.url("/stream").toString(), cursor))
+            .subscribe(ts);
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        return ts;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package com.tapglue.android.http;
+
+import com.google.gson.Gson;
+import com.tapglue.android.entities.FeedUpdate;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import rx.Observable;
+import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FeedUpdatesTest {
+
+    private static final String URL = "https://stream.example.com/updates";
+
+    @Mock
+    Network network;
+
+    TestScheduler scheduler = new TestScheduler();
+    FeedUpdate update = update("{\"posts\":[{\"id\":\"1\"}],\"cursor\":\"c1\"}");
+    FeedUpdate empty = update("{\"cursor\":\"c2\"}");
+
+    @Before
+    public void setUp() {
+        when(network.streamFeedUpdates(anyString(), anyString())).thenReturn(Observable.<FeedUpdate>never());
+        when(network.retrieveFeedUpdates(anyString())).thenReturn(Observable.just(empty));
+        when(network.retrieveFeedUpdates((String) isNull())).thenReturn(Observable.just(update));
+    }
+
+    @Test
+    public void streamedUpdatesAreMerged() {
+        when(network.streamFeedUpdates(eq(URL), (String) isNull())).thenReturn(Observable.just(update));
+        FeedUpdates feedUpdates = new FeedUpdates(network, URL, 1000, 5000, scheduler);
+        TestSubscriber<FeedUpdate> ts = new TestSubscriber<>();
+
+        feedUpdates.updates().subscribe(ts);
+        scheduler.triggerActions();
+
+        ts.assertValue(update);
+        verify(network).mergeFeedUpdate(update);
+        assertThat(feedUpdates.getCursor(), equalTo("c1"));
+    }
+
+    @Test
+    public void reconnectsWithCursorAfterStreamCloses() {
+        when(network.streamFeedUpdates(eq(URL), (String) isNull())).thenReturn(Observable.just(update));
+        FeedUpdates feedUpdates = new FeedUpdates(network, URL, 1000, 5000, scheduler);
+
+        feedUpdates.updates().subscribe(new TestSubscriber<FeedUpdate>());
+        scheduler.advanceTimeBy(5000, TimeUnit.MILLISECONDS);
+
+        verify(network).streamFeedUpdates(URL, "c1");
+        verify(network, never()).retrieveFeedUpdates(anyString());
+    }
+
+    @Test
+    public void pollsWhileStreamIsUnavailable() {
+        when(network.streamFeedUpdates(eq(URL), (String) isNull()))
+            .thenReturn(Observable.<FeedUpdate>error(new IOException()));
+        FeedUpdates feedUpdates = new FeedUpdates(network, URL, 1000, 5000, scheduler);
+        TestSubscriber<FeedUpdate> ts = new TestSubscriber<>();
+
+        feedUpdates.updates().subscribe(ts);
+        scheduler.advanceTimeBy(2000, TimeUnit.MILLISECONDS);
+
+        ts.assertValue(update);
+        verify(network).retrieveFeedUpdates(null);
+        verify(network).retrieveFeedUpdates("c1");
+        verify(network).retrieveFeedUpdates("c2");
+    }
+
+    @Test
+    public void retriesStreamAfterReconnectDelay() {
+        when(network.streamFeedUpdates(eq(URL), (String) isNull()))
+            .thenReturn(Observable.<FeedUpdate>error(new IOException()));
+        FeedUpdates feedUpdates = new FeedUpdates(network, URL, 1000, 5000, scheduler);
+
+        feedUpdates.updates().subscribe(new TestSubscriber<FeedUpdate>());
+        scheduler.advanceTimeBy(5000, TimeUnit.MILLISECONDS);
+
+        verify(network).streamFeedUpdates(URL, "c2");
+    }
+
+    @Test
+    public void pollsWithoutStreamUrl() {
+        FeedUpdates feedUpdates = new FeedUpdates(network, null, 1000, 5000, scheduler);
+
+        feedUpdates.updates().subscribe(new TestSubscriber<FeedUpdate>());
+        scheduler.advanceTimeBy(10000, TimeUnit.MILLISECONDS);
+
+        verify(network, times(11)).retrieveFeedUpdates(anyString());
+    }
+
+    @Test
+    public void emptyUpdatesAreNotEmitted() {
+        when(network.streamFeedUpdates(eq(URL), (String) isNull())).thenReturn(Observable.just(empty));
+        FeedUpdates feedUpdates = new FeedUpdates(network, URL, 1000, 5000, scheduler);
+        TestSubscriber<FeedUpdate> ts = new TestSubscriber<>();
+
+        feedUpdates.updates().subscribe(ts);
+        scheduler.triggerActions();
+
+        ts.assertNoValues();
+        assertThat(feedUpdates.getCursor(), equalTo("c2"));
+    }
+
+    @Test
+    public void subscribersShareOneConnection() {
+        FeedUpdates feedUpdates = new FeedUpdates(network, URL, 1000, 5000, scheduler);
+
+        feedUpdates.updates().subscribe(new TestSubscriber<FeedUpdate>());
+        feedUpdates.updates().subscribe(new TestSubscriber<FeedUpdate>());
+        scheduler.triggerActions();
+
+        verify(network, times(1)).streamFeedUpdates(URL, null);
+    }
+
+    private static FeedUpdate update(String json) {
+        return new Gson().fromJson(json, FeedUpdate.class);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.http;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.GzipSource;
+import okio.Okio;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GzipRequestInterceptorTest {
+
+    private static final String URL = "https://api.tapglue.com/0.4/me/connections/social";
+    private static final MediaType JSON = MediaType.parse("application/json");
+
+    @Mock
+    Interceptor.Chain chain;
+
+    HttpMetrics metrics = new HttpMetrics();
+    ArgumentCaptor<Request> sent = ArgumentCaptor.forClass(Request.class);
+
+    //SUT
+    GzipRequestInterceptor interceptor = new GzipRequestInterceptor(true, 100, metrics);
+
+    @Before
+    public void setUp() throws Exception {
+        when(chain.proceed(sent.capture())).thenReturn(null);
+    }
+
+    @Test
+    public void compressesLargeBodies() throws Exception {
+        String json = largeJson();
+        when(chain.request()).thenReturn(post(json));
+
+        interceptor.intercept(chain);
+
+        Request request = sent.getValue();
+        assertThat(request.header("Content-Encoding"), equalTo("gzip"));
+        assertThat(decompress(request.body()), equalTo(json));
+        assertThat(metrics.get(HttpMetrics.GZIP_REQUESTS), equalTo(1L));
+        assertThat(metrics.get(HttpMetrics.GZIP_BYTES_SAVED),
+            equalTo(json.length() - request.body().contentLength()));
+    }
+
+    @Test
+    public void sendsSmallBodiesUncompressed() throws Exception {
+        when(chain.request()).thenReturn(post("{}"));
+
+        interceptor.intercept(chain);
+
+        assertThat(sent.getValue().header("Content-Encoding"), nullValue());
+    }
+
+    @Test
+    public void doesNothingWhenDisabled() throws Exception {
+        interceptor = new GzipRequestInterceptor(false, 100, metrics);
+        Request request = post(largeJson());
+        when(chain.request()).thenReturn(request);
+
+        interceptor.intercept(chain);
+
+        verify(chain).proceed(request);
+    }
+
+    private static Request post(String json) {
+        return new Request.Builder().url(URL).post(RequestBody.create(JSON, json)).build();
+    }
+
+    private static String largeJson() {
+        StringBuilder json = new StringBuilder("{\"ids\":[");
+        for(int i = 0; i < 200; i++) {
+            json.append(i == 0 ? "" : ",").append("\"").append(i).append("\"");
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String decompress(RequestBody body) throws Exception {
+        Buffer compressed = new Buffer();
+        body.writeTo(compressed);
+        return Okio.buffer(new GzipSource(compressed)).readUtf8();
+    }
+}
@@ -16,6 +16,8 @@
 
 package com.tapglue.android.http;
 
+import com.tapglue.android.platform.DeviceInfo;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -58,7 +60,27 @@ public class HeaderInterceptorTest {
     Headers headers;
 
     //SUT
-    HeaderInterceptor interceptor = new HeaderInterceptor(APP_TOKEN, SESSION_TOKEN, UUID);
+    HeaderInterceptor interceptor = new HeaderInterceptor(APP_TOKEN, SESSION_TOKEN, UUID, new DeviceInfo() {
+        @Override
+        public String getOs() {
+            return "Android";
+        }
+
+        @Override
+        public String getOsVersion() {
+            return null;
+        }
+
+        @Override
+        public String getManufacturer() {
+            return "manufacturer";
+        }
+
+        @Override
+        public String getModel() {
+            return "model";
+        }
+    });
 
     @Before
     public void setUp() throws Exception {
@@ -99,4 +121,9 @@ public class HeaderInterceptorTest {
     public void addsUUID() {
         assertThat(headers.get("X-Tapglue-AndroidID"), equalTo(UUID));
     }
+
+    @Test
+    public void addsDeviceModel() {
+        assertThat(headers.get("X-Tapglue-Model"), equalTo("model"));
+    }
 }
@@ -0,0 +1,90 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.http;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import okhttp3.ResponseBody;
+import retrofit2.Response;
+import retrofit2.adapter.rxjava.HttpException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class IsTransientErrorTest {
+
+    IsTransientError isTransient = new IsTransientError();
+
+    @Test
+    public void connectionProblemsAreTransient() {
+        assertThat(isTransient.call(new IOException()), equalTo(true));
+    }
+
+    @Test
+    public void openCircuitIsTransient() {
+        assertThat(isTransient.call(new TapglueError(TapglueError.CIRCUIT_OPEN, "open")), equalTo(true));
+    }
+
+    @Test
+    public void unavailableServerIsTransient() {
+        assertThat(isTransient.call(apiError(503)), equalTo(true));
+        assertThat(isTransient.call(apiError(500)), equalTo(true));
+    }
+
+    @Test
+    public void throttlingAndTimeoutsAreTransient() {
+        assertThat(isTransient.call(apiError(429)), equalTo(true));
+        assertThat(isTransient.call(apiError(408)), equalTo(true));
+    }
+
+    @Test
+    public void notImplementedIsPermanent() {
+        assertThat(isTransient.call(apiError(501)), equalTo(false));
+    }
+
+    @Test
+    public void clientErrorsArePermanent() {
+        assertThat(isTransient.call(apiError(400)), equalTo(false));
+        assertThat(isTransient.call(apiError(404)), equalTo(false));
+    }
+
+    @Test
+    public void errorsWithoutResponseArePermanent() {
+        assertThat(isTransient.call(new TapglueError(1000, "invalid")), equalTo(false));
+    }
+
+    @Test
+    public void responsesWithoutErrorBodyUseStatus() {
+        assertThat(isTransient.call(httpError(502)), equalTo(true));
+        assertThat(isTransient.call(httpError(403)), equalTo(false));
+    }
+
+    @Test
+    public void otherErrorsArePermanent() {
+        assertThat(isTransient.call(new IllegalStateException()), equalTo(false));
+    }
+
+    private static TapglueError apiError(int status) {
+        return new TapglueError(1000, "error").withStatus(status);
+    }
+
+    private static HttpException httpError(int status) {
+        return new HttpException(Response.error(status, ResponseBody.create(null, "")));
+    }
+}
@@ -15,17 +15,21 @@
  */
 package com.tapglue.android.http;
 
-import android.content.Context;
-import android.content.SharedPreferences;
-
+import com.google.gson.Gson;
+import com.tapglue.android.Configuration;
+import com.tapglue.android.internal.SessionRecord;
 import com.tapglue.android.internal.SessionStore;
+import com.tapglue.android.internal.SocialGraph;
 import com.tapglue.android.internal.Store;
 import com.tapglue.android.internal.UUIDStore;
+import com.tapglue.android.platform.InMemoryStorage;
+import com.tapglue.android.platform.Storage;
 import com.tapglue.android.entities.Comment;
 import com.tapglue.android.entities.Connection;
 import com.tapglue.android.entities.Connection.Type;
 import com.tapglue.android.entities.ConnectionList;
 import com.tapglue.android.entities.Event;
+import com.tapglue.android.entities.FeedUpdate;
 import com.tapglue.android.entities.Like;
 import com.tapglue.android.entities.Post;
 import com.tapglue.android.entities.User;
@@ -42,22 +46,28 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import okhttp3.RequestBody;
 import rx.Observable;
 import rx.functions.Action0;
 import rx.functions.Func1;
 import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
+import rx.schedulers.TestScheduler;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsCollectionContaining.hasItems;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsNull.notNullValue;
 import static org.hamcrest.core.Every.everyItem;
-import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.isA;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.powermock.api.mockito.PowerMockito.whenNew;
@@ -70,17 +80,19 @@ public class NetworkTest {
     private static final String PASSWORD = "password";
 
 
-    @Mock
-    Context context;
-    @Mock
-    SharedPreferences prefs;
     @Mock
     ServiceFactory serviceFactory;
     @Mock
+    Configuration configuration;
+    @Mock
     TapglueService service;
     @Mock
     TapglueService secondService;
     @Mock
+    PaginatedService paginatedService;
+    @Mock
+    Transport transport;
+    @Mock
     SessionStore sessionStore;
     @Mock
     UUIDStore uuidStore;
@@ -97,13 +109,22 @@ public class NetworkTest {
     @Mock
     User user;
     List<User> users = new ArrayList<User>();
+    Storage storage = new InMemoryStorage();
 
     //SUT
     Network network;
 
     @Before
     public void setUp() throws Exception {
-        when(context.getSharedPreferences(anyString(), anyInt())).thenReturn(prefs);
+        when(configuration.getUserCacheSize()).thenReturn(10);
+        when(configuration.getSearchIndexSize()).thenReturn(10);
+        when(configuration.getUserCacheTtl()).thenReturn(60000L);
+        when(configuration.getContactMatchChunkSize()).thenReturn(2);
+        when(configuration.getContactMatchConcurrency()).thenReturn(2);
+        when(serviceFactory.getConfiguration()).thenReturn(configuration);
+        when(serviceFactory.createPaginatedService()).thenReturn(paginatedService);
+        when(transport.getMetrics()).thenReturn(new HttpMetrics());
+        when(serviceFactory.getTransport()).thenReturn(transport);
         when(service.login(isA(UsernameLoginPayload.class))).thenReturn(Observable.just(user));
         when(service.login(isA(EmailLoginPayload.class))).thenReturn(Observable.just(user));
         when(serviceFactory.createTapglueService()).thenReturn(service)
@@ -117,7 +138,7 @@ public class NetworkTest {
         when(sessionStore.store()).thenReturn(storeFunc);
         when(storeFunc.call(user)).thenReturn(user);
         when(sessionStore.clear()).thenReturn(clearAction);
-        network = new Network(serviceFactory, context);
+        network = new Network(serviceFactory, storage, Schedulers.immediate());
     }
 
     @Test
@@ -338,6 +359,99 @@ public class NetworkTest {
         assertThat(ts.getOnNextEvents(), hasItems(user));
     }
 
+    @Test
+    public void retrieveUserIsServedFromCacheOnSecondCall() {
+        String id = "someID";
+        when(user.getId()).thenReturn(id);
+        when(service.retrieveUser(id)).thenReturn(Observable.just(user));
+        network.retrieveUser(id).subscribe();
+        TestSubscriber<User> ts = new TestSubscriber<>();
+
+        network.retrieveUser(id).subscribe(ts);
+
+        verify(service, times(1)).retrieveUser(id);
+        assertThat(ts.getOnNextEvents(), hasItems(user));
+        assertThat(network.getUserCache().getHitCount(), equalTo(1L));
+    }
+
+    @Test
+    public void retrieveUserReadsCacheOnSubscription() {
+        String id = "someID";
+        when(user.getId()).thenReturn(id);
+        when(service.retrieveUser(id)).thenReturn(Observable.just(user));
+        Observable<User> stored = network.retrieveUser(id);
+        network.retrieveUser(id).subscribe();
+
+        stored.subscribe();
+
+        verify(service, times(1)).retrieveUser(id);
+    }
+
+    @Test
+    public void feedUsersAreCached() {
+        String id = "someID";
+        when(user.getId()).thenReturn(id);
+        users.add(user);
+        when(usersFeed.embeddedUsers()).thenReturn(users);
+        when(service.retrieveFollowings()).thenReturn(Observable.just(usersFeed));
+
+        network.retrieveFollowings().subscribe();
+
+        assertThat(network.getUserCache().get(id), equalTo(user));
+    }
+
+    @Test
+    public void deleteConnectionInvalidatesCachedUser() {
+        String id = "someID";
+        when(user.getId()).thenReturn(id);
+        network.getUserCache().put(user);
+        when(service.deleteConnection(id, Type.FOLLOW)).thenReturn(Observable.<Void>empty());
+
+        network.deleteConnection(id, Type.FOLLOW).subscribe();
+
+        assertThat(network.getUserCache().size(), equalTo(0));
+    }
+
+    @Test
+    public void retrieveFollowingsFillsSocialGraph() {
+        when(user.getId()).thenReturn("someID");
+        users.add(user);
+        when(usersFeed.getUsers()).thenReturn(users);
+        when(service.retrieveFollowings()).thenReturn(Observable.just(usersFeed));
+
+        network.retrieveFollowings().subscribe();
+
+        assertThat(network.getSocialGraph().isFollowing("someID"), equalTo(true));
+    }
+
+    @Test
+    public void syncSocialGraphLoadsAllConnections() {
+        when(user.getId()).thenReturn("someID");
+        users.add(user);
+        when(usersFeed.flatten()).thenReturn(users);
+        when(service.retrieveFollowings()).thenReturn(Observable.just(usersFeed));
+        when(service.retrieveFollowers()).thenReturn(Observable.<UsersFeed>just(null));
+        when(paginatedService.retrieveFriends()).thenReturn(Observable.just(usersFeed));
+        TestSubscriber<SocialGraph> ts = new TestSubscriber<>();
+
+        network.syncSocialGraph().subscribe(ts);
+
+        ts.assertNoErrors();
+        assertThat(network.getSocialGraph().isComplete(), equalTo(true));
+        assertThat(network.getSocialGraph().isFriend("someID"), equalTo(true));
+        assertThat(network.getSocialGraph().isFollower("someID"), equalTo(false));
+    }
+
+    @Test
+    public void deleteConnectionRemovesFromSocialGraph() {
+        network.getSocialGraph().add(SocialGraph.Relation.FOLLOWING, "someID");
+        when(service.deleteConnection("someID", Type.FOLLOW)).thenReturn(Observable.<Void>empty());
+
+        network.deleteConnection("someID", Type.FOLLOW).subscribe();
+
+        assertThat(network.getSocialGraph().isFollowing("someID"), equalTo(false));
+    }
+
     @Test
     public void retrieveFollowignsReturnsUsersFromService() {
         when(usersFeed.getUsers()).thenReturn(users);
@@ -415,6 +529,71 @@ public class NetworkTest {
         assertThat(ts.getOnNextEvents(), hasItems(users));
     }
 
+    @Test
+    public void searchUsersTypeAheadMergesServerResultsIntoIndex() {
+        when(user.getId()).thenReturn("someID");
+        when(user.getUserName()).thenReturn("username");
+        users.add(user);
+        when(usersFeed.embeddedUsers()).thenReturn(users);
+        when(paginatedService.searchUsers("user")).thenReturn(Observable.just(usersFeed));
+        TestSubscriber<List<User>> ts = new TestSubscriber<>();
+
+        network.searchUsersTypeAhead(Observable.just("user")).subscribe(ts);
+        ts.awaitTerminalEvent();
+
+        assertThat(ts.getOnNextEvents().get(0).size(), equalTo(0));
+        assertThat(ts.getOnNextEvents().get(1), hasItems(user));
+    }
+
+    @Test
+    public void searchUsersTypeAheadEmitsServerMatchesMissingLocally() {
+        when(user.getId()).thenReturn("someID");
+        when(user.getUserName()).thenReturn("other");
+        users.add(user);
+        when(usersFeed.flatten()).thenReturn(users);
+        when(paginatedService.searchUsers("user")).thenReturn(Observable.just(usersFeed));
+        TestSubscriber<List<User>> ts = new TestSubscriber<>();
+
+        network.searchUsersTypeAhead(Observable.just("user")).subscribe(ts);
+        ts.awaitTerminalEvent();
+
+        assertThat(ts.getOnNextEvents().get(1), hasItems(user));
+        assertThat(ts.getOnNextEvents().get(1).size(), equalTo(1));
+    }
+
+    @Test
+    public void matchUsersByEmailSearchesInChunks() {
+        users.add(user);
+        when(usersFeed.flatten()).thenReturn(users);
+        when(paginatedService.searchUsersByEmail(any(RequestBody.class)))
+            .thenReturn(Observable.just(usersFeed));
+        List<String> emails = Arrays.asList("a@domain.com", "b@domain.com", "a@domain.com", " ",
+            "c@domain.com");
+        TestSubscriber<User> ts = new TestSubscriber<>();
+
+        network.matchUsersByEmail(emails).subscribe(ts);
+        ts.awaitTerminalEvent();
+
+        verify(paginatedService, times(2)).searchUsersByEmail(any(RequestBody.class));
+        ts.assertNoErrors();
+        assertThat(ts.getOnNextEvents(), hasItems(user));
+    }
+
+    @Test
+    public void matchUsersBySocialIdsSearchesInChunks() {
+        when(usersFeed.flatten()).thenReturn(users);
+        when(paginatedService.searchUsersBySocialIds(anyString(), any(RequestBody.class)))
+            .thenReturn(Observable.just(usersFeed));
+        TestSubscriber<User> ts = new TestSubscriber<>();
+
+        network.matchUsersBySocialIds("facebook", Arrays.asList("1", "2", "3", "4", "5"))
+            .subscribe(ts);
+        ts.awaitTerminalEvent();
+
+        verify(paginatedService, times(3)).searchUsersBySocialIds(anyString(), any(RequestBody.class));
+        ts.assertCompleted();
+    }
+
     @Test
     public void deleteConnectionReturnsFromService() {
         String id = "userId";
@@ -487,6 +666,33 @@ public class NetworkTest {
         assertThat(ts.getOnNextEvents(), hasItems(like));
     }
 
+    @Test
+    public void createLikeOptimisticUpdatesPostRightAway() {
+        Post post = new Post(new ArrayList<Post.Attachment>(), Post.Visibility.PUBLIC);
+        when(service.createLike(null)).thenReturn(Observable.<Like>never());
+        TestSubscriber<Post> ts = new TestSubscriber<>();
+
+        network.createLikeOptimistic(post).subscribe(ts);
+
+        assertThat(ts.getOnNextEvents(), hasItems(post));
+        assertThat(post.isLiked(), equalTo(true));
+        assertThat(post.getCounts().getLikes(), equalTo(1L));
+    }
+
+    @Test
+    public void createLikeOptimisticRollsBackWhenRejected() {
+        Post post = new Post(new ArrayList<Post.Attachment>(), Post.Visibility.PUBLIC);
+        when(service.createLike(null)).thenReturn(Observable.<Like>error(new TapglueError(1, "")));
+        TestSubscriber<Post> ts = new TestSubscriber<>();
+
+        network.createLikeOptimistic(post).subscribe(ts);
+        ts.awaitTerminalEvent();
+
+        assertThat(ts.getOnErrorEvents().size(), equalTo(1));
+        assertThat(post.isLiked(), equalTo(false));
+        assertThat(post.getCounts().getLikes(), equalTo(0L));
+    }
+
     @Test
     public void deleteLikeDeletesOnService() {
         String id = "postId";
@@ -550,6 +756,18 @@ public class NetworkTest {
         assertThat(ts.getOnNextEvents(), hasItems(events));
     }
 
+    @Test
+    public void retrieveUnreadCountReturnsCountFromService() {
+        UnreadCount unreadCount = new UnreadCount();
+        unreadCount.count = 5;
+        when(service.retrieveUnreadCount()).thenReturn(Observable.just(unreadCount));
+        TestSubscriber<Long> ts = new TestSubscriber<>();
+
+        network.retrieveUnreadCount().subscribe(ts);
+
+        ts.assertValue(5L);
+    }
+
     @Test
     public void sendAnalyticsCallsService() {
         when(service.sendAnalytics()).thenReturn(Observable.<Void>empty());
@@ -560,4 +778,129 @@ public class NetworkTest {
         ts.assertNoErrors();
         ts.assertCompleted();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void postFeedFallsBackToLastFeedAfterDeadline() {
+        PostListFeed feed = new PostListFeed();
+        when(paginatedService.retrievePostFeed()).thenReturn(Observable.just(feed))
+            .thenReturn(Observable.<PostListFeed>never());
+        TestSubscriber<RxPage<List<Post>>> first = new TestSubscriber<>();
+        network.retrievePostFeed().subscribe(first);
+        TestSubscriber<RxPage<List<Post>>> ts = new TestSubscriber<>();
+
+        network.retrievePostFeed(10).subscribe(ts);
+        ts.awaitTerminalEvent(1, TimeUnit.SECONDS);
+
+        ts.assertNoErrors();
+        assertThat(ts.getOnNextEvents().get(0), equalTo(first.getOnNextEvents().get(0)));
+        assertThat(network.getHttpMetrics().get(HttpMetrics.DEADLINE_EXCEEDED), equalTo(1L));
+    }
+
+    @Test
+    public void feedUpdateReplacesKeptPage() {
+        PostListFeed feed = new Gson().fromJson("{\"posts\":[{\"id\":\"1\"}],\"users\":{}}",
+            PostListFeed.class);
+        when(paginatedService.retrievePostFeed()).thenReturn(Observable.just(feed))
+            .thenReturn(Observable.<PostListFeed>never());
+        TestSubscriber<RxPage<List<Post>>> first = new TestSubscriber<>();
+        network.retrievePostFeed().subscribe(first);
+        FeedUpdate update = new Gson().fromJson("{\"posts\":[{\"id\":\"2\"}],\"users\":{}}",
+            FeedUpdate.class);
+        TestSubscriber<RxPage<List<Post>>> ts = new TestSubscriber<>();
+
+        network.mergeFeedUpdate(update);
+        network.retrievePostFeed(10).subscribe(ts);
+        ts.awaitTerminalEvent(1, TimeUnit.SECONDS);
+
+        assertThat(ts.getOnNextEvents().get(0).getData().size(), equalTo(2));
+        assertThat(first.getOnNextEvents().get(0).getData().size(), equalTo(1));
+    }
+
+    @Test
+    public void postFeedFailsAfterDeadlineWithoutCachedFeed() {
+        when(paginatedService.retrievePostFeed()).thenReturn(Observable.<PostListFeed>never());
+        TestSubscriber<RxPage<List<Post>>> ts = new TestSubscriber<>();
+
+        network.retrievePostFeed(10).subscribe(ts);
+        ts.awaitTerminalEvent(1, TimeUnit.SECONDS);
+
+        assertThat(((TapglueError) ts.getOnErrorEvents().get(0)).getCode(),
+            equalTo(TapglueError.DEADLINE_EXCEEDED));
+    }
+
+    @Test
+    public void postFeedBudgetStartsOnSubscribe() {
+        TestScheduler scheduler = new TestScheduler();
+        network = new Network(serviceFactory, storage, new SessionRecord(storage),
+            Schedulers.immediate(), scheduler);
+        when(paginatedService.retrievePostFeed()).thenReturn(Observable.just(new PostListFeed()));
+        Observable<RxPage<List<Post>>> call = network.retrievePostFeed(100);
+        TestSubscriber<RxPage<List<Post>>> ts = new TestSubscriber<>();
+
+        scheduler.advanceTimeBy(200, TimeUnit.MILLISECONDS);
+        call.subscribe(ts);
+
+        ts.assertNoErrors();
+        ts.assertValueCount(1);
+        assertThat(network.getHttpMetrics().get(HttpMetrics.DEADLINE_EXCEEDED), equalTo(0L));
+    }
+
+    @Test
+    public void resubscribedPostFeedGetsNewBudget() {
+        TestScheduler scheduler = new TestScheduler();
+        network = new Network(serviceFactory, storage, new SessionRecord(storage),
+            Schedulers.immediate(), scheduler);
+        when(paginatedService.retrievePostFeed()).thenReturn(Observable.<PostListFeed>never())
+            .thenReturn(Observable.just(new PostListFeed()));
+        Observable<RxPage<List<Post>>> call = network.retrievePostFeed(100);
+        TestSubscriber<RxPage<List<Post>>> first = new TestSubscriber<>();
+        call.subscribe(first);
+        scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS);
+        TestSubscriber<RxPage<List<Post>>> ts = new TestSubscriber<>();
+
+        call.subscribe(ts);
+
+        assertThat(((TapglueError) first.getOnErrorEvents().get(0)).getCode(),
+            equalTo(TapglueError.DEADLINE_EXCEEDED));
+        ts.assertNoErrors();
+        ts.assertValueCount(1);
+    }
+
+    @Test
+    public void callsAreQueuedUntilInitialized() {
+        TestScheduler scheduler = new TestScheduler();
+        network = new Network(serviceFactory, storage, scheduler);
+        Post post = mock(Post.class);
+        when(secondService.retrievePost("id")).thenReturn(Observable.just(post));
+        TestSubscriber<Post> ts = new TestSubscriber<>();
+
+        network.retrievePost("id").subscribe(ts);
+
+        ts.assertNoValues();
+        scheduler.triggerActions();
+        ts.assertValue(post);
+    }
+
+    @Test
+    public void failedInitializationReachesQueuedCalls() {
+        TestScheduler scheduler = new TestScheduler();
+        RuntimeException error = new RuntimeException("storage");
+        when(serviceFactory.createTapglueService()).thenThrow(error);
+        network = new Network(serviceFactory, storage, scheduler);
+        TestSubscriber<Post> ts = new TestSubscriber<>();
+
+        network.retrievePost("id").subscribe(ts);
+        scheduler.triggerActions();
+
+        ts.assertError(error);
+        assertThat(network.getHttpMetrics().get(HttpMetrics.STARTUP_FAILURES), equalTo(1L));
+    }
+
+    @Test
+    public void recordsStartupTimes() {
+        assertThat(network.getHttpMetrics().snapshot().containsKey(HttpMetrics.STARTUP_BLOCKING_NANOS),
+            equalTo(true));
+        assertThat(network.getHttpMetrics().snapshot().containsKey(HttpMetrics.STARTUP_BACKGROUND_NANOS),
+            equalTo(true));
+    }
+}
@@ -16,7 +16,9 @@
 
 package com.tapglue.android.http;
 
+import com.google.gson.Gson;
 import com.tapglue.android.entities.Event;
+import com.tapglue.android.entities.FeedUpdate;
 import com.tapglue.android.entities.NewsFeed;
 import com.tapglue.android.entities.Post;
 import com.tapglue.android.entities.User;
@@ -122,4 +124,60 @@ public class RawNewsFeedTest {
 
         assertThat(feed.getPosts(), equalTo(posts));
     }
+
+    @Test
+    public void mergePrependsNewEntries() {
+        RawNewsFeed rawFeed = new Gson().fromJson("{\"events\":[{\"id\":\"1\"}],"
+            + "\"posts\":[{\"id\":\"1\"}],\"users\":{},\"post_map\":{}}", RawNewsFeed.class);
+        FeedUpdate update = new Gson().fromJson("{\"events\":[{\"id\":\"2\"}],"
+            + "\"posts\":[{\"id\":\"2\"}]}", FeedUpdate.class);
+
+        NewsFeed feed = rawFeed.merged(update).flatten();
+
+        assertThat(feed.getEvents().get(0).getId(), equalTo("2"));
+        assertThat(feed.getEvents().size(), equalTo(2));
+        assertThat(feed.getPosts().get(0).getId(), equalTo("2"));
+        assertThat(feed.getPosts().size(), equalTo(2));
+    }
+
+    @Test
+    public void mergeReplacesEntriesWithSameId() {
+        RawNewsFeed rawFeed = new Gson().fromJson("{\"posts\":[{\"id\":\"1\"},{\"id\":\"2\"}],"
+            + "\"users\":{},\"post_map\":{}}", RawNewsFeed.class);
+        FeedUpdate update = new Gson().fromJson("{\"posts\":[{\"id\":\"2\"}]}", FeedUpdate.class);
+
+        RawNewsFeed merged = (RawNewsFeed) rawFeed.merged(update);
+
+        assertThat(merged.posts.size(), equalTo(2));
+        assertThat(merged.posts.get(0), equalTo(update.getPosts().get(0)));
+    }
+
+    @Test
+    public void mergeOrdersPostsByCreationTime() {
+        RawNewsFeed rawFeed = new Gson().fromJson("{\"posts\":[{\"id\":\"1\","
+            + "\"created_at\":\"2016-03-09T10:00:00Z\"}],\"users\":{},\"post_map\":{}}", RawNewsFeed.class);
+        FeedUpdate update = new Gson().fromJson("{\"posts\":[{\"id\":\"2\","
+            + "\"created_at\":\"2016-03-09T09:00:00.5Z\"},{\"id\":\"3\","
+            + "\"created_at\":\"2016-03-09T11:00:00+02:00\"}]}", FeedUpdate.class);
+
+        RawNewsFeed merged = (RawNewsFeed) rawFeed.merged(update);
+
+        assertThat(merged.posts.get(0).getId(), equalTo("1"));
+        assertThat(merged.posts.get(1).getId(), equalTo("2"));
+        assertThat(merged.posts.get(2).getId(), equalTo("3"));
+    }
+
+    @Test
+    public void mergeLeavesFeedUnchanged() {
+        RawNewsFeed rawFeed = new Gson().fromJson("{\"events\":[{\"id\":\"1\"}],"
+            + "\"posts\":[{\"id\":\"1\"}],\"users\":{},\"post_map\":{}}", RawNewsFeed.class);
+        FeedUpdate update = new Gson().fromJson("{\"events\":[{\"id\":\"2\"}],"
+            + "\"posts\":[{\"id\":\"2\"}]}", FeedUpdate.class);
+
+        rawFeed.merged(update);
+
+        assertThat(rawFeed.events.size(), equalTo(1));
+        assertThat(rawFeed.posts.size(), equalTo(1));
+        assertThat(rawFeed.postMap.size(), equalTo(0));
+    }
 }
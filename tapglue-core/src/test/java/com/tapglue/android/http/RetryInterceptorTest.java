@@ -0,0 +1,192 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.http;
+
+import com.tapglue.android.Configuration;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import static junit.framework.Assert.fail;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RetryInterceptorTest {
+
+    private static final String URL = "https://api.tapglue.com";
+    private static final long MAX_DELAY = 5000;
+
+    @Mock
+    Interceptor.Chain chain;
+    @Mock
+    Configuration configuration;
+
+    Transport transport;
+    List<Long> delays = new ArrayList<>();
+
+    //SUT
+    RetryInterceptor interceptor;
+
+    @Before
+    public void setUp() {
+        when(configuration.getRetryBudget()).thenReturn(10);
+        transport = new Transport(configuration);
+        interceptor = new RetryInterceptor(2, 100, MAX_DELAY, transport) {
+            @Override
+            void sleep(long millis) {
+                delays.add(millis);
+            }
+        };
+        when(chain.request()).thenReturn(new Request.Builder().url(URL).build());
+    }
+
+    @Test
+    public void retriesServerErrors() throws Exception {
+        when(chain.proceed(any(Request.class))).thenReturn(response(503), response(200));
+
+        Response response = interceptor.intercept(chain);
+
+        assertThat(response.code(), equalTo(200));
+        assertThat(transport.getMetrics().get(HttpMetrics.RETRY_ATTEMPTS), equalTo(1L));
+        assertThat(transport.getMetrics().get(HttpMetrics.RETRY_SUCCESSES), equalTo(1L));
+    }
+
+    @Test
+    public void retriesConnectionErrors() throws Exception {
+        when(chain.proceed(any(Request.class))).thenThrow(new IOException("reset"))
+            .thenReturn(response(200));
+
+        Response response = interceptor.intercept(chain);
+
+        assertThat(response.code(), equalTo(200));
+    }
+
+    @Test
+    public void givesUpAfterMaxRetries() throws Exception {
+        when(chain.proceed(any(Request.class))).thenReturn(response(500));
+
+        Response response = interceptor.intercept(chain);
+
+        assertThat(response.code(), equalTo(500));
+        verify(chain, times(3)).proceed(any(Request.class));
+    }
+
+    @Test
+    public void rethrowsConnectionErrorAfterMaxRetries() throws Exception {
+        when(chain.proceed(any(Request.class))).thenThrow(new IOException("reset"));
+
+        try {
+            interceptor.intercept(chain);
+            fail("did not throw exception");
+        } catch(IOException e) {
+            verify(chain, times(3)).proceed(any(Request.class));
+        }
+    }
+
+    @Test
+    public void doesNotRetryClientErrors() throws Exception {
+        when(chain.proceed(any(Request.class))).thenReturn(response(404));
+
+        interceptor.intercept(chain);
+
+        verify(chain, times(1)).proceed(any(Request.class));
+    }
+
+    @Test
+    public void doesNotRetryPost() throws Exception {
+        Request post = new Request.Builder().url(URL)
+            .post(RequestBody.create(MediaType.parse("application/json"), "{}")).build();
+        when(chain.request()).thenReturn(post);
+        when(chain.proceed(any(Request.class))).thenReturn(response(503));
+
+        interceptor.intercept(chain);
+
+        verify(chain, times(1)).proceed(any(Request.class));
+    }
+
+    @Test
+    public void honorsRetryAfter() throws Exception {
+        Response throttled = response(429).newBuilder().header("Retry-After", "2").build();
+        when(chain.proceed(any(Request.class))).thenReturn(throttled, response(200));
+
+        interceptor.intercept(chain);
+
+        assertThat(delays.get(0), equalTo(2000L));
+    }
+
+    @Test
+    public void doesNotWaitLongerThanMaxDelay() throws Exception {
+        Response throttled = response(429).newBuilder().header("Retry-After", "60").build();
+        when(chain.proceed(any(Request.class))).thenReturn(throttled);
+
+        Response response = interceptor.intercept(chain);
+
+        assertThat(response.code(), equalTo(429));
+        assertThat(delays.size(), equalTo(0));
+    }
+
+    @Test
+    public void backoffIsBoundedByExponentialCeiling() throws Exception {
+        when(chain.proceed(any(Request.class))).thenReturn(response(503));
+
+        interceptor.intercept(chain);
+
+        assertThat(delays.get(0) < 100, equalTo(true));
+        assertThat(delays.get(1) < 200, equalTo(true));
+    }
+
+    @Test
+    public void stopsRetryingWhenBudgetIsUsedUp() throws Exception {
+        when(chain.proceed(any(Request.class))).thenReturn(response(503));
+
+        interceptor.intercept(chain);
+        interceptor.intercept(chain);
+        interceptor.intercept(chain);
+
+        assertThat(transport.getMetrics().get(HttpMetrics.RETRY_ATTEMPTS), equalTo(5L));
+        assertThat(transport.getMetrics().get(HttpMetrics.RETRY_BUDGET_EXHAUSTED), equalTo(1L));
+    }
+
+    private static Response response(int code) {
+        return new Response.Builder()
+            .code(code)
+            .protocol(Protocol.HTTP_1_1)
+            .request(new Request.Builder().url(URL).build())
+            .body(ResponseBody.create(MediaType.parse("application/json"), "{}"))
+            .build();
+    }
+}
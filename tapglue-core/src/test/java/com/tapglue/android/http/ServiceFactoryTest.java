@@ -40,7 +40,7 @@ public class ServiceFactoryTest {
 
     @Before public void setup() {
         when(configuration.getBaseUrl()).thenReturn("https://someapi.tapglue.com");
-        serviceFactory = new ServiceFactory(configuration);
+        serviceFactory = new ServiceFactory(configuration, new Transport(configuration));
     }
 
     @Test
@@ -0,0 +1,169 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package com.tapglue.android.http;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import rx.Observable;
+import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UnreadCountWatcherTest {
+
+    @Mock
+    Network network;
+
+    TestScheduler scheduler = new TestScheduler();
+
+    //SUT
+    UnreadCountWatcher watcher;
+
+    @Before
+    public void setUp() {
+        when(network.retrieveUnreadCount()).thenReturn(Observable.just(3L));
+        watcher = new UnreadCountWatcher(network, 1000, 8000, scheduler);
+    }
+
+    @Test
+    public void pollsOnSubscribe() {
+        TestSubscriber<Long> ts = new TestSubscriber<>();
+
+        watcher.watch().subscribe(ts);
+        scheduler.triggerActions();
+
+        ts.assertValue(3L);
+    }
+
+    @Test
+    public void pollsOnScheduler() {
+        TestSubscriber<Long> ts = new TestSubscriber<>();
+
+        watcher.watch().subscribe(ts);
+
+        ts.assertNoValues();
+        scheduler.triggerActions();
+        ts.assertValue(3L);
+    }
+
+    @Test
+    public void backsOffWhileCountIsStable() {
+        watcher.watch().subscribe(new TestSubscriber<Long>());
+
+        scheduler.advanceTimeBy(1000, TimeUnit.MILLISECONDS);
+        scheduler.advanceTimeBy(2000, TimeUnit.MILLISECONDS);
+
+        verify(network, times(3)).retrieveUnreadCount();
+        assertThat(watcher.getInterval(), equalTo(4000L));
+    }
+
+    @Test
+    public void intervalIsCapped() {
+        watcher.watch().subscribe(new TestSubscriber<Long>());
+
+        scheduler.advanceTimeBy(60000, TimeUnit.MILLISECONDS);
+
+        assertThat(watcher.getInterval(), equalTo(8000L));
+    }
+
+    @Test
+    public void changedCountResetsInterval() {
+        TestSubscriber<Long> ts = new TestSubscriber<>();
+        watcher.watch().subscribe(ts);
+        scheduler.advanceTimeBy(1000, TimeUnit.MILLISECONDS);
+        when(network.retrieveUnreadCount()).thenReturn(Observable.just(4L));
+
+        scheduler.advanceTimeBy(2000, TimeUnit.MILLISECONDS);
+
+        ts.assertValues(3L, 4L);
+        assertThat(watcher.getInterval(), equalTo(1000L));
+    }
+
+    @Test
+    public void errorsBackOff() {
+        when(network.retrieveUnreadCount()).thenReturn(Observable.<Long>error(new IOException()));
+        TestSubscriber<Long> ts = new TestSubscriber<>();
+
+        watcher.watch().subscribe(ts);
+        scheduler.triggerActions();
+
+        ts.assertNoErrors();
+        assertThat(watcher.getInterval(), equalTo(2000L));
+    }
+
+    @Test
+    public void activityPollsRightAway() {
+        watcher.watch().subscribe(new TestSubscriber<Long>());
+        scheduler.advanceTimeBy(1000, TimeUnit.MILLISECONDS);
+
+        watcher.activityDetected();
+        scheduler.triggerActions();
+
+        verify(network, times(3)).retrieveUnreadCount();
+        assertThat(watcher.getInterval(), equalTo(2000L));
+    }
+
+    @Test
+    public void backgroundPausesPolling() {
+        watcher.watch().subscribe(new TestSubscriber<Long>());
+        scheduler.triggerActions();
+
+        watcher.setForeground(false);
+        scheduler.advanceTimeBy(60000, TimeUnit.MILLISECONDS);
+
+        verify(network, times(1)).retrieveUnreadCount();
+    }
+
+    @Test
+    public void foregroundPollsRightAway() {
+        watcher.watch().subscribe(new TestSubscriber<Long>());
+        scheduler.triggerActions();
+        watcher.setForeground(false);
+
+        watcher.setForeground(true);
+        scheduler.triggerActions();
+
+        verify(network, times(2)).retrieveUnreadCount();
+    }
+
+    @Test
+    public void subscribersShareOnePoller() {
+        TestSubscriber<Long> first = new TestSubscriber<>();
+        TestSubscriber<Long> second = new TestSubscriber<>();
+
+        watcher.watch().subscribe(first);
+        watcher.watch().subscribe(second);
+        scheduler.advanceTimeBy(1000, TimeUnit.MILLISECONDS);
+
+        verify(network, times(2)).retrieveUnreadCount();
+        second.assertValue(3L);
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.http;
+
+import com.tapglue.android.entities.Like;
+import com.tapglue.android.internal.MutationLog;
+import com.tapglue.android.internal.PendingMutation;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import rx.Observable;
+import rx.functions.Action0;
+import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WriteBehindQueueTest {
+
+    private static final String POST_ID = "postId";
+
+    @Mock
+    Network network;
+    @Mock
+    MutationLog log;
+    @Mock
+    Action0 rollback;
+    @Mock
+    Like like;
+
+    PendingMutation mutation = PendingMutation.like(POST_ID);
+
+    //SUT
+    WriteBehindQueue queue;
+
+    @Before
+    public void setUp() {
+        queue = new WriteBehindQueue(network, log, 3, 0, Schedulers.immediate());
+    }
+
+    @Test
+    public void acceptedMutationCompletesAndLeavesLog() {
+        when(network.createLike(POST_ID)).thenReturn(Observable.just(like));
+        TestSubscriber<Void> ts = new TestSubscriber<>();
+
+        queue.enqueue(mutation, rollback).subscribe(ts);
+        ts.awaitTerminalEvent();
+
+        ts.assertCompleted();
+        verify(log).add(mutation);
+        verify(log).remove(mutation);
+        verify(rollback, never()).call();
+    }
+
+    @Test
+    public void rejectedMutationIsRolledBack() {
+        TapglueError error = new TapglueError(1000, "rejected");
+        when(network.createLike(POST_ID)).thenReturn(Observable.<Like>error(error));
+        TestSubscriber<Void> ts = new TestSubscriber<>();
+
+        queue.enqueue(mutation, rollback).subscribe(ts);
+        ts.awaitTerminalEvent();
+
+        ts.assertError(error);
+        verify(rollback).call();
+        verify(log).remove(mutation);
+        verify(network, times(1)).createLike(POST_ID);
+    }
+
+    @Test
+    public void unavailableServerKeepsMutation() {
+        TapglueError error = new TapglueError(1000, "unavailable").withStatus(503);
+        when(network.createLike(POST_ID)).thenReturn(Observable.<Like>error(error));
+        TestSubscriber<Void> ts = new TestSubscriber<>();
+
+        queue.enqueue(mutation, rollback).subscribe(ts);
+
+        verify(network, times(3)).createLike(POST_ID);
+        verify(rollback, never()).call();
+        verify(log, never()).remove(mutation);
+        ts.assertNoTerminalEvent();
+    }
+
+    @Test
+    public void connectionProblemsAreRetried() {
+        when(network.createLike(POST_ID)).thenReturn(Observable.<Like>error(new IOException()))
+            .thenReturn(Observable.just(like));
+        TestSubscriber<Void> ts = new TestSubscriber<>();
+
+        queue.enqueue(mutation, rollback).subscribe(ts);
+        ts.awaitTerminalEvent();
+
+        ts.assertCompleted();
+        verify(network, times(2)).createLike(POST_ID);
+    }
+
+    @Test
+    public void exhaustedRetriesStayLogged() {
+        when(network.createLike(POST_ID)).thenReturn(Observable.<Like>error(new IOException()));
+        TestSubscriber<Void> ts = new TestSubscriber<>();
+
+        queue.enqueue(mutation, rollback).subscribe(ts);
+
+        verify(network, times(3)).createLike(POST_ID);
+        verify(rollback, never()).call();
+        verify(log, never()).remove(mutation);
+        ts.assertNoTerminalEvent();
+    }
+
+    @Test
+    public void replaySettlesMutationThatRanOutOfRetries() {
+        when(network.createLike(POST_ID)).thenReturn(Observable.<Like>error(new IOException()));
+        TestSubscriber<Void> ts = new TestSubscriber<>();
+        queue.enqueue(mutation, rollback).subscribe(ts);
+        when(log.getAll()).thenReturn(Collections.singletonList(mutation));
+        when(network.createLike(POST_ID)).thenReturn(Observable.just(like));
+
+        queue.replay();
+
+        ts.assertCompleted();
+        verify(log).remove(mutation);
+    }
+
+    @Test
+    public void replayKeepsRollbackOfMutationThatRanOutOfRetries() {
+        when(network.createLike(POST_ID)).thenReturn(Observable.<Like>error(new IOException()));
+        TestSubscriber<Void> ts = new TestSubscriber<>();
+        queue.enqueue(mutation, rollback).subscribe(ts);
+        when(log.getAll()).thenReturn(Collections.singletonList(mutation));
+        TapglueError error = new TapglueError(1000, "rejected");
+        when(network.createLike(POST_ID)).thenReturn(Observable.<Like>error(error));
+
+        queue.replay();
+
+        ts.assertError(error);
+        verify(rollback).call();
+    }
+
+    @Test
+    public void replaySendsLoggedMutations() {
+        when(log.getAll()).thenReturn(Collections.singletonList(mutation));
+        when(network.createLike(POST_ID)).thenReturn(Observable.just(like));
+
+        queue.replay();
+
+        verify(network).createLike(POST_ID);
+    }
+
+    @Test
+    public void replaySkipsQueuedMutations() {
+        when(network.createLike(POST_ID)).thenReturn(Observable.<Like>never());
+        when(log.getAll()).thenReturn(Collections.singletonList(mutation));
+
+        queue.enqueue(mutation, rollback);
+        queue.replay();
+
+        verify(network, times(1)).createLike(POST_ID);
+    }
+}
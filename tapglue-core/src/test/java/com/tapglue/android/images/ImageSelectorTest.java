@@ -0,0 +1,84 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package com.tapglue.android.images;
+
+import com.tapglue.android.entities.User;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+
+public class ImageSelectorTest {
+
+    ImageVariant small = new ImageVariant("small", 50, 50);
+    ImageVariant medium = new ImageVariant("medium", 200, 200);
+    ImageVariant large = new ImageVariant("large", 1000, 1000);
+    ImageVariant unsized = new ImageVariant("unsized", 0, 0);
+
+    @Test
+    public void picksSmallestCoveringVariant() {
+        List<ImageVariant> variants = Arrays.asList(large, small, medium);
+
+        assertThat(ImageSelector.bestFit(variants, 120, 100).getUrl(), equalTo("medium"));
+    }
+
+    @Test
+    public void picksLargestWhenNoneCovers() {
+        List<ImageVariant> variants = Arrays.asList(small, medium);
+
+        assertThat(ImageSelector.bestFit(variants, 500, 500).getUrl(), equalTo("medium"));
+    }
+
+    @Test
+    public void prefersSizedVariants() {
+        List<ImageVariant> variants = Arrays.asList(unsized, small);
+
+        assertThat(ImageSelector.bestFit(variants, 500, 500).getUrl(), equalTo("small"));
+    }
+
+    @Test
+    public void fallsBackToUnsizedVariant() {
+        assertThat(ImageSelector.bestFit(Collections.singletonList(unsized), 10, 10).getUrl(),
+            equalTo("unsized"));
+    }
+
+    @Test
+    public void noVariantsReturnsNull() {
+        assertThat(ImageSelector.bestFit(Collections.<ImageVariant>emptyList(), 10, 10), nullValue());
+        assertThat(ImageSelector.bestFit((User) null, 10, 10), nullValue());
+    }
+
+    @Test
+    public void picksUserImage() {
+        User user = new User("name", "password");
+        Map<String, User.Image> images = new HashMap<>();
+        images.put("thumbnail", new User.Image("thumb", 64, 64));
+        images.put("original", new User.Image("original", 2048, 2048));
+        user.setImages(images);
+
+        assertThat(ImageSelector.bestFit(user, 48, 48).getUrl(), equalTo("thumb"));
+    }
+}
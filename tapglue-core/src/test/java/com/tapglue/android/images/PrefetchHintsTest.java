@@ -0,0 +1,92 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package com.tapglue.android.images;
+
+import com.google.gson.Gson;
+import com.tapglue.android.entities.Event;
+import com.tapglue.android.entities.Post;
+import com.tapglue.android.entities.Post.Attachment;
+import com.tapglue.android.entities.User;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PrefetchHintsTest {
+
+    @Test
+    public void listsPostImagesInRowOrder() {
+        List<Post> posts = Arrays.asList(post("a", "a.png"), post("b", "b.png"), post("c", "c.png"));
+
+        assertThat(PrefetchHints.forPosts(posts, 1, 5, 48),
+            equalTo(Arrays.asList("avatar-b", "b.png", "avatar-c", "c.png")));
+    }
+
+    @Test
+    public void listsEveryUrlOnce() {
+        List<Post> posts = Arrays.asList(post("a", "a.png"), post("a", "b.png"));
+
+        assertThat(PrefetchHints.forPosts(posts, 0, 2, 48),
+            equalTo(Arrays.asList("avatar-a", "a.png", "b.png")));
+    }
+
+    @Test
+    public void rowsOutsideFeedAreIgnored() {
+        List<Post> posts = Collections.singletonList(post("a", "a.png"));
+
+        assertThat(PrefetchHints.forPosts(posts, 3, 5, 48).isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void listsBestFittingEventImage() {
+        Event event = new Gson().fromJson("{\"images\":{"
+            + "\"small\":{\"url\":\"small\",\"width\":100,\"height\":100},"
+            + "\"large\":{\"url\":\"large\",\"width\":800,\"height\":800}}}", Event.class);
+        event.setUser(user("a"));
+
+        assertThat(PrefetchHints.forEvents(Collections.singletonList(event), 0, 1, 48, 90, 90),
+            equalTo(Arrays.asList("avatar-a", "small")));
+    }
+
+    private static Post post(String userName, String url) {
+        Map<String, String> contents = new HashMap<>();
+        contents.put("en", url);
+        Post post = mock(Post.class);
+        when(post.getUser()).thenReturn(user(userName));
+        when(post.getAttachments()).thenReturn(Collections.singletonList(
+            new Attachment(contents, Attachment.Type.URL, "image")));
+        return post;
+    }
+
+    private static User user(String name) {
+        User user = new User(name, "password");
+        Map<String, User.Image> images = new HashMap<>();
+        images.put("thumbnail", new User.Image("avatar-" + name, 64, 64));
+        user.setImages(images);
+        return user;
+    }
+}
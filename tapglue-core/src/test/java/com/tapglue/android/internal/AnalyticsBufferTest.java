@@ -0,0 +1,167 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.internal;
+
+import com.tapglue.android.entities.AnalyticsEvent;
+import com.tapglue.android.platform.KeyValueStore;
+import com.tapglue.android.platform.Storage;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AnalyticsBufferTest {
+
+    @Mock
+    Storage storage;
+    @Mock
+    KeyValueStore values;
+
+    AnalyticsEvent first = new AnalyticsEvent("first");
+    AnalyticsEvent second = new AnalyticsEvent("second");
+    AnalyticsEvent third = new AnalyticsEvent("third");
+
+    //SUT
+    AnalyticsBuffer buffer;
+
+    @Before
+    public void setUp() {
+        when(storage.open(anyString())).thenReturn(values);
+        buffer = new AnalyticsBuffer(storage, 2);
+    }
+
+    @Test
+    public void keepsEventsInMemoryUntilFull() {
+        buffer.add(first);
+        buffer.add(second);
+
+        verify(values, never()).putString(anyString(), anyString());
+        assertThat(buffer.size(), equalTo(2));
+    }
+
+    @Test
+    public void sizeDoesNotReadDisk() {
+        buffer.add(first);
+
+        assertThat(buffer.size(), equalTo(1));
+        verify(values, never()).getString(anyString());
+    }
+
+    @Test
+    public void addingToFullRingDoesNotTouchDisk() {
+        buffer.add(first);
+        buffer.add(second);
+        buffer.add(third);
+
+        verify(values, never()).putString(anyString(), anyString());
+        verify(values, never()).getString(anyString());
+        assertThat(buffer.size(), equalTo(3));
+    }
+
+    @Test
+    public void spillMovesOverflowToDisk() {
+        buffer.add(first);
+        buffer.add(second);
+        buffer.add(third);
+
+        buffer.spill();
+
+        verify(values).putString(anyString(), anyString());
+        assertThat(buffer.size(), equalTo(3));
+    }
+
+    @Test
+    public void spillWithoutOverflowDoesNotTouchDisk() {
+        buffer.add(first);
+
+        assertThat(buffer.spill(), equalTo(0));
+        verify(values, never()).getString(anyString());
+    }
+
+    @Test
+    public void spilledEventsAreTakenFirst() {
+        buffer.add(first);
+        buffer.add(second);
+        buffer.add(third);
+        buffer.spill();
+
+        assertThat(buffer.take(3), equalTo(Arrays.asList(first, second, third)));
+    }
+
+    @Test
+    public void takesOldestEventsFirst() {
+        buffer.add(first);
+        buffer.add(second);
+        buffer.add(third);
+
+        assertThat(buffer.take(2), equalTo(Arrays.asList(first, second)));
+        assertThat(buffer.take(2), equalTo(Arrays.asList(third)));
+        assertThat(buffer.size(), equalTo(0));
+    }
+
+    @Test
+    public void restoredEventsAreTakenFirst() {
+        buffer.add(first);
+        buffer.add(second);
+        List<AnalyticsEvent> batch = buffer.take(1);
+        buffer.add(third);
+
+        buffer.restore(batch);
+
+        assertThat(buffer.take(3), equalTo(Arrays.asList(first, second, third)));
+    }
+
+    @Test
+    public void spillDropsOldestEventsOnDisk() {
+        for(int i = 0; i < AnalyticsBuffer.MAX_OVERFLOW + 1; i++) {
+            buffer.add(new AnalyticsEvent("old"));
+        }
+        buffer.spill();
+        buffer.add(first);
+        buffer.add(second);
+        buffer.add(third);
+
+        assertThat(buffer.spill(), equalTo(2));
+        assertThat(buffer.size(), equalTo(AnalyticsBuffer.MAX_OVERFLOW + 2));
+        List<AnalyticsEvent> events = buffer.take(AnalyticsBuffer.MAX_OVERFLOW + 2);
+        assertThat(events.subList(events.size() - 3, events.size()), equalTo(Arrays.asList(first, second, third)));
+    }
+
+    @Test
+    public void dropsOldestEventsWhenOverflowIsFull() {
+        int dropped = 0;
+        for(int i = 0; i < AnalyticsBuffer.MAX_OVERFLOW + 3; i++) {
+            dropped += buffer.add(new AnalyticsEvent("event"));
+        }
+
+        assertThat(dropped, equalTo(2));
+        assertThat(buffer.size(), equalTo(AnalyticsBuffer.MAX_OVERFLOW + 1));
+    }
+}
@@ -1,6 +1,6 @@
 package com.tapglue.android.internal;
 
-import android.content.Context;
+import com.tapglue.android.platform.Storage;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -21,7 +21,7 @@ public class NotificationServiceIdStoreTest {
 
     private static final String ID = "someId";
     @Mock
-    Context context;
+    Storage storage;
     @Mock
     Store<String> internalStore;
     @Mock
@@ -33,7 +33,7 @@ public class NotificationServiceIdStoreTest {
 
     @Before
     public void setUp() {
-        store = new NotificationServiceIdStore(context);
+        store = new NotificationServiceIdStore(storage);
         store.store = internalStore;
     }
 
@@ -0,0 +1,214 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package com.tapglue.android.internal;
+
+import com.google.gson.Gson;
+import com.tapglue.android.entities.User;
+import com.tapglue.android.platform.KeyValueStore;
+import com.tapglue.android.platform.Storage;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import rx.Observable;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SessionRecordTest {
+
+    @Mock
+    Storage storage;
+    @Mock
+    KeyValueStore tokenValues;
+    @Mock
+    KeyValueStore profileValues;
+
+    //SUT
+    SessionRecord record;
+
+    @Before
+    public void setUp() {
+        when(storage.open("sessionToken")).thenReturn(tokenValues);
+        when(storage.open("user")).thenReturn(profileValues);
+
+        record = new SessionRecord(storage);
+    }
+
+    @Test
+    public void storesTokenSeparateFromProfile() {
+        Observable.just(user("token", "name")).map(record.store()).subscribe();
+
+        verify(tokenValues).putString("token", "token");
+        ArgumentCaptor<String> profile = ArgumentCaptor.forClass(String.class);
+        verify(profileValues).putString(eq("profile"), profile.capture());
+        assertThat(profile.getValue(), not(containsString("token")));
+    }
+
+    @Test
+    public void skipsUnchangedProfile() {
+        Observable.just(user("token", "name")).map(record.store()).subscribe();
+        stubStoredProfileHash();
+
+        Observable.just(user("token", "name")).map(record.store()).subscribe();
+
+        verify(profileValues, times(1)).putString(eq("profile"), anyString());
+    }
+
+    @Test
+    public void writesOnlyTokenWhenTokenChanges() {
+        Observable.just(user("token", "name")).map(record.store()).subscribe();
+        stubStoredProfileHash();
+        when(tokenValues.getString("token")).thenReturn("token");
+
+        Observable.just(user("other", "name")).map(record.store()).subscribe();
+
+        verify(tokenValues).putString("token", "other");
+        verify(profileValues, times(1)).putString(eq("profile"), anyString());
+    }
+
+    @Test
+    public void writesChangedProfile() {
+        Observable.just(user("token", "name"), user("token", "other")).map(record.store()).subscribe();
+
+        verify(profileValues, times(2)).putString(eq("profile"), anyString());
+    }
+
+    @Test
+    public void skipsProfilePersistedByOtherRecord() {
+        User user = user("token", "name");
+        Observable.just(user).map(record.store()).subscribe();
+        stubStoredProfileHash();
+        when(tokenValues.getString("token")).thenReturn("token");
+        record = new SessionRecord(storage);
+
+        Observable.just(user).map(record.store()).subscribe();
+
+        verify(profileValues, times(1)).putString(eq("profile"), anyString());
+        verify(tokenValues, times(1)).putString("token", "token");
+    }
+
+    @Test
+    public void readsTokenIntoProfile() {
+        when(tokenValues.getString("token")).thenReturn("token");
+        when(profileValues.getString("profile")).thenReturn("{\"id_string\":\"1\",\"user_name\":\"name\"}");
+
+        User user = record.get().toBlocking().single();
+
+        assertThat(user.getSessionToken(), equalTo("token"));
+        assertThat(user.getUserName(), equalTo("name"));
+    }
+
+    @Test
+    public void readsLegacyRecord() {
+        String legacy = new Gson().toJson(user("token", "name"));
+        when(tokenValues.getString("object")).thenReturn(legacy);
+        when(profileValues.getString("object")).thenReturn(legacy);
+
+        User user = record.get().toBlocking().single();
+
+        assertThat(user.getSessionToken(), equalTo("token"));
+        assertThat(user.getUserName(), equalTo("name"));
+    }
+
+    @Test
+    public void dropsLegacyRecordOnWrite() {
+        String legacy = new Gson().toJson(user("token", "name"));
+        when(tokenValues.getString("object")).thenReturn(legacy);
+        when(profileValues.getString("object")).thenReturn(legacy);
+
+        Observable.just(user("other", "name")).map(record.store()).subscribe();
+
+        verify(tokenValues).clear();
+        verify(profileValues).clear();
+    }
+
+    @Test
+    public void dropsLegacyRecordOnFirstWriteOfSameUser() {
+        String legacy = new Gson().toJson(user("token", "name"));
+        when(tokenValues.getString("object")).thenReturn(legacy);
+        when(profileValues.getString("object")).thenReturn(legacy);
+
+        Observable.just(user("token", "name")).map(record.store()).subscribe();
+
+        verify(tokenValues).clear();
+        verify(tokenValues).putString("token", "token");
+        verify(profileValues).clear();
+        verify(profileValues).putString(eq("profile"), anyString());
+    }
+
+    @Test
+    public void keepsLegacyTokenWhenUserHasNone() {
+        String legacy = new Gson().toJson(user("token", "name"));
+        when(tokenValues.getString("object")).thenReturn(legacy);
+
+        Observable.just(user(null, "name")).map(record.store()).subscribe();
+
+        verify(tokenValues).clear();
+        verify(tokenValues).putString("token", "token");
+    }
+
+    @Test
+    public void isEmptyWithoutRecord() {
+        assertThat(record.isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void clearRemovesTokenAndProfile() {
+        Observable.just(user("token", "name")).map(record.store()).subscribe();
+
+        record.clear().call();
+
+        verify(tokenValues).clear();
+        verify(profileValues).clear();
+        assertThat(record.get().isEmpty().toBlocking().single(), equalTo(true));
+    }
+
+    @Test
+    public void keepsTokenWhenUserHasNone() {
+        Observable.just(user(null, "name")).map(record.store()).subscribe();
+
+        verify(tokenValues, never()).putString(anyString(), anyString());
+    }
+
+    private void stubStoredProfileHash() {
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        verify(profileValues).putString(eq("profileHash"), hash.capture());
+        when(profileValues.getString("profileHash")).thenReturn(hash.getValue());
+    }
+
+    private static User user(String token, String name) {
+        Gson gson = new Gson();
+        String json = "{\"id_string\":\"1\",\"user_name\":" + gson.toJson(name)
+            + (token == null ? "" : ",\"session_token\":" + gson.toJson(token)) + "}";
+        return gson.fromJson(json, User.class);
+    }
+}
@@ -16,9 +16,8 @@
 
 package com.tapglue.android.internal;
 
-import android.content.Context;
-
 import com.tapglue.android.entities.User;
+import com.tapglue.android.platform.Storage;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -39,9 +38,9 @@ import static org.mockito.Mockito.when;
 public class SessionStoreTest {
 
     @Mock
-    Context context;
+    Storage storage;
     @Mock
-    Store<User> internalStore;
+    SessionRecord internalStore;
     @Mock
     Func1<User,User> storeFunc;
     @Mock
@@ -54,7 +53,7 @@ public class SessionStoreTest {
 
     @Before
     public void setUp() {
-        store = new SessionStore(context);
+        store = new SessionStore(storage);
         store.store = internalStore;
     }
 
@@ -78,4 +77,11 @@ public class SessionStoreTest {
 
         assertThat(store.clear(), equalTo(clearAction));
     }
+
+    @Test
+    public void usesSharedRecord() {
+        when(internalStore.get()).thenReturn(getObservable);
+
+        assertThat(new SessionStore(internalStore).get(), equalTo(getObservable));
+    }
 }
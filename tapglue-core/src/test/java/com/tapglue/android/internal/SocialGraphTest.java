@@ -0,0 +1,99 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.internal;
+
+import com.tapglue.android.entities.User;
+import com.tapglue.android.internal.SocialGraph.Relation;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SocialGraphTest {
+
+    @Mock
+    User friend;
+    @Mock
+    User stranger;
+
+    //SUT
+    SocialGraph graph = new SocialGraph();
+
+    @Before
+    public void setUp() {
+        when(friend.getId()).thenReturn("1");
+        when(stranger.getId()).thenReturn("2");
+    }
+
+    @Test
+    public void addedIdIsMember() {
+        graph.add(Relation.FOLLOWING, "1");
+
+        assertThat(graph.isFollowing("1"), equalTo(true));
+        assertThat(graph.isFollower("1"), equalTo(false));
+    }
+
+    @Test
+    public void removedIdIsNoMember() {
+        graph.add(Relation.FRIEND, "1");
+
+        graph.remove(Relation.FRIEND, "1");
+
+        assertThat(graph.isFriend("1"), equalTo(false));
+    }
+
+    @Test
+    public void filterKeepsOnlyRelatedUsers() {
+        graph.addAll(Relation.FRIEND, Collections.singletonList(friend));
+
+        assertThat(graph.filter(Relation.FRIEND, Arrays.asList(stranger, friend)),
+            equalTo(Collections.singletonList(friend)));
+    }
+
+    @Test
+    public void replaceMarksGraphComplete() {
+        graph.add(Relation.FOLLOWER, "2");
+
+        graph.replace(Collections.singletonList(friend), Collections.<User>emptyList(),
+            Collections.<User>emptyList());
+
+        assertThat(graph.isComplete(), equalTo(true));
+        assertThat(graph.isFollowing("1"), equalTo(true));
+        assertThat(graph.isFollower("2"), equalTo(false));
+    }
+
+    @Test
+    public void clearResetsGraph() {
+        graph.replace(Collections.singletonList(friend), Collections.singletonList(friend),
+            Collections.singletonList(friend));
+
+        graph.clear().call();
+
+        assertThat(graph.isComplete(), equalTo(false));
+        assertThat(graph.size(Relation.FRIEND), equalTo(0));
+    }
+}
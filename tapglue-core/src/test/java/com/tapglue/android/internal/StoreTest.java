@@ -17,13 +17,11 @@
 package com.tapglue.android.internal;
 
 import com.google.gson.Gson;
-
-import android.content.SharedPreferences;
+import com.tapglue.android.platform.KeyValueStore;
 
 import org.junit.Before;
 import org.junit.runner.RunWith;
 import org.junit.Test;
-import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
@@ -34,7 +32,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsCollectionContaining.hasItems;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.mockito.Matchers.eq;
-import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -43,9 +41,7 @@ public class StoreTest {
     private static final long ID = 10;
 
     @Mock
-    public SharedPreferences prefs;
-    @Mock
-    public SharedPreferences.Editor editor;
+    public KeyValueStore values;
 
     TestEntity entity = new TestEntity(ID);
 
@@ -53,8 +49,7 @@ public class StoreTest {
     Store<TestEntity> store;
     @Before
     public void setUp() {
-        when(prefs.edit()).thenReturn(editor);
-        store = new Store<>(prefs, TestEntity.class);
+        store = new Store<>(values, TestEntity.class);
     }
 
     @Test
@@ -82,10 +77,7 @@ public class StoreTest {
     public void entityGetsPersisted() {
         Observable.just(entity).map(store.store()).subscribe();
 
-        InOrder inOrder = inOrder(editor);
-
-        inOrder.verify(editor).putString(eq("object"), eq(new Gson().toJson(entity)));
-        inOrder.verify(editor).apply();
+        verify(values).putString(eq("object"), eq(new Gson().toJson(entity)));
     }
 
     @Test
@@ -102,7 +94,7 @@ public class StoreTest {
 
     @Test
     public void getEntityReturnsPersistedWhenNull() {
-        when(prefs.getString("object", null)).thenReturn(new Gson().toJson(entity));
+        when(values.getString("object")).thenReturn(new Gson().toJson(entity));
         TestSubscriber<TestEntity> ts = new TestSubscriber<>();
 
         store.get().subscribe(ts);
@@ -112,14 +104,14 @@ public class StoreTest {
 
     @Test
     public void isEmptyReturnsFalse() {
-        when(prefs.getString("object", null)).thenReturn(new Gson().toJson(entity));
+        when(values.getString("object")).thenReturn(new Gson().toJson(entity));
 
         assertThat(store.isEmpty(), equalTo(false));
     }
 
     @Test
     public void isEmptyReturnsTrue() {
-        when(prefs.getString("object", null)).thenReturn(null);
+        when(values.getString("object")).thenReturn(null);
 
         assertThat(store.isEmpty(), equalTo(true));
     }
@@ -16,10 +16,9 @@
 
 package com.tapglue.android.internal;
 
-import android.content.Context;
-
 import com.tapglue.android.internal.Store;
 import com.tapglue.android.internal.UUIDStore;
+import com.tapglue.android.platform.Storage;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -40,7 +39,7 @@ import static org.mockito.Mockito.*;
 public class UUIDStoreTest {
 
     @Mock
-    Context context;
+    Storage storage;
     @Mock
     Store<String> internalStore;
     @Mock
@@ -53,7 +52,7 @@ public class UUIDStoreTest {
     public void setUp() {
         when(internalStore.store()).thenReturn(storeFunc);
 
-        store = new UUIDStore(context);
+        store = new UUIDStore(storage);
         store.store = internalStore;
     }
 
@@ -0,0 +1,126 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.internal;
+
+import com.tapglue.android.entities.User;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UserCacheTest {
+
+    private static final long TTL = 1000;
+
+    @Mock
+    User user;
+    @Mock
+    User secondUser;
+    @Mock
+    User thirdUser;
+
+    long now = 0;
+
+    //SUT
+    UserCache cache;
+
+    @Before
+    public void setUp() {
+        when(user.getId()).thenReturn("1");
+        when(secondUser.getId()).thenReturn("2");
+        when(thirdUser.getId()).thenReturn("3");
+        cache = new UserCache(2, TTL) {
+            @Override
+            long currentTimeMillis() {
+                return now;
+            }
+        };
+    }
+
+    @Test
+    public void returnsCachedUser() {
+        cache.put(user);
+
+        assertThat(cache.get("1"), equalTo(user));
+    }
+
+    @Test
+    public void countsHitsAndMisses() {
+        cache.put(user);
+
+        cache.get("1");
+        cache.get("2");
+
+        assertThat(cache.getHitCount(), equalTo(1L));
+        assertThat(cache.getMissCount(), equalTo(1L));
+    }
+
+    @Test
+    public void expiredEntryIsAMiss() {
+        cache.put(user);
+        now = TTL;
+
+        assertThat(cache.get("1"), nullValue());
+        assertThat(cache.size(), equalTo(0));
+    }
+
+    @Test
+    public void entryTtlOverridesDefault() {
+        cache.put(user, TTL * 10);
+        now = TTL * 5;
+
+        assertThat(cache.get("1"), equalTo(user));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        cache.put(user);
+        cache.put(secondUser);
+        cache.get("1");
+
+        cache.put(thirdUser);
+
+        assertThat(cache.get("1"), equalTo(user));
+        assertThat(cache.get("2"), nullValue());
+    }
+
+    @Test
+    public void zeroSizeDisablesCache() {
+        cache = new UserCache(0, TTL);
+
+        cache.put(user);
+
+        assertThat(cache.size(), equalTo(0));
+    }
+
+    @Test
+    public void clearRemovesEntries() {
+        cache.put(user);
+
+        cache.clear().call();
+
+        assertThat(cache.size(), equalTo(0));
+    }
+}
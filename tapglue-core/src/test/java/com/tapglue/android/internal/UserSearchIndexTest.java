@@ -0,0 +1,115 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.internal;
+
+import com.tapglue.android.entities.User;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsCollectionContaining.hasItems;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UserSearchIndexTest {
+
+    @Mock
+    User john;
+    @Mock
+    User jane;
+    @Mock
+    User other;
+
+    //SUT
+    UserSearchIndex index = new UserSearchIndex();
+
+    @Before
+    public void setUp() {
+        when(john.getId()).thenReturn("1");
+        when(john.getUserName()).thenReturn("jsmith");
+        when(john.getFirstName()).thenReturn("John");
+        when(john.getLastName()).thenReturn("Smith");
+        when(jane.getId()).thenReturn("2");
+        when(jane.getUserName()).thenReturn("janed");
+        when(jane.getFirstName()).thenReturn("Jane");
+        when(jane.getLastName()).thenReturn("Doe");
+        index.add(john);
+        index.add(jane);
+    }
+
+    @Test
+    public void matchesPrefixOfAnyName() {
+        assertThat(index.search("sm"), hasItems(john));
+        assertThat(index.search("DO"), hasItems(jane));
+        assertThat(index.search("jsm"), hasItems(john));
+    }
+
+    @Test
+    public void sharedPrefixMatchesBoth() {
+        assertThat(index.search("j"), hasItems(john, jane));
+    }
+
+    @Test
+    public void everyWordHasToMatch() {
+        assertThat(index.search("ja do").size(), equalTo(1));
+        assertThat(index.search("ja sm").size(), equalTo(0));
+    }
+
+    @Test
+    public void emptyTermReturnsNothing() {
+        assertThat(index.search(" ").size(), equalTo(0));
+    }
+
+    @Test
+    public void reindexingReplacesOldTokens() {
+        when(john.getLastName()).thenReturn("Miller");
+
+        index.add(john);
+
+        assertThat(index.search("smith").size(), equalTo(0));
+        assertThat(index.search("mil"), hasItems(john));
+        assertThat(index.size(), equalTo(2));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedUser() {
+        index = new UserSearchIndex(2);
+        index.add(john);
+        index.add(jane);
+        index.search("john");
+        when(other.getId()).thenReturn("3");
+        when(other.getUserName()).thenReturn("other");
+
+        index.add(other);
+
+        assertThat(index.size(), equalTo(2));
+        assertThat(index.search("jane").size(), equalTo(0));
+        assertThat(index.search("john"), hasItems(john));
+    }
+
+    @Test
+    public void clearRemovesUsers() {
+        index.clear().call();
+
+        assertThat(index.search("j").size(), equalTo(0));
+    }
+}
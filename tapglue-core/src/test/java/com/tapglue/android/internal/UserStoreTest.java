@@ -17,11 +17,9 @@
 package com.tapglue.android.internal;
 
 import com.tapglue.android.entities.User;
-import com.tapglue.android.internal.Store;
 import com.tapglue.android.internal.UserStore;
-
-import android.content.Context;
-import android.content.SharedPreferences;
+import com.tapglue.android.platform.KeyValueStore;
+import com.tapglue.android.platform.Storage;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -42,13 +40,11 @@ import static org.mockito.Mockito.when;
 public class UserStoreTest {
 
     @Mock
-    public Context context;
-    @Mock
-    public SharedPreferences prefs;
+    public Storage storage;
     @Mock
-    public SharedPreferences.Editor editor;
+    public KeyValueStore values;
     @Mock
-    public Store internalStore;
+    public SessionRecord internalStore;
     @Mock
     public Func1<User,User> storeFunc;
     @Mock
@@ -61,10 +57,9 @@ public class UserStoreTest {
 
     @Before
     public void setUp() {
-        when(context.getSharedPreferences("user", Context.MODE_PRIVATE)).thenReturn(prefs);
-        when(prefs.edit()).thenReturn(editor);
+        when(storage.open("user")).thenReturn(values);
 
-        store = new UserStore(context);
+        store = new UserStore(storage);
         store.store = internalStore;
     }
 
@@ -88,4 +83,11 @@ public class UserStoreTest {
 
         assertThat(store.clear(), equalTo(clearAction));
     }
+
+    @Test
+    public void usesSharedRecord() {
+        when(internalStore.get()).thenReturn(getObservable);
+
+        assertThat(new UserStore(internalStore).get(), equalTo(getObservable));
+    }
 }
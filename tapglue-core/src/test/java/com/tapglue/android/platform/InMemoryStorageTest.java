@@ -0,0 +1,47 @@
+/*
+ *  Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.tapglue.android.platform;
+
+import org.junit.Test;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class InMemoryStorageTest {
+
+    //SUT
+    InMemoryStorage storage = new InMemoryStorage();
+
+    @Test
+    public void storesWithSameNameShareValues() {
+        storage.open("name").putString("key", "value");
+
+        assertThat(storage.open("name").getString("key"), equalTo("value"));
+        assertThat(storage.open("other").getString("key"), nullValue());
+    }
+
+    @Test
+    public void clearRemovesValues() {
+        KeyValueStore store = storage.open("name");
+        store.putString("key", "value");
+
+        store.clear();
+
+        assertThat(store.getString("key"), nullValue());
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.tapglue.utils;
+
+import android.util.Log;
+
+/**
+ * Manual benchmark of the key derivation cost by iteration count. It only logs timings, so it is
+ * not part of the instrumentation tests, call {@link #runAll()} on a device to measure as the
+ * "BC" provider is only available there.
+ */
+public final class TGPasswordHasherBenchmark {
+
+    private static final String TAG = "TGPasswordHasherBenchmark";
+
+    private static final int WARMUP_ROUNDS = 3;
+
+    private static final int MEASURED_ROUNDS = 10;
+
+    private TGPasswordHasherBenchmark() {}
+
+    /**
+     * Log the cost of every measured configuration
+     *
+     * @throws Exception
+     */
+    public static void runAll() throws Exception {
+        measureIterations(1000);
+        measureIterations(10000);
+        measureIterations(100000);
+        measureRememberedPassword();
+    }
+
+    /**
+     * Hashes the same password every round, so the remembered hash is used
+     *
+     * @return microseconds per hash
+     *
+     * @throws Exception
+     */
+    public static long measureRememberedPassword() throws Exception {
+        TGPasswordHasher hasher = new TGPasswordHasher(10000);
+        hasher.hashPasswordNonStatic("password");
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            hasher.hashPasswordNonStatic("password");
+        }
+        long micros = (System.nanoTime() - start) / MEASURED_ROUNDS / 1000;
+        Log.i(TAG, "remembered: " + micros + "us/op");
+        return micros;
+    }
+
+    /**
+     * Hashes a different password every round, so the remembered hash is never used
+     *
+     * @param iterations key derivation rounds
+     *
+     * @return microseconds per hash
+     *
+     * @throws Exception
+     */
+    public static long measureIterations(int iterations) throws Exception {
+        TGPasswordHasher hasher = new TGPasswordHasher(iterations);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            hasher.hashPasswordNonStatic("warmup" + i);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            hasher.hashPasswordNonStatic("password" + i);
+        }
+        long micros = (System.nanoTime() - start) / MEASURED_ROUNDS / 1000;
+        Log.i(TAG, iterations + " iterations: " + micros + "us/op");
+        return micros;
+    }
+}
@@ -21,6 +21,10 @@ import android.test.suitebuilder.annotation.SmallTest;
 
 import junit.framework.TestCase;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
 public class TGPasswordHasherTest extends TestCase {
 
     @SmallTest
@@ -30,4 +34,31 @@ public class TGPasswordHasherTest extends TestCase {
         assertEquals(TGPasswordHasher.hashPassword("viJyFK%XuW=&K6mEh8mgA>eVjMAMFUzGcnn7yv"), "19b38a4d4fd0fbb198828da47f6585523d472feb");
     }
 
-}
\ No newline at end of file
+    @SmallTest
+    public void test02() throws InterruptedException {
+        final AtomicReference<String> hash = new AtomicReference<>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        TGPasswordHasher.hashPasswordAsync("password", new TGPasswordHasher.HashCallback() {
+            @Override
+            public void onPasswordHashed(String result) {
+                hash.set(result);
+                latch.countDown();
+            }
+        });
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(hash.get(), "89b1af261b009d79687506151b0367edabaae9ae");
+    }
+
+    @SmallTest
+    public void test03() throws Exception {
+        TGPasswordHasher hasher = new TGPasswordHasher(1000);
+        String first = hasher.hashPasswordNonStatic("password");
+        String second = hasher.hashPasswordNonStatic("LongPasswordWithMoreText123");
+
+        assertFalse(first.equals(second));
+        assertEquals(first, hasher.hashPasswordNonStatic("password"));
+        assertEquals(second, hasher.hashPasswordNonStatic("LongPasswordWithMoreText123"));
+    }
+
+}
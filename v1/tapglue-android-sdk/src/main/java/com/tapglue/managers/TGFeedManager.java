@@ -30,19 +30,36 @@ import com.tapglue.networking.requests.TGRequestCallback;
 public interface TGFeedManager {
 
     /**
-     * Get feed from cache
+     * Get first page of the feed from cache
      *
      * @param callback
      */
     void cachedFeedForCurrentUser(@NonNull final TGRequestCallback<TGFeed> callback);
 
     /**
-     * Return cached feed
+     * Return first page of the cached feed, see {@link #getCachedFeedPage(int, TGRequestCallback)}
      *
      * @param callback
      */
     void getCachedFeedIfAvailable(@NonNull final TGRequestCallback<TGFeed> callback);
 
+    /**
+     * Return a page of the cached feed. The first page holds the feed with its newest events and
+     * posts, every following page only the next events and posts.
+     *
+     * @param page     index of the page, 0 for the newest
+     * @param callback
+     */
+    void getCachedFeedPage(int page, @NonNull final TGRequestCallback<TGFeed> callback);
+
+    /**
+     * Filter the events of the cached feed without a network request
+     *
+     * @param whereParameters
+     * @param callback
+     */
+    void cachedEventsForCurrentUser(@Nullable TGQuery whereParameters, @NonNull final TGRequestCallback<TGEventsList> callback);
+
     /**
      * Get all events and posts associated with current user
      *
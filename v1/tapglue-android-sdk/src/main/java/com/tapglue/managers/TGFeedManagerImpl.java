@@ -23,26 +23,99 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 import com.google.gson.reflect.TypeToken;
 import com.tapglue.Tapglue;
+import com.tapglue.model.TGEvent;
 import com.tapglue.model.TGEventsList;
 import com.tapglue.model.TGFeed;
 import com.tapglue.model.TGFeedCount;
 import com.tapglue.model.TGPostsList;
+import com.tapglue.model.queries.TGEventIndex;
 import com.tapglue.model.queries.TGQuery;
+import com.tapglue.networking.TGFeedPageCache;
+import com.tapglue.networking.TGFeedPages;
 import com.tapglue.networking.requests.TGRequestCallback;
 import com.tapglue.networking.requests.TGRequestErrorType;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
 public class TGFeedManagerImpl extends AbstractTGManager implements TGFeedManager {
 
     private static final String CACHE_KEY = "FEED_CACHE";
 
+    private static final String CACHE_FILE = "tapglue_feed.cache";
+
+    private static final int MAX_CACHED_RESULTS = 32;
+
+    /**
+     * Events and posts per page of the feed cache
+     */
+    private static final int CACHE_PAGE_SIZE = 50;
+
+    private static final String[] CACHE_PAGE_LISTS = {"events", "posts"};
+
+    /**
+     * Single background thread writing the feed cache
+     */
+    private static final ExecutorService CACHE_EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @NonNull
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            Thread thread = new Thread(runnable, "TGFeedCache");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    /**
+     * Cache of the feed pages, created on first use
+     */
+    @Nullable
+    private TGFeedPageCache pageCache;
+
+    /**
+     * Last write queued on {@link #CACHE_EXECUTOR}
+     */
+    @Nullable
+    private Future<?> pendingWrite;
+
+    /**
+     * Index over the events of the cached feed, built on first use
+     */
+    @Nullable
+    private TGEventIndex cachedEventIndex;
+
+    /**
+     * Results of queries against the cached feed by canonical query, least recently used results
+     * are dropped once {@link #MAX_CACHED_RESULTS} is reached
+     */
+    @NonNull
+    private final Map<String, List<TGEvent>> cachedEventResults = new LinkedHashMap<String, List<TGEvent>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<TGEvent>> eldest) {
+            return size() > MAX_CACHED_RESULTS;
+        }
+    };
+
     public TGFeedManagerImpl(Tapglue instance) {
         super(instance);
     }
 
     /**
-     * Get feed from cache
+     * Get first page of the feed from cache
      *
      * @param callback
      */
@@ -56,22 +129,48 @@ public class TGFeedManagerImpl extends AbstractTGManager implements TGFeedManage
     }
 
     /**
-     * Return cached feed
+     * Return first page of the cached feed
      *
      * @param callback
      */
     @Override
     public void getCachedFeedIfAvailable(@NonNull final TGRequestCallback<TGFeed> callback) {
-        SharedPreferences cache = instance.getContext().getSharedPreferences(TGFeedManagerImpl.class.toString(), Context.MODE_PRIVATE);
-        if (!cache.contains(CACHE_KEY)) {
+        getCachedFeedPage(0, callback);
+    }
+
+    /**
+     * Return a page of the cached feed, only this page is read
+     *
+     * @param page
+     * @param callback
+     */
+    @Override
+    public void getCachedFeedPage(int page, @NonNull final TGRequestCallback<TGFeed> callback) {
+        TGFeed feed = readCachedPage(page);
+        if (feed == null) {
             callback.onRequestError(new TGRequestErrorType(TGRequestErrorType.ErrorType.NO_CACHE_OBJECT));
             return;
         }
-
-        TGFeed feed = new Gson().fromJson(cache.getString(CACHE_KEY, null), new TypeToken<TGFeed>() {}.getType());
         callback.onRequestFinished(feed, false);
     }
 
+    @Override
+    public void cachedEventsForCurrentUser(@Nullable TGQuery whereParameters, @NonNull final TGRequestCallback<TGEventsList> callback) {
+        if (instance.getUserManager().getCurrentUser() == null) {
+            callback.onRequestError(new TGRequestErrorType(TGRequestErrorType.ErrorType.USER_NOT_LOGGED_IN));
+            return;
+        }
+
+        List<TGEvent> matches = findCachedEvents(whereParameters);
+        if (matches == null) {
+            callback.onRequestError(new TGRequestErrorType(TGRequestErrorType.ErrorType.NO_CACHE_OBJECT));
+            return;
+        }
+
+        TGEventsList events = new TGEventsList().setEvents(matches).setSearchQuery(whereParameters);
+        callback.onRequestFinished(events, false);
+    }
+
     @Override
     public void retrieveEventsFeedForCurrentUser(@NonNull final TGRequestCallback<TGEventsList> callback) {
         retrieveEventsFeedForCurrentUser(null, callback);
@@ -195,20 +294,210 @@ public class TGFeedManagerImpl extends AbstractTGManager implements TGFeedManage
     }
 
     /**
-     * Save feed to cache
+     * Save feed to cache. The feed is serialized and written on the cache thread, only the pages
+     * that changed since the last save are rewritten.
      *
      * @param output
      */
-    private void saveFeedToCache(@Nullable TGFeed output) {
-        SharedPreferences cache = instance.getContext().getSharedPreferences(TGFeedManagerImpl.class.toString(), Context.MODE_PRIVATE);
+    private void saveFeedToCache(@Nullable final TGFeed output) {
+        final TGFeedPageCache fileCache = getPageCache();
+        synchronized (this) {
+            cachedEventIndex = null;
+            cachedEventResults.clear();
+            pendingWrite = CACHE_EXECUTOR.submit(new Runnable() {
+                @Override
+                public void run() {
+                    writeFeed(fileCache, output);
+                }
+            });
+        }
+    }
+
+    /**
+     * Write feed to the page cache, run on the cache thread
+     *
+     * @param fileCache
+     * @param output
+     */
+    private void writeFeed(@NonNull TGFeedPageCache fileCache, @Nullable TGFeed output) {
         if (output == null) {
-            if (cache.contains(CACHE_KEY)) {
-                cache.edit().remove(CACHE_KEY).apply();
+            fileCache.clear();
+            return;
+        }
+        try {
+            JsonObject feed = new Gson().toJsonTree(output, new TypeToken<TGFeed>() {
+            }.getType()).getAsJsonObject();
+            fileCache.update(TGFeedPages.split(feed, CACHE_PAGE_SIZE, CACHE_PAGE_LISTS));
+        } catch (IOException e) {
+            instance.getLogger().logE(e);
+            fileCache.clear();
+        }
+    }
+
+    /**
+     * Move a feed cached by older versions into the page cache, run once on the cache thread
+     * when there is no page cache yet
+     *
+     * @param fileCache
+     */
+    private void migrateLegacyCache(@NonNull TGFeedPageCache fileCache) {
+        SharedPreferences cache = instance.getContext().getSharedPreferences(TGFeedManagerImpl.class.toString(), Context.MODE_PRIVATE);
+        String json = cache.getString(CACHE_KEY, null);
+        if (json == null) {
+            return;
+        }
+        try {
+            JsonObject feed = new JsonParser().parse(json).getAsJsonObject();
+            fileCache.update(TGFeedPages.split(feed, CACHE_PAGE_SIZE, CACHE_PAGE_LISTS));
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            instance.getLogger().logE(e);
+            fileCache.clear();
+        }
+        cache.edit().remove(CACHE_KEY).apply();
+    }
+
+    /**
+     * Find events of the cached feed matching the query
+     *
+     * @param query
+     *
+     * @return copy of the matching events or null if no feed is cached
+     */
+    @Nullable
+    private synchronized List<TGEvent> findCachedEvents(@Nullable TGQuery query) {
+        TGEventIndex index = getCachedEventIndex();
+        if (index == null) {
+            return null;
+        }
+
+        String key = query == null ? "" : query.toCanonicalString();
+        List<TGEvent> matches = cachedEventResults.get(key);
+        if (matches == null) {
+            matches = index.find(query);
+            cachedEventResults.put(key, matches);
+        }
+        return new ArrayList<>(matches);
+    }
+
+    /**
+     * Read a single page of the cached feed
+     *
+     * @param page index of the page, 0 for the newest
+     *
+     * @return page or null if the page is not cached
+     */
+    @Nullable
+    private TGFeed readCachedPage(int page) {
+        TGFeedPageCache fileCache = getPageCache();
+        awaitPendingWrite();
+        try {
+            String json = fileCache.readPage(page);
+            return json == null ? null : new Gson().fromJson(json, TGFeed.class);
+        } catch (IOException | JsonParseException e) {
+            instance.getLogger().logE(e);
+            fileCache.clear();
+            return null;
+        }
+    }
+
+    /**
+     * Read every page of the cached feed
+     *
+     * @return feed or null if no feed is cached
+     */
+    @Nullable
+    private TGFeed readCachedFeed() {
+        JsonObject feed = readCachedPages();
+        return feed == null ? null : new Gson().fromJson(feed, TGFeed.class);
+    }
+
+    /**
+     * Join the cached pages, pages after a missing one are dropped
+     *
+     * @return feed or null if no readable page is cached
+     */
+    @Nullable
+    private JsonObject readCachedPages() {
+        TGFeedPageCache fileCache = getPageCache();
+        awaitPendingWrite();
+        try {
+            List<String> pages = new ArrayList<>();
+            int count = fileCache.getPageCount();
+            for (int i = 0; i < count; i++) {
+                String page = fileCache.readPage(i);
+                if (page == null) {
+                    break;
+                }
+                pages.add(page);
+            }
+            return TGFeedPages.join(pages, CACHE_PAGE_LISTS);
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            instance.getLogger().logE(e);
+            fileCache.clear();
+            return null;
+        }
+    }
+
+    /**
+     * Wait for the last write queued on the cache thread, so reads see the last saved feed
+     */
+    private void awaitPendingWrite() {
+        Future<?> write;
+        synchronized (this) {
+            write = pendingWrite;
+        }
+        if (write == null) {
+            return;
+        }
+        try {
+            write.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            instance.getLogger().logE(e);
+        }
+    }
+
+    /**
+     * Get cache of the feed pages, a feed cached by older versions is migrated when the page
+     * cache does not exist yet
+     *
+     * @return page cache
+     */
+    @NonNull
+    private synchronized TGFeedPageCache getPageCache() {
+        if (pageCache == null) {
+            File file = new File(instance.getContext().getCacheDir(), CACHE_FILE);
+            final TGFeedPageCache fileCache = new TGFeedPageCache(file);
+            if (!file.exists()) {
+                pendingWrite = CACHE_EXECUTOR.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        migrateLegacyCache(fileCache);
+                    }
+                });
             }
+            pageCache = fileCache;
         }
-        else {
-            cache.edit().putString(CACHE_KEY, new Gson().toJson(output, new TypeToken<TGFeed>() {
-            }.getType())).apply();
+        return pageCache;
+    }
+
+    /**
+     * Get index over the events of the cached feed
+     *
+     * @return index or null if no feed is cached
+     */
+    @Nullable
+    private synchronized TGEventIndex getCachedEventIndex() {
+        if (cachedEventIndex != null) {
+            return cachedEventIndex;
+        }
+
+        TGFeed feed = readCachedFeed();
+        if (feed == null || feed.getEvents() == null) {
+            return null;
         }
+        cachedEventIndex = new TGEventIndex(feed.getEvents());
+        return cachedEventIndex;
     }
 }
@@ -24,6 +24,7 @@ import com.google.gson.JsonElement;
 import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
 import com.tapglue.networking.TGCustomCacheObject.TGCacheObjectType;
+import com.tapglue.utils.TGTimestampParser;
 
 import java.io.Serializable;
 
@@ -59,6 +60,14 @@ public abstract class TGBaseObject<T extends TGBaseObject<T>> implements Seriali
     @SerializedName("updated_at")
     private String updatedAt;
 
+    /**
+     * Parsed creation and update dates, filled on first access
+     */
+    private transient long createdAtMillis;
+    private transient volatile boolean createdAtParsed;
+    private transient long updatedAtMillis;
+    private transient volatile boolean updatedAtParsed;
+
     TGBaseObject(@NonNull TGCacheObjectType type) {
         cacheObjectType = type.toCode();
     }
@@ -82,6 +91,19 @@ public abstract class TGBaseObject<T extends TGBaseObject<T>> implements Seriali
         return createdAt;
     }
 
+    /**
+     * Get date of creation, parsed once
+     *
+     * @return Milliseconds since the epoch, 0 if not set
+     */
+    final public long getCreatedAtMillis() {
+        if (!createdAtParsed) {
+            createdAtMillis = TGTimestampParser.toMillis(createdAt);
+            createdAtParsed = true;
+        }
+        return createdAtMillis;
+    }
+
     /**
      * Get Metadata returns a JsonElement which can contain complex objects. The deserialization
      * needs to be handled / implemented based on the custom format.
@@ -183,4 +205,17 @@ public abstract class TGBaseObject<T extends TGBaseObject<T>> implements Seriali
     final public String getUpdatedAt() {
         return updatedAt;
     }
+
+    /**
+     * Get date of last update on server, parsed once
+     *
+     * @return Milliseconds since the epoch, 0 if not set
+     */
+    final public long getUpdatedAtMillis() {
+        if (!updatedAtParsed) {
+            updatedAtMillis = TGTimestampParser.toMillis(updatedAt);
+            updatedAtParsed = true;
+        }
+        return updatedAtMillis;
+    }
 }
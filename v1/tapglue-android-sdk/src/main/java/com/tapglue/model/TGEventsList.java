@@ -53,6 +53,19 @@ public class TGEventsList extends TGBaseObject<TGEventsList> {
         return events;
     }
 
+    /**
+     * Set events of this list
+     *
+     * @param events
+     *
+     * @return Current object
+     */
+    @NonNull
+    public TGEventsList setEvents(List<TGEvent> events) {
+        this.events = events;
+        return this;
+    }
+
     /**
      * Get search parameters from this query This is used only on read for library internal
      * purposes
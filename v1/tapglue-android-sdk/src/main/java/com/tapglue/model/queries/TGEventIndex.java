@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.tapglue.model.queries;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.tapglue.model.TGEvent;
+import com.tapglue.model.TGEventObject;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers {@link TGQuery queries} from a list of events without a network request. Every field
+ * the query grammar can filter on gets a hash index from value to event positions, a query
+ * intersects the positions matching each of its constraints.
+ */
+public class TGEventIndex {
+
+    @NonNull
+    private final List<TGEvent> events;
+
+    @NonNull
+    private final Map<String, BitSet> types = new HashMap<>();
+
+    @NonNull
+    private final Map<String, BitSet> tgObjectIds = new HashMap<>();
+
+    @NonNull
+    private final Map<String, BitSet> objectIds = new HashMap<>();
+
+    @NonNull
+    private final Map<String, BitSet> objectTypes = new HashMap<>();
+
+    public TGEventIndex(@NonNull List<TGEvent> events) {
+        this.events = new ArrayList<>(events);
+        for (int i = 0; i < this.events.size(); i++) {
+            TGEvent event = this.events.get(i);
+            add(types, event.getType(), i);
+            add(tgObjectIds, event.getObjectId(), i);
+            TGEventObject object = event.getObject();
+            if (object != null) {
+                add(objectIds, object.getID(), i);
+                add(objectTypes, object.getType(), i);
+            }
+        }
+    }
+
+    /**
+     * Find events matching the query
+     *
+     * @param query query to evaluate, null matches all events
+     *
+     * @return matching events in their original order
+     */
+    @NonNull
+    public List<TGEvent> find(@Nullable TGQuery query) {
+        BitSet matches = new BitSet(events.size());
+        matches.set(0, events.size());
+        if (query != null) {
+            retain(matches, types, query.getType());
+            retain(matches, tgObjectIds, query.getTgObjectId());
+            TGQueryTGObject object = query.getObject();
+            if (object != null) {
+                retain(matches, objectIds, object.getId());
+                retain(matches, objectTypes, object.getType());
+            }
+        }
+
+        List<TGEvent> result = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            result.add(events.get(i));
+        }
+        return result;
+    }
+
+    private static void add(@NonNull Map<String, BitSet> index, @Nullable Object value, int position) {
+        if (value == null) return;
+        String key = String.valueOf(value);
+        BitSet positions = index.get(key);
+        if (positions == null) {
+            positions = new BitSet();
+            index.put(key, positions);
+        }
+        positions.set(position);
+    }
+
+    /**
+     * Keep only the matches of the field, eq and in constraints on the same field must both match
+     */
+    private static void retain(@NonNull BitSet matches, @NonNull Map<String, BitSet> index, @Nullable TGQueryScalarField<?> field) {
+        if (field == null) return;
+        if (field.getEq() != null) {
+            matches.and(lookup(index, field.getEq()));
+        }
+        if (field.getIn() != null) {
+            BitSet any = new BitSet();
+            for (Object value : field.getIn()) {
+                any.or(lookup(index, value));
+            }
+            matches.and(any);
+        }
+    }
+
+    @NonNull
+    private static BitSet lookup(@NonNull Map<String, BitSet> index, @NonNull Object value) {
+        BitSet positions = index.get(String.valueOf(value));
+        return positions != null ? positions : new BitSet();
+    }
+}
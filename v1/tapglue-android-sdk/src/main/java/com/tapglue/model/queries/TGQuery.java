@@ -17,16 +17,24 @@
 package com.tapglue.model.queries;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
 
 import java.security.InvalidParameterException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.TreeMap;
 
 public class TGQuery {
 
+    private static final Gson GSON = new Gson();
+
     @Expose
     @SerializedName("object")
     private TGQueryObjectField object;
@@ -39,6 +47,13 @@ public class TGQuery {
     @SerializedName("type")
     private TGQueryScalarField type;
 
+    /**
+     * Canonical form of the query, reset whenever a constraint is added. Added fields are copied,
+     * so the fields this form is built from can't change behind the query's back.
+     */
+    @Nullable
+    private transient String canonicalForm;
+
     @NonNull
     public static <T> TGQueryScalarField eq(@NonNull T value) {
         return new TGQueryScalarField<>().setEq(value);
@@ -99,32 +114,33 @@ public class TGQuery {
     }
 
     @NonNull
-    public TGQuery addConstraint(@NonNull TGQueryScalarField field) throws InvalidParameterException {
+    public synchronized TGQuery addConstraint(@NonNull TGQueryScalarField field) throws InvalidParameterException {
         switch (field.getName()) {
             case "tgObjectId": {
-                tgObjectId = TGQueryScalarField.merge(tgObjectId, field);
+                tgObjectId = TGQueryScalarField.merge(tgObjectId, field.copy());
             }
             break;
 
             case "type": {
-                type = TGQueryScalarField.merge(type, field);
+                type = TGQueryScalarField.merge(type, field.copy());
             }
             break;
 
             default:
                 throw new InvalidParameterException(String.format("Field %s not found", field.getName()));
         }
+        canonicalForm = null;
         return this;
     }
 
     @NonNull
-    public TGQuery addConstraint(@NonNull TGQueryObjectField field) throws RuntimeException {
+    public synchronized TGQuery addConstraint(@NonNull TGQueryObjectField field) throws RuntimeException {
         switch (field.getName()) {
             case "object": {
                 if (!(field instanceof TGQueryTGObject)) {
                     throw new InvalidParameterException(String.format("Field %s is of unexpected type", field.getName()));
                 }
-                object = TGQueryTGObject.merge((TGQueryTGObject) object, (TGQueryTGObject) field);
+                object = TGQueryTGObject.merge((TGQueryTGObject) object, ((TGQueryTGObject) field).copy());
             }
             break;
 
@@ -132,6 +148,69 @@ public class TGQuery {
                 throw new InvalidParameterException(String.format("Field %s not found", field.getName()));
         }
 
+        canonicalForm = null;
         return this;
     }
+
+    /**
+     * Get the query in canonical form. Fields are written in a fixed order and in lists are sorted
+     * and free of duplicates, so queries with the same constraints produce the same string, which
+     * makes it usable as key for response and result caches. The string is kept until the next
+     * constraint is added.
+     *
+     * @return canonical JSON form of the query
+     */
+    @NonNull
+    public synchronized String toCanonicalString() {
+        if (canonicalForm == null) {
+            JsonObject json = new JsonObject();
+            TGQueryTGObject tgObject = getObject();
+            if (tgObject != null) {
+                JsonObject objectJson = new JsonObject();
+                addCanonicalField(objectJson, "id", tgObject.getId());
+                addCanonicalField(objectJson, "type", tgObject.getType());
+                json.add("object", objectJson);
+            }
+            addCanonicalField(json, "tg_object_id", tgObjectId);
+            addCanonicalField(json, "type", type);
+            canonicalForm = GSON.toJson(json);
+        }
+        return canonicalForm;
+    }
+
+    private static void addCanonicalField(@NonNull JsonObject json, @NonNull String name, @Nullable TGQueryScalarField field) {
+        if (field == null) return;
+        JsonObject fieldJson = new JsonObject();
+        if (field.getEq() != null) {
+            fieldJson.add("eq", GSON.toJsonTree(field.getEq()));
+        }
+        if (field.getIn() != null) {
+            TreeMap<String, JsonElement> values = new TreeMap<>();
+            for (Object value : field.getIn()) {
+                JsonElement element = GSON.toJsonTree(value);
+                values.put(element.toString(), element);
+            }
+            JsonArray in = new JsonArray();
+            for (JsonElement element : values.values()) {
+                in.add(element);
+            }
+            fieldJson.add("in", in);
+        }
+        json.add(name, fieldJson);
+    }
+
+    @Nullable
+    TGQueryTGObject getObject() {
+        return object instanceof TGQueryTGObject ? (TGQueryTGObject) object : null;
+    }
+
+    @Nullable
+    TGQueryScalarField<?> getTgObjectId() {
+        return tgObjectId;
+    }
+
+    @Nullable
+    TGQueryScalarField<?> getType() {
+        return type;
+    }
 }
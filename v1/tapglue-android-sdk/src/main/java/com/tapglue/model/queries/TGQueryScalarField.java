@@ -56,6 +56,22 @@ class TGQueryScalarField<T> {
         return myField;
     }
 
+    /**
+     * Copy the field, merging into the copy leaves this field untouched
+     *
+     * @return copy with its own in list
+     */
+    @NonNull
+    TGQueryScalarField<T> copy() {
+        TGQueryScalarField<T> copy = new TGQueryScalarField<>();
+        copy.name = name;
+        copy.eq = eq;
+        if (in != null) {
+            copy.in = new ArrayList<>(in);
+        }
+        return copy;
+    }
+
     @NonNull
     TGQueryScalarField addIn(@NonNull List<T> value) {
         if (in == null) {
@@ -50,6 +50,20 @@ class TGQueryTGObject extends TGQueryObjectField {
         return myObject;
     }
 
+    /**
+     * Copy the object and its fields, merging into the copy leaves this object untouched
+     *
+     * @return copy of the object
+     */
+    @NonNull
+    TGQueryTGObject copy() {
+        TGQueryTGObject copy = new TGQueryTGObject();
+        copy.setName(getName());
+        if (id != null) copy.id = id.copy();
+        if (type != null) copy.type = type.copy();
+        return copy;
+    }
+
     /**
      * Get query object id
      *
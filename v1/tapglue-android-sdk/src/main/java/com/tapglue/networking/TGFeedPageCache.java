@@ -0,0 +1,337 @@
+/*
+ * Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.tapglue.networking;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * File cache for feed pages. The file starts with a fixed header followed by an index of page
+ * offsets and lengths, the pages themselves are appended after it:
+ *
+ * <pre>
+ * int magic | int version | int page count | int reserved
+ * MAX_PAGES x (long offset | int length)
+ * page 0 | page 1 | ...
+ * </pre>
+ *
+ * Reads map only the header and the requested page, appending a page writes the page and its
+ * index entry without touching the pages before it. {@link #update(List)} keeps the pages that did
+ * not change and only rewrites the ones after them.
+ */
+public class TGFeedPageCache {
+
+    /**
+     * Maximum number of pages kept in one file
+     */
+    public static final int MAX_PAGES = 64;
+
+    private static final int MAGIC = 0x54474643;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int ENTRY_SIZE = 12;
+    private static final int INDEX_SIZE = MAX_PAGES * ENTRY_SIZE;
+    private static final int DATA_OFFSET = HEADER_SIZE + INDEX_SIZE;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @NonNull
+    private final File file;
+
+    /**
+     * Pages known to be in the file, null until read or written the first time
+     */
+    @Nullable
+    private List<String> written;
+
+    public TGFeedPageCache(@NonNull File file) {
+        this.file = file;
+    }
+
+    /**
+     * Get number of cached pages
+     *
+     * @return page count, 0 if there is no valid cache file
+     *
+     * @throws IOException
+     */
+    public synchronized int getPageCount() throws IOException {
+        if (!file.exists()) {
+            return 0;
+        }
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            MappedByteBuffer header = mapHeader(raf.getChannel());
+            return header == null ? 0 : header.getInt(8);
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Read a single page
+     *
+     * @param page index of the page, 0 for the newest
+     *
+     * @return page content or null if the page is not cached
+     *
+     * @throws IOException
+     */
+    @Nullable
+    public synchronized String readPage(int page) throws IOException {
+        if (page < 0 || page >= MAX_PAGES || !file.exists()) {
+            return null;
+        }
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            MappedByteBuffer header = mapHeader(channel);
+            if (header == null || page >= header.getInt(8)) {
+                return null;
+            }
+            long offset = header.getLong(HEADER_SIZE + page * ENTRY_SIZE);
+            int length = header.getInt(HEADER_SIZE + page * ENTRY_SIZE + 8);
+            if (offset < DATA_OFFSET || length < 0 || offset + length > channel.size()) {
+                return null;
+            }
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            byte[] bytes = new byte[length];
+            data.get(bytes);
+            return new String(bytes, UTF_8);
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Replace all cached pages with a new first page
+     *
+     * @param content content of the first page
+     *
+     * @throws IOException
+     */
+    public synchronized void replace(@NonNull String content) throws IOException {
+        written = null;
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            reset(raf.getChannel(), content);
+        } finally {
+            raf.close();
+        }
+        written = new ArrayList<>(Collections.singletonList(content));
+    }
+
+    /**
+     * Write the pages of a feed. Leading pages equal to the cached ones are kept, the file is
+     * truncated after them and only the following pages are written.
+     *
+     * @param pages content of the pages, at least one and at most {@link #MAX_PAGES}
+     *
+     * @return index of the first page written, the page count if nothing changed
+     *
+     * @throws IOException
+     */
+    public synchronized int update(@NonNull List<String> pages) throws IOException {
+        if (pages.isEmpty() || pages.size() > MAX_PAGES) {
+            throw new IllegalArgumentException("Page count out of range: " + pages.size());
+        }
+        List<String> cached = written != null ? written : readPages();
+        int first = 0;
+        while (first < pages.size() && first < cached.size() && pages.get(first).equals(cached.get(first))) {
+            first++;
+        }
+        if (first == pages.size() && first == cached.size()) {
+            written = cached;
+            return first;
+        }
+
+        written = null;
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            FileChannel channel = raf.getChannel();
+            int page = first;
+            if (page == 0 || !truncate(channel, page)) {
+                reset(channel, pages.get(0));
+                first = 0;
+                page = 1;
+            }
+            for (; page < pages.size(); page++) {
+                append(channel, page, pages.get(page));
+            }
+        } finally {
+            raf.close();
+        }
+        written = new ArrayList<>(pages);
+        return first;
+    }
+
+    /**
+     * Append a page after the cached ones
+     *
+     * @param content content of the page
+     *
+     * @return false if there is no valid cache file or it is full
+     *
+     * @throws IOException
+     */
+    public synchronized boolean appendPage(@NonNull String content) throws IOException {
+        if (!file.exists()) {
+            return false;
+        }
+        List<String> known = written;
+        written = null;
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            FileChannel channel = raf.getChannel();
+            MappedByteBuffer header = mapHeader(channel);
+            if (header == null) {
+                return false;
+            }
+            int count = header.getInt(8);
+            if (count >= MAX_PAGES) {
+                written = known;
+                return false;
+            }
+            append(channel, count, content);
+        } finally {
+            raf.close();
+        }
+        if (known != null) {
+            known.add(content);
+            written = known;
+        }
+        return true;
+    }
+
+    /**
+     * Remove the cache file
+     */
+    public synchronized void clear() {
+        if (file.exists()) {
+            file.delete();
+        }
+        written = new ArrayList<>();
+    }
+
+    /**
+     * Read the readable pages in order, pages after an unreadable one are left out
+     */
+    @NonNull
+    private List<String> readPages() throws IOException {
+        List<String> pages = new ArrayList<>();
+        int count = getPageCount();
+        for (int i = 0; i < count; i++) {
+            String page = readPage(i);
+            if (page == null) {
+                break;
+            }
+            pages.add(page);
+        }
+        return pages;
+    }
+
+    /**
+     * Write an empty header and the first page
+     */
+    private void reset(@NonNull FileChannel channel, @NonNull String content) throws IOException {
+        channel.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(DATA_OFFSET);
+        header.putInt(MAGIC).putInt(VERSION).putInt(0).putInt(0);
+        header.rewind();
+        channel.write(header, 0);
+        append(channel, 0, content);
+    }
+
+    /**
+     * Keep only the first pages, the page count is written before the file is cut after the last
+     * kept page. The header is read instead of mapped, as the file shrinks.
+     *
+     * @return false if there is no valid cache file or it has fewer pages
+     */
+    private boolean truncate(@NonNull FileChannel channel, int pageCount) throws IOException {
+        if (channel.size() < DATA_OFFSET) {
+            return false;
+        }
+        ByteBuffer header = ByteBuffer.allocate(DATA_OFFSET);
+        channel.read(header, 0);
+        int count = header.getInt(8);
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || count < pageCount || count > MAX_PAGES) {
+            return false;
+        }
+        int entry = HEADER_SIZE + (pageCount - 1) * ENTRY_SIZE;
+        long end = header.getLong(entry) + header.getInt(entry + 8);
+        if (end < DATA_OFFSET || end > channel.size()) {
+            return false;
+        }
+
+        ByteBuffer countBuffer = ByteBuffer.allocate(4);
+        countBuffer.putInt(pageCount);
+        countBuffer.rewind();
+        channel.write(countBuffer, 8);
+        channel.truncate(end);
+        return true;
+    }
+
+    /**
+     * Write page at the end of the file, then its index entry and the page count, so an
+     * interrupted append leaves the earlier pages readable
+     */
+    private void append(@NonNull FileChannel channel, int page, @NonNull String content) throws IOException {
+        byte[] bytes = content.getBytes(UTF_8);
+        long offset = Math.max(channel.size(), DATA_OFFSET);
+        channel.write(ByteBuffer.wrap(bytes), offset);
+
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE);
+        entry.putLong(offset).putInt(bytes.length);
+        entry.rewind();
+        channel.write(entry, HEADER_SIZE + page * ENTRY_SIZE);
+
+        ByteBuffer count = ByteBuffer.allocate(4);
+        count.putInt(page + 1);
+        count.rewind();
+        channel.write(count, 8);
+    }
+
+    /**
+     * Map header and index of the file
+     *
+     * @return header or null if the file is no cache file of this version
+     */
+    @Nullable
+    private MappedByteBuffer mapHeader(@NonNull FileChannel channel) throws IOException {
+        if (channel.size() < DATA_OFFSET) {
+            return null;
+        }
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, DATA_OFFSET);
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            return null;
+        }
+        int count = header.getInt(8);
+        return count < 0 || count > MAX_PAGES ? null : header;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.tapglue.networking;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits a feed into the pages of a {@link TGFeedPageCache} and joins them again. The first page
+ * holds every field of the feed and the first entries of its lists, the following pages hold
+ * only the next entries of the lists.
+ */
+public final class TGFeedPages {
+
+    private TGFeedPages() {}
+
+    /**
+     * Split the feed into pages
+     *
+     * @param feed       feed to split
+     * @param pageSize   entries of every list per page, raised if the lists would not fit into
+     *                   {@link TGFeedPageCache#MAX_PAGES} pages
+     * @param listFields names of the list fields to split
+     *
+     * @return JSON of the pages, at least one
+     */
+    @NonNull
+    public static List<String> split(@NonNull JsonObject feed, int pageSize, @NonNull String... listFields) {
+        int longest = 0;
+        for (String field : listFields) {
+            JsonArray entries = array(feed, field);
+            if (entries != null) {
+                longest = Math.max(longest, entries.size());
+            }
+        }
+        int size = Math.max(Math.max(pageSize, 1), (longest + TGFeedPageCache.MAX_PAGES - 1) / TGFeedPageCache.MAX_PAGES);
+        int pageCount = Math.max(1, (longest + size - 1) / size);
+
+        List<String> pages = new ArrayList<>(pageCount);
+        for (int page = 0; page < pageCount; page++) {
+            JsonObject content = new JsonObject();
+            if (page == 0) {
+                for (Map.Entry<String, JsonElement> entry : feed.entrySet()) {
+                    content.add(entry.getKey(), entry.getValue());
+                }
+            }
+            for (String field : listFields) {
+                JsonArray entries = array(feed, field);
+                if (entries == null) {
+                    continue;
+                }
+                JsonArray slice = new JsonArray();
+                for (int i = page * size; i < Math.min(entries.size(), (page + 1) * size); i++) {
+                    slice.add(entries.get(i));
+                }
+                if (page == 0 || slice.size() > 0) {
+                    content.add(field, slice);
+                }
+            }
+            pages.add(content.toString());
+        }
+        return pages;
+    }
+
+    /**
+     * Join pages created by {@link #split(JsonObject, int, String...)}
+     *
+     * @param pages      JSON of the pages in order
+     * @param listFields names of the list fields that were split
+     *
+     * @return feed or null if there are no pages
+     */
+    @Nullable
+    public static JsonObject join(@NonNull List<String> pages, @NonNull String... listFields) {
+        JsonParser parser = new JsonParser();
+        JsonObject feed = null;
+        for (String content : pages) {
+            JsonObject page = parser.parse(content).getAsJsonObject();
+            if (feed == null) {
+                feed = page;
+                continue;
+            }
+            for (String field : listFields) {
+                JsonArray entries = array(page, field);
+                if (entries == null) {
+                    continue;
+                }
+                JsonArray joined = array(feed, field);
+                if (joined == null) {
+                    feed.add(field, entries);
+                }
+                else {
+                    joined.addAll(entries);
+                }
+            }
+        }
+        return feed;
+    }
+
+    @Nullable
+    private static JsonArray array(@NonNull JsonObject object, @NonNull String field) {
+        JsonElement element = object.get(field);
+        return element != null && element.isJsonArray() ? element.getAsJsonArray() : null;
+    }
+}
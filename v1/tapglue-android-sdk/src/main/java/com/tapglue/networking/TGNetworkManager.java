@@ -215,7 +215,7 @@ public class TGNetworkManager {
             "; Android " + Build.VERSION.RELEASE + ") Tapglue-SDK/" + currentLibraryVersion;
 
         OkHttpClient client = new OkHttpClient();
-        client.setProtocols(new ArrayList<>(Util.immutableList(Protocol.HTTP_1_1)));
+        client.setProtocols(new ArrayList<>(Util.immutableList(Protocol.HTTP_2, Protocol.HTTP_1_1)));
         final HttpLoggingInterceptor interceptor = new HttpLoggingInterceptor();
         interceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
 
@@ -887,7 +887,7 @@ public class TGNetworkManager {
      * @return
      */
     private String serializeSearchQuery(TGQuery searchQuery) {
-        return new Gson().toJson(searchQuery, new TypeToken<TGQuery>() {}.getType());
+        return searchQuery.toCanonicalString();
     }
 
     /**
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.tapglue.utils;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.tapglue.model.TGImage;
+import com.tapglue.model.TGUser;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public class TGImageSelector {
+
+    private TGImageSelector() {
+    }
+
+    /**
+     * Pick the image to download for a view of the given size: the smallest one covering the size,
+     * or the largest one if none does. Images without size are only picked if no image has one.
+     *
+     * @param images Variants of the image
+     * @param width  Target width in pixels
+     * @param height Target height in pixels
+     *
+     * @return best fitting image or null if there are no images
+     */
+    @Nullable
+    public static TGImage bestFit(@Nullable Collection<TGImage> images, int width, int height) {
+        if (images == null) {
+            return null;
+        }
+        TGImage smallestCovering = null;
+        TGImage largest = null;
+        TGImage unsized = null;
+        for (TGImage image : images) {
+            if (image == null || image.getURL() == null) {
+                continue;
+            }
+            if (image.getWidth() <= 0 || image.getHeight() <= 0) {
+                if (unsized == null) {
+                    unsized = image;
+                }
+                continue;
+            }
+            if (image.getWidth() >= width && image.getHeight() >= height
+                && (smallestCovering == null || pixels(image) < pixels(smallestCovering))) {
+                smallestCovering = image;
+            }
+            if (largest == null || pixels(image) > pixels(largest)) {
+                largest = image;
+            }
+        }
+        if (smallestCovering != null) {
+            return smallestCovering;
+        }
+        return largest != null ? largest : unsized;
+    }
+
+    /**
+     * Get avatar urls of the users about to scroll into view, in display order and without
+     * duplicates, so an image loader can fetch them ahead of time
+     *
+     * @param users      Users of the list
+     * @param firstRow   Position of the first row to prefetch
+     * @param rows       Amount of rows to prefetch
+     * @param avatarSize Size avatars are shown at in pixels
+     *
+     * @return urls to prefetch
+     */
+    @NonNull
+    public static List<String> prefetchHints(@Nullable List<TGUser> users, int firstRow, int rows, int avatarSize) {
+        Set<String> urls = new LinkedHashSet<>();
+        if (users != null) {
+            int from = Math.max(0, firstRow);
+            for (int i = from; i < users.size() && i < from + rows; i++) {
+                TGUser user = users.get(i);
+                TGImage avatar = user == null || user.getImages() == null ? null
+                    : bestFit(user.getImages().values(), avatarSize, avatarSize);
+                if (avatar != null) {
+                    urls.add(avatar.getURL());
+                }
+            }
+        }
+        return new ArrayList<>(urls);
+    }
+
+    private static long pixels(@NonNull TGImage image) {
+        return (long) image.getWidth() * image.getHeight();
+    }
+}
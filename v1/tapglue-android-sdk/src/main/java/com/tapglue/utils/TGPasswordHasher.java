@@ -17,22 +17,62 @@
 
 package com.tapglue.utils;
 
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
 import java.nio.charset.Charset;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
+import java.security.SecureRandom;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.KeySpec;
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
+import javax.crypto.Mac;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
 
 
 public class TGPasswordHasher {
 
+    /**
+     * Hasher used for the passwords sent to the API
+     */
+    private static final TGPasswordHasher DEFAULT_HASHER = new TGPasswordHasher(1000, 160, EncoderType.HEX);
+
+    /**
+     * Single background thread running the key derivation of async requests
+     */
+    private static final ExecutorService COMPUTE_EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @NonNull
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            Thread thread = new Thread(runnable, "TGPasswordHasher");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    /**
+     * Random key of the process, the remembered password is only kept as HMAC under this key
+     */
+    @NonNull
+    private static final SecretKeySpec MEMO_KEY = createMemoKey();
+
+    /**
+     * Key factory, looked up once as the provider lookup is expensive
+     */
+    @Nullable
+    private static SecretKeyFactory keyFactory;
+
     /**  */
     private final int derivedKeyLength;
 
@@ -47,16 +87,95 @@ public class TGPasswordHasher {
     /**  */
     private final String secRandomAlgorithm = "SHA1PRNG";
 
+    /**
+     * HMAC of the last hashed password under {@link #MEMO_KEY}, the plain password is not kept
+     */
+    @Nullable
+    private byte[] lastPasswordDigest;
+
+    /**
+     * Hash of the last hashed password
+     */
+    @Nullable
+    private String lastHash;
+
     @Nullable
     public static String hashPassword(@NonNull String password) {
         try {
-            return new TGPasswordHasher(1000, 160, TGPasswordHasher.EncoderType.HEX).hashPasswordNonStatic(password);
+            return DEFAULT_HASHER.hashPasswordNonStatic(password);
         } catch (@NonNull NoSuchAlgorithmException | InvalidKeySpecException | NoSuchProviderException e) {
             e.printStackTrace();
         }
         return password;
     }
 
+    /**
+     * Hash the password on a background thread, the callback is run on the main thread
+     *
+     * @param password
+     * @param callback
+     */
+    public static void hashPasswordAsync(@NonNull final String password, @NonNull final HashCallback callback) {
+        final Handler mainHandler = new Handler(Looper.getMainLooper());
+        COMPUTE_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                final String hash = hashPassword(password);
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.onPasswordHashed(hash);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * @return shared key factory
+     *
+     * @throws NoSuchAlgorithmException
+     * @throws NoSuchProviderException
+     */
+    @NonNull
+    private static synchronized SecretKeyFactory getKeyFactory()
+        throws NoSuchAlgorithmException, NoSuchProviderException {
+        if (keyFactory == null) {
+            /*  */
+            String keyFactoryAlgorithm = "PBKDF2WithHmacSHA1";
+            keyFactory = SecretKeyFactory.getInstance(keyFactoryAlgorithm, "BC");
+        }
+        return keyFactory;
+    }
+
+    /**
+     * @return random key used for the HMAC of remembered passwords
+     */
+    @NonNull
+    private static SecretKeySpec createMemoKey() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return new SecretKeySpec(key, "HmacSHA256");
+    }
+
+    /**
+     * @param password
+     *
+     * @return HMAC of the password under the key of the process
+     *
+     * @throws NoSuchAlgorithmException
+     */
+    @NonNull
+    private static byte[] passwordDigest(@NonNull String password) throws NoSuchAlgorithmException {
+        Mac mac = Mac.getInstance(MEMO_KEY.getAlgorithm());
+        try {
+            mac.init(MEMO_KEY);
+        } catch (InvalidKeyException e) {
+            throw new IllegalStateException(e);
+        }
+        return mac.doFinal(password.getBytes(Charset.forName("UTF8")));
+    }
+
     /**
      * Minimum rounds 1000 anything less will be set as 1000.<br> The higher the number the longer
      * the encryption will take.
@@ -142,10 +261,10 @@ public class TGPasswordHasher {
     private byte[] encryptedPassword(@NonNull String password, byte[] salt)
         throws NoSuchAlgorithmException, InvalidKeySpecException, NoSuchProviderException {
         KeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, derivedKeyLength);
-        /*  */
-        String keyFactoryAlgorithm = "PBKDF2WithHmacSHA1";
-        SecretKeyFactory f = SecretKeyFactory.getInstance(keyFactoryAlgorithm, "BC");
-        return f.generateSecret(spec).getEncoded();
+        SecretKeyFactory f = getKeyFactory();
+        synchronized (f) {
+            return f.generateSecret(spec).getEncoded();
+        }
     }
 
     /**
@@ -177,6 +296,8 @@ public class TGPasswordHasher {
     // TODO Make this a variable
 
     /**
+     * Repeated calls with the last password return the remembered hash
+     *
      * @param password
      *
      * @return
@@ -186,9 +307,17 @@ public class TGPasswordHasher {
      * @throws NoSuchProviderException
      */
     @Nullable
-    private String hashPasswordNonStatic(@NonNull String password)
+    synchronized String hashPasswordNonStatic(@NonNull String password)
         throws NoSuchAlgorithmException, InvalidKeySpecException, NoSuchProviderException {
-        return hashPasswordNonStatic(password, false);
+        byte[] passwordDigest = passwordDigest(password);
+        if (lastHash != null && MessageDigest.isEqual(passwordDigest, lastPasswordDigest)) {
+            return lastHash;
+        }
+
+        String hash = hashPasswordNonStatic(password, false);
+        lastPasswordDigest = passwordDigest;
+        lastHash = hash;
+        return hash;
     }
 
     /**
@@ -239,6 +368,16 @@ public class TGPasswordHasher {
 
     }
 
+    /**
+     * Receives the result of {@link #hashPasswordAsync(String, HashCallback)}
+     */
+    public interface HashCallback {
+        /**
+         * @param hash Hashed password
+         */
+        void onPasswordHashed(String hash);
+    }
+
     /**
      * To get a web safe Base64 encoded <tt>String</tt> use {@link EncoderType#WEB_SAFE_BASE64}
      * value is 1.<br> To get a HEX encoded <tt>String</tt> use {@link EncoderType#HEX} value is 0
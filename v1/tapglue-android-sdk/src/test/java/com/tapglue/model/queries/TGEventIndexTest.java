@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.tapglue.model.queries;
+
+import com.tapglue.model.TGEvent;
+import com.tapglue.model.TGEventObject;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TGEventIndexTest {
+
+    private TGEvent like;
+    private TGEvent comment;
+    private TGEvent share;
+    private TGEventIndex index;
+
+    @Before
+    public void setUp() {
+        like = event("like", "7", object("42", "article"));
+        comment = event("comment", "8", object("43", "article"));
+        share = event("share", "7", null);
+        index = new TGEventIndex(Arrays.asList(like, comment, share));
+    }
+
+    @Test
+    public void nullQueryMatchesAllEventsInOrder() {
+        assertEquals(Arrays.asList(like, comment, share), index.find(null));
+    }
+
+    @Test
+    public void eqMatchesSingleValue() {
+        TGQuery query = new TGQuery().addConstraint(TGQuery.type(TGQuery.eq("comment")));
+
+        assertEquals(Collections.singletonList(comment), index.find(query));
+    }
+
+    @Test
+    public void inMatchesAnyValue() {
+        TGQuery query = new TGQuery().addConstraint(TGQuery.type(TGQuery.in("like", "share")));
+
+        assertEquals(Arrays.asList(like, share), index.find(query));
+    }
+
+    @Test
+    public void eqAndInOnSameFieldMustBothMatch() {
+        TGQuery query = new TGQuery()
+            .addConstraint(TGQuery.type(TGQuery.eq("like")))
+            .addConstraint(TGQuery.type(TGQuery.in("like", "comment")));
+
+        assertEquals(Collections.singletonList(like), index.find(query));
+    }
+
+    @Test
+    public void disjointEqAndInMatchNothing() {
+        TGQuery query = new TGQuery()
+            .addConstraint(TGQuery.type(TGQuery.eq("like")))
+            .addConstraint(TGQuery.type(TGQuery.in("comment")));
+
+        assertTrue(index.find(query).isEmpty());
+    }
+
+    @Test
+    public void constraintsOnDifferentFieldsIntersect() {
+        TGQuery query = new TGQuery()
+            .addConstraint(TGQuery.tgObjectId(TGQuery.eq("7")))
+            .addConstraint(TGQuery.type(TGQuery.in("like", "comment")));
+
+        assertEquals(Collections.singletonList(like), index.find(query));
+    }
+
+    @Test
+    public void numberIdsMatchStringIds() {
+        TGQuery query = new TGQuery().addConstraint(TGQuery.object(TGQuery.objectId(TGQuery.eq(42))));
+
+        assertEquals(Collections.singletonList(like), index.find(query));
+    }
+
+    @Test
+    public void numberInMatchesStringIds() {
+        List<Integer> ids = Arrays.asList(43, 44);
+        TGQuery query = new TGQuery().addConstraint(TGQuery.object(TGQuery.objectId(TGQuery.in(ids))));
+
+        assertEquals(Collections.singletonList(comment), index.find(query));
+    }
+
+    @Test
+    public void objectConstraintsSkipEventsWithoutObject() {
+        TGQuery query = new TGQuery().addConstraint(TGQuery.object(TGQuery.objectType(TGQuery.eq("article"))));
+
+        assertEquals(Arrays.asList(like, comment), index.find(query));
+    }
+
+    @Test
+    public void eventsWithoutObjectMatchOtherFields() {
+        TGQuery query = new TGQuery().addConstraint(TGQuery.type(TGQuery.eq("share")));
+
+        assertEquals(Collections.singletonList(share), index.find(query));
+    }
+
+    @Test
+    public void unknownValueMatchesNothing() {
+        TGQuery query = new TGQuery().addConstraint(TGQuery.tgObjectId(TGQuery.eq("9")));
+
+        assertTrue(index.find(query).isEmpty());
+    }
+
+    private static TGEvent event(String type, String tgObjectId, TGEventObject object) {
+        return new TGEvent().setType(type).setObjectId(tgObjectId).setObject(object);
+    }
+
+    private static TGEventObject object(String id, String type) {
+        return new TGEventObject().setID(id).setType(type);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.tapglue.model.queries;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class TGQueryTest {
+
+    @Test
+    public void canonicalStringIgnoresInOrderAndDuplicates() {
+        TGQuery first = new TGQuery().addConstraint(TGQuery.type(TGQuery.in("like", "comment", "like")));
+        TGQuery second = new TGQuery().addConstraint(TGQuery.type(TGQuery.in("comment", "like")));
+
+        assertEquals(first.toCanonicalString(), second.toCanonicalString());
+    }
+
+    @Test
+    public void canonicalStringChangesWithAddedConstraint() {
+        TGQuery query = new TGQuery().addConstraint(TGQuery.type(TGQuery.eq("like")));
+        String before = query.toCanonicalString();
+
+        query.addConstraint(TGQuery.type(TGQuery.in("comment")));
+
+        assertNotEquals(before, query.toCanonicalString());
+    }
+
+    @Test
+    public void sharedFieldIsNotChangedByOtherQuery() {
+        TGQueryScalarField field = TGQuery.type(TGQuery.eq("like"));
+        TGQuery first = new TGQuery().addConstraint(field);
+        TGQuery second = new TGQuery().addConstraint(field);
+
+        first.addConstraint(TGQuery.type(TGQuery.in("comment")));
+
+        TGQuery expected = new TGQuery().addConstraint(TGQuery.type(TGQuery.eq("like")));
+        assertEquals(expected.toCanonicalString(), second.toCanonicalString());
+    }
+
+    @Test
+    public void sharedObjectFieldIsNotChangedByOtherQuery() {
+        TGQueryObjectField field = TGQuery.object(TGQuery.objectId(TGQuery.eq("42")));
+        TGQuery first = new TGQuery().addConstraint(field);
+        TGQuery second = new TGQuery().addConstraint(field);
+
+        first.addConstraint(TGQuery.object(TGQuery.objectId(TGQuery.in("43"))));
+
+        TGQuery expected = new TGQuery().addConstraint(TGQuery.object(TGQuery.objectId(TGQuery.eq("42"))));
+        assertEquals(expected.toCanonicalString(), second.toCanonicalString());
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.tapglue.networking;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TGFeedPageCacheTest {
+
+    private static final int HEADER_SIZE = 16;
+    private static final int DATA_OFFSET = HEADER_SIZE + TGFeedPageCache.MAX_PAGES * 12;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+    private TGFeedPageCache cache;
+
+    @Before
+    public void setUp() {
+        file = new File(folder.getRoot(), "feed.cache");
+        cache = new TGFeedPageCache(file);
+    }
+
+    @Test
+    public void missingFileHasNoPages() throws Exception {
+        assertEquals(0, cache.getPageCount());
+        assertNull(cache.readPage(0));
+    }
+
+    @Test
+    public void replaceWritesHeaderAndFirstPage() throws Exception {
+        cache.replace("first");
+
+        assertEquals(1, cache.getPageCount());
+        assertEquals("first", cache.readPage(0));
+        assertNull(cache.readPage(1));
+        assertEquals(DATA_OFFSET + "first".length(), file.length());
+        ByteBuffer header = readHeader();
+        assertEquals(0x54474643, header.getInt(0));
+        assertEquals(1, header.getInt(4));
+        assertEquals(1, header.getInt(8));
+        assertEquals(DATA_OFFSET, header.getLong(HEADER_SIZE));
+        assertEquals(5, header.getInt(HEADER_SIZE + 8));
+    }
+
+    @Test
+    public void replaceDropsPreviousPages() throws Exception {
+        cache.replace("first");
+        cache.appendPage("second");
+
+        cache.replace("other");
+
+        assertEquals(1, cache.getPageCount());
+        assertEquals("other", cache.readPage(0));
+        assertNull(cache.readPage(1));
+    }
+
+    @Test
+    public void appendAddsPagesInOrder() throws Exception {
+        cache.replace("first");
+
+        assertTrue(cache.appendPage("second"));
+        assertTrue(cache.appendPage("third"));
+
+        assertEquals(3, cache.getPageCount());
+        assertEquals("first", cache.readPage(0));
+        assertEquals("second", cache.readPage(1));
+        assertEquals("third", cache.readPage(2));
+    }
+
+    @Test
+    public void appendWithoutCacheFileFails() throws Exception {
+        assertFalse(cache.appendPage("page"));
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void appendToFullCacheFails() throws Exception {
+        cache.replace("0");
+        for (int i = 1; i < TGFeedPageCache.MAX_PAGES; i++) {
+            assertTrue(cache.appendPage(String.valueOf(i)));
+        }
+
+        assertFalse(cache.appendPage("full"));
+        assertEquals(TGFeedPageCache.MAX_PAGES, cache.getPageCount());
+        assertEquals(String.valueOf(TGFeedPageCache.MAX_PAGES - 1), cache.readPage(TGFeedPageCache.MAX_PAGES - 1));
+    }
+
+    @Test
+    public void pagesKeepMultiByteCharacters() throws Exception {
+        cache.replace("Gr\u00fc\u00dfe \u20ac");
+        cache.appendPage("\u65e5\u672c");
+
+        assertEquals("Gr\u00fc\u00dfe \u20ac", cache.readPage(0));
+        assertEquals("\u65e5\u672c", cache.readPage(1));
+    }
+
+    @Test
+    public void pageOutOfRangeIsNull() throws Exception {
+        cache.replace("first");
+
+        assertNull(cache.readPage(-1));
+        assertNull(cache.readPage(TGFeedPageCache.MAX_PAGES));
+    }
+
+    @Test
+    public void foreignFileIsIgnored() throws Exception {
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(new byte[DATA_OFFSET + 10]);
+        out.close();
+
+        assertEquals(0, cache.getPageCount());
+        assertNull(cache.readPage(0));
+        assertFalse(cache.appendPage("page"));
+    }
+
+    @Test
+    public void fileShorterThanHeaderIsIgnored() throws Exception {
+        cache.replace("first");
+        truncate(HEADER_SIZE);
+
+        assertEquals(0, cache.getPageCount());
+        assertNull(cache.readPage(0));
+    }
+
+    @Test
+    public void otherVersionIsIgnored() throws Exception {
+        cache.replace("first");
+        writeInt(4, 2);
+
+        assertEquals(0, cache.getPageCount());
+        assertNull(cache.readPage(0));
+    }
+
+    @Test
+    public void invalidPageCountIsIgnored() throws Exception {
+        cache.replace("first");
+        writeInt(8, TGFeedPageCache.MAX_PAGES + 1);
+
+        assertEquals(0, cache.getPageCount());
+        assertNull(cache.readPage(0));
+    }
+
+    @Test
+    public void pageBeyondEndOfFileIsNull() throws Exception {
+        cache.replace("first");
+        cache.appendPage("second");
+        truncate(DATA_OFFSET + "first".length() + 2);
+
+        assertEquals("first", cache.readPage(0));
+        assertNull(cache.readPage(1));
+    }
+
+    @Test
+    public void replaceRepairsCorruptFile() throws Exception {
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(new byte[] {1, 2, 3});
+        out.close();
+
+        cache.replace("first");
+
+        assertEquals(1, cache.getPageCount());
+        assertEquals("first", cache.readPage(0));
+    }
+
+    @Test
+    public void clearRemovesFile() throws Exception {
+        cache.replace("first");
+
+        cache.clear();
+
+        assertFalse(file.exists());
+        assertEquals(0, cache.getPageCount());
+    }
+
+    @Test
+    public void updateWritesAllPagesOfNewCache() throws Exception {
+        assertEquals(0, cache.update(Arrays.asList("first", "second")));
+
+        assertEquals(2, cache.getPageCount());
+        assertEquals("first", cache.readPage(0));
+        assertEquals("second", cache.readPage(1));
+    }
+
+    @Test
+    public void updateKeepsUnchangedPages() throws Exception {
+        cache.update(Arrays.asList("first", "second", "third"));
+
+        assertEquals(1, cache.update(Arrays.asList("first", "other")));
+
+        assertEquals(2, cache.getPageCount());
+        assertEquals("first", cache.readPage(0));
+        assertEquals("other", cache.readPage(1));
+        assertEquals(DATA_OFFSET + "firstother".length(), file.length());
+        assertEquals(DATA_OFFSET, readHeader().getLong(HEADER_SIZE));
+    }
+
+    @Test
+    public void updateWithoutChangesWritesNothing() throws Exception {
+        cache.update(Arrays.asList("first", "second"));
+        long length = file.length();
+
+        assertEquals(2, cache.update(Arrays.asList("first", "second")));
+
+        assertEquals(length, file.length());
+    }
+
+    @Test
+    public void updateDropsTrailingPages() throws Exception {
+        cache.update(Arrays.asList("first", "second", "third"));
+
+        assertEquals(2, cache.update(Arrays.asList("first", "second")));
+
+        assertEquals(2, cache.getPageCount());
+        assertNull(cache.readPage(2));
+        assertEquals(DATA_OFFSET + "firstsecond".length(), file.length());
+    }
+
+    @Test
+    public void updateRewritesAllPagesWhenFirstChanged() throws Exception {
+        cache.update(Arrays.asList("first", "second"));
+
+        assertEquals(0, cache.update(Arrays.asList("other", "second")));
+
+        assertEquals("other", cache.readPage(0));
+        assertEquals("second", cache.readPage(1));
+        assertEquals(DATA_OFFSET + "othersecond".length(), file.length());
+    }
+
+    @Test
+    public void updateComparesWithPagesWrittenBefore() throws Exception {
+        cache.update(Arrays.asList("first", "second"));
+
+        TGFeedPageCache reopened = new TGFeedPageCache(file);
+
+        assertEquals(1, reopened.update(Arrays.asList("first", "other")));
+        assertEquals("other", reopened.readPage(1));
+    }
+
+    @Test
+    public void updateRepairsCorruptFile() throws Exception {
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(new byte[] {1, 2, 3});
+        out.close();
+
+        assertEquals(0, cache.update(Arrays.asList("first", "second")));
+
+        assertEquals(2, cache.getPageCount());
+        assertEquals("second", cache.readPage(1));
+    }
+
+    @Test
+    public void updateAfterClearWritesAllPages() throws Exception {
+        cache.update(Arrays.asList("first", "second"));
+        cache.clear();
+
+        assertEquals(0, cache.update(Arrays.asList("first", "second")));
+
+        assertEquals(2, cache.getPageCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void updateWithoutPagesFails() throws Exception {
+        cache.update(Collections.<String>emptyList());
+    }
+
+    private ByteBuffer readHeader() throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            ByteBuffer header = ByteBuffer.allocate(DATA_OFFSET);
+            raf.getChannel().read(header, 0);
+            return header;
+        } finally {
+            raf.close();
+        }
+    }
+
+    private void writeInt(int position, int value) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.seek(position);
+            raf.writeInt(value);
+        } finally {
+            raf.close();
+        }
+    }
+
+    private void truncate(long length) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(length);
+        } finally {
+            raf.close();
+        }
+    }
+}
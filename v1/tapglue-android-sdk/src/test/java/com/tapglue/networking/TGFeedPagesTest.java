@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.tapglue.networking;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TGFeedPagesTest {
+
+    @Test
+    public void smallFeedIsOnePage() {
+        JsonObject feed = feed(3, 2);
+
+        List<String> pages = TGFeedPages.split(feed, 10, "events", "posts");
+
+        assertEquals(1, pages.size());
+        assertEquals(feed, parse(pages.get(0)));
+    }
+
+    @Test
+    public void listsAreSplitIntoPages() {
+        List<String> pages = TGFeedPages.split(feed(5, 3), 2, "events", "posts");
+
+        assertEquals(3, pages.size());
+        assertEquals(2, parse(pages.get(0)).getAsJsonArray("events").size());
+        assertEquals(2, parse(pages.get(1)).getAsJsonArray("events").size());
+        assertEquals(1, parse(pages.get(1)).getAsJsonArray("posts").size());
+        assertEquals("e4", parse(pages.get(2)).getAsJsonArray("events").get(0).getAsJsonObject().get("id").getAsString());
+        assertFalse(parse(pages.get(2)).has("posts"));
+    }
+
+    @Test
+    public void otherFieldsStayOnFirstPage() {
+        List<String> pages = TGFeedPages.split(feed(5, 3), 2, "events", "posts");
+
+        assertEquals(7, parse(pages.get(0)).get("unread_events_count").getAsInt());
+        assertFalse(parse(pages.get(1)).has("unread_events_count"));
+    }
+
+    @Test
+    public void joinRestoresFeed() {
+        JsonObject feed = feed(5, 3);
+
+        assertEquals(feed, TGFeedPages.join(TGFeedPages.split(feed, 2, "events", "posts"), "events", "posts"));
+    }
+
+    @Test
+    public void pagesGrowToFitMaxPages() {
+        int events = TGFeedPageCache.MAX_PAGES * 3 + 1;
+        JsonObject feed = feed(events, 0);
+
+        List<String> pages = TGFeedPages.split(feed, 1, "events", "posts");
+
+        assertTrue(pages.size() <= TGFeedPageCache.MAX_PAGES);
+        assertEquals(events, TGFeedPages.join(pages, "events", "posts").getAsJsonArray("events").size());
+    }
+
+    @Test
+    public void feedWithoutListsIsOnePage() {
+        JsonObject feed = new JsonObject();
+        feed.addProperty("unread_events_count", 1);
+
+        List<String> pages = TGFeedPages.split(feed, 2, "events", "posts");
+
+        assertEquals(Collections.singletonList(feed.toString()), pages);
+    }
+
+    @Test
+    public void joinWithoutPagesIsNull() {
+        assertNull(TGFeedPages.join(Collections.<String>emptyList(), "events", "posts"));
+    }
+
+    private static JsonObject feed(int events, int posts) {
+        JsonObject feed = new JsonObject();
+        feed.add("events", entries("e", events));
+        feed.add("posts", entries("p", posts));
+        feed.addProperty("unread_events_count", 7);
+        return feed;
+    }
+
+    private static JsonArray entries(String prefix, int count) {
+        JsonArray entries = new JsonArray();
+        for (int i = 0; i < count; i++) {
+            JsonObject entry = new JsonObject();
+            entry.addProperty("id", prefix + i);
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    private static JsonObject parse(String json) {
+        return new JsonParser().parse(json).getAsJsonObject();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2015-2016 Tapglue (https://www.tapglue.com/). All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.tapglue.utils;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+public class TGTimestampParserTest {
+
+    @Test
+    public void parsesUtcTimestamp() throws Exception {
+        assertEquals(reference("2016-03-09T10:35:02.000+0000"), TGTimestampParser.toMillis("2016-03-09T10:35:02Z"));
+    }
+
+    @Test
+    public void truncatesFractionToMillis() throws Exception {
+        assertEquals(reference("2016-03-09T10:35:02.123+0000"), TGTimestampParser.toMillis("2016-03-09T10:35:02.123456Z"));
+    }
+
+    @Test
+    public void appliesOffset() throws Exception {
+        assertEquals(reference("2016-03-09T10:35:02.500+0130"), TGTimestampParser.toMillis("2016-03-09T10:35:02.5+01:30"));
+        assertEquals(reference("2016-03-09T10:35:02.000-0200"), TGTimestampParser.toMillis("2016-03-09T10:35:02-0200"));
+    }
+
+    @Test
+    public void handlesLeapYears() throws Exception {
+        assertEquals(reference("2016-02-29T00:00:00.000+0000"), TGTimestampParser.toMillis("2016-02-29T00:00:00Z"));
+        assertEquals(reference("2000-03-01T00:00:00.000+0000"), TGTimestampParser.toMillis("2000-03-01T00:00:00Z"));
+    }
+
+    @Test
+    public void missingZoneIsUtc() throws Exception {
+        assertEquals(1000L, TGTimestampParser.toMillis("1970-01-01T00:00:01"));
+    }
+
+    @Test
+    public void malformedTimestampIsZero() {
+        assertEquals(0L, TGTimestampParser.toMillis(null));
+        assertEquals(0L, TGTimestampParser.toMillis("yesterday"));
+        assertEquals(0L, TGTimestampParser.toMillis("2016-13-09T10:35:02Z"));
+    }
+
+    @Test
+    public void outOfRangeTimeIsZero() {
+        assertEquals(0L, TGTimestampParser.toMillis("2016-03-09T24:00:00Z"));
+        assertEquals(0L, TGTimestampParser.toMillis("2016-03-09T10:60:02Z"));
+        assertEquals(0L, TGTimestampParser.toMillis("2016-03-09T10:35:60Z"));
+        assertEquals(0L, TGTimestampParser.toMillis("2016-03-09T10:35:02+24:00"));
+        assertEquals(0L, TGTimestampParser.toMillis("2016-03-09T10:35:02+01:60"));
+    }
+
+    @Test
+    public void dayBeyondMonthIsZero() {
+        assertEquals(0L, TGTimestampParser.toMillis("2016-04-31T00:00:00Z"));
+        assertEquals(0L, TGTimestampParser.toMillis("2015-02-29T00:00:00Z"));
+        assertEquals(0L, TGTimestampParser.toMillis("1900-02-29T00:00:00Z"));
+        assertEquals(0L, TGTimestampParser.toMillis("2016-02-30T00:00:00Z"));
+    }
+
+    @Test
+    public void lastDayOfMonthIsParsed() throws Exception {
+        assertEquals(reference("2016-04-30T23:59:59.000+0000"), TGTimestampParser.toMillis("2016-04-30T23:59:59Z"));
+        assertEquals(reference("2000-02-29T00:00:00.000+0000"), TGTimestampParser.toMillis("2000-02-29T00:00:00Z"));
+    }
+
+    private static long reference(String value) throws Exception {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.parse(value).getTime();
+    }
+}